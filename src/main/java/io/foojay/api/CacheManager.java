@@ -20,6 +20,7 @@
 package io.foojay.api;
 
 import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.mongodb.MongoException;
 import eu.hansolo.jdktools.scopes.BuildScope;
 import eu.hansolo.jdktools.util.OutputFormat;
 import io.foojay.api.mqtt.MqttEvt;
@@ -28,29 +29,48 @@ import io.foojay.api.mqtt.MqttManager3;
 import io.foojay.api.pkg.Distro;
 import io.foojay.api.pkg.MajorVersion;
 import io.foojay.api.pkg.Pkg;
+import io.foojay.api.pkg.PkgJsonWriter;
+import io.foojay.api.util.AllPkgsWriter;
+import io.foojay.api.util.CatalogBody;
 import io.foojay.api.util.Constants;
+import io.foojay.api.util.DistroCatalog;
 import io.foojay.api.util.Helper;
-import io.foojay.api.util.JsonCache;
+import io.foojay.api.util.JsonBytesCache;
+import io.foojay.api.util.PkgBinaryWriter;
 import io.foojay.api.util.PkgCache;
+import io.foojay.api.util.PkgChangeLog;
+import io.foojay.api.util.PkgSnapshot;
 import io.foojay.api.util.State;
+import io.foojay.api.util.VersionCatalog;
 import io.micronaut.context.annotation.Requires;
 import io.micronaut.context.env.Environment;
+import io.micronaut.http.MediaType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 
@@ -59,12 +79,14 @@ public enum CacheManager {
     INSTANCE;
 
     private static final Logger                       LOGGER                      = LoggerFactory.getLogger(CacheManager.class);
+    private static final ThreadLocal<PkgJsonWriter>   JSON_WRITER                 = ThreadLocal.withInitial(PkgJsonWriter::new);
     public final         MqttManager3                 mqttManager                 = new MqttManager3();
     public final         MqttEvtObserver              mqttEvtObserver             = evt -> handleMqttEvt(evt);
     public final         PkgCache<String, Pkg>        pkgCache                    = new PkgCache<>();
-    public final         JsonCache<String, String>    jsonCacheV2                 = new JsonCache<>();
-    public final         JsonCache<String, String>    jsonCacheV3                 = new JsonCache<>();
-    public final         JsonCache<String, String>    jsonCacheMinimizedV3        = new JsonCache<>();
+    public final         PkgChangeLog                 pkgChangeLog                = new PkgChangeLog();
+    public final         JsonBytesCache<String>       jsonCacheV2                 = new JsonBytesCache<>();
+    public final         JsonBytesCache<String>       jsonCacheV3                 = new JsonBytesCache<>();
+    public final         JsonBytesCache<String>       jsonCacheMinimizedV3        = new JsonBytesCache<>();
     public final         Map<Integer, Boolean>        maintainedMajorVersions     = new ConcurrentHashMap<>() {{
         put(1, false);
         put(2, false);
@@ -89,8 +111,14 @@ public enum CacheManager {
     }};
     public final         AtomicBoolean                syncWithDatabaseInProgress  = new AtomicBoolean(false);
     public final         AtomicLong                   msToFillCacheWithPkgsFromDB = new AtomicLong(-1);
+    public final         Map<String, Long>            msToLoadPartitionFromDB     = new ConcurrentHashMap<>();
     public final         AtomicLong                   numberOfPackages            = new AtomicLong(-1);
     public final         AtomicReference<Instant>     lastSync                    = new AtomicReference<>(Instant.MIN);
+    private final        AtomicReference<DistroCatalog> distroCatalog             = new AtomicReference<>(DistroCatalog.empty());
+    private final        AtomicReference<PkgSnapshot<String, Pkg>> jsonCacheSnapshot = new AtomicReference<>();
+    private final        AtomicLong                   catalogBodyGeneration       = new AtomicLong(0);
+    private final        Map<Distro, Instant>         appliedDistroUpdates        = new ConcurrentHashMap<>();
+    private final        Map<CatalogBodyKey, CatalogBody> catalogBodies           = new ConcurrentHashMap<>();
     private final        List<MajorVersion>           majorVersions               = new LinkedList<>();
 
 
@@ -139,23 +167,56 @@ public enum CacheManager {
         }
     }
 
-    public void updateJsonCacheV2() {
-        StateManager.INSTANCE.setState(State.UPDATING, "Updating Json Cache V2");
-        pkgCache.getEntrySet().parallelStream().forEach(entry -> jsonCacheV2.put(entry.getKey(), entry.getValue().toString(OutputFormat.REDUCED_COMPRESSED, Constants.API_VERSION_V2)));
-        final List<String> keysToRemove = jsonCacheV2.getEntrySet().parallelStream().filter(entry -> !pkgCache.containsKey(entry.getKey())).map(entry -> entry.getKey()).collect(Collectors.toList());
+    /**
+     * Updates the json caches (V2, V3 and minimized V3) with the packages of the current package cache snapshot.
+     * Only packages that were added or that differ (Pkg.diff()) from the package in the snapshot the json caches
+     * have been built from will be serialized again, all three formats are written in one pass over the changed
+     * packages. Packages that are not part of the current snapshot anymore will be removed from the json caches.
+     * The added, changed and removed package ids will be recorded in the pkgChangeLog.
+     */
+    public synchronized void updateJsonCaches() {
+        StateManager.INSTANCE.setState(State.UPDATING, "Updating Json Caches");
+        final long                     startUpdatingJsonCaches = System.currentTimeMillis();
+        final PkgSnapshot<String, Pkg> snapshot                = pkgCache.getSnapshot();
+        final PkgSnapshot<String, Pkg> previous                = jsonCacheSnapshot.get();
+        final Map<String, Pkg>         pkgs                    = snapshot.getPkgMap();
+        final Map<String, Pkg>         previousPkgs            = null == previous ? Map.of() : previous.getPkgMap();
+
+        final List<Pkg> changedPkgs = pkgs.values().parallelStream().filter(pkg -> isJsonOutdated(pkg, previousPkgs.get(pkg.getId()))).collect(Collectors.toList());
+        changedPkgs.parallelStream().forEach(pkg -> {
+            final PkgJsonWriter jsonWriter = JSON_WRITER.get();
+            jsonCacheV2.put(pkg.getId(), jsonWriter.reset().write(pkg, OutputFormat.REDUCED_COMPRESSED, Constants.API_VERSION_V2).getBuffer());
+            jsonCacheV3.put(pkg.getId(), jsonWriter.reset().write(pkg, OutputFormat.REDUCED_COMPRESSED, Constants.API_VERSION_V3).getBuffer());
+            jsonCacheMinimizedV3.put(pkg.getId(), jsonWriter.reset().write(pkg, OutputFormat.MINIMIZED, Constants.API_VERSION_V3).getBuffer());
+        });
+
+        // Without a previous snapshot the json caches might contain keys of unknown packages
+        final Stream<String> knownKeys    = null == previous ? Stream.of(jsonCacheV2.getKeys(), jsonCacheV3.getKeys(), jsonCacheMinimizedV3.getKeys()).flatMap(Collection::stream).distinct() : previousPkgs.keySet().stream();
+        final List<String>   keysToRemove = knownKeys.filter(key -> !pkgs.containsKey(key)).collect(Collectors.toList());
         jsonCacheV2.remove(keysToRemove);
-    }
-    public void updateJsonCacheV3() {
-        StateManager.INSTANCE.setState(State.UPDATING, "Updating Json Cache V3");
-        pkgCache.getEntrySet().parallelStream().forEach(entry -> jsonCacheV3.put(entry.getKey(), entry.getValue().toString(OutputFormat.REDUCED_COMPRESSED, Constants.API_VERSION_V3)));
-        final List<String> keysToRemove = jsonCacheV3.getEntrySet().parallelStream().filter(entry -> !pkgCache.containsKey(entry.getKey())).map(entry -> entry.getKey()).collect(Collectors.toList());
         jsonCacheV3.remove(keysToRemove);
-    }
-    public void updateJsonCacheMinimizedV3() {
-        StateManager.INSTANCE.setState(State.UPDATING, "Updating Json Cache Reduced V3");
-        pkgCache.getEntrySet().parallelStream().forEach(entry -> jsonCacheMinimizedV3.put(entry.getKey(), entry.getValue().toString(OutputFormat.MINIMIZED, Constants.API_VERSION_V3)));
-        final List<String> keysToRemove = jsonCacheMinimizedV3.getEntrySet().parallelStream().filter(entry -> !pkgCache.containsKey(entry.getKey())).map(entry -> entry.getKey()).collect(Collectors.toList());
         jsonCacheMinimizedV3.remove(keysToRemove);
+
+        // The snapshot is published before the changes are recorded, so a delta of the recorded generation always finds its packages
+        jsonCacheSnapshot.set(snapshot);
+        if (null == previous) {
+            pkgChangeLog.reset(snapshot.getGeneration());
+        } else if (snapshot.getGeneration() > previous.getGeneration()) {
+            final List<String> addedIds   = new ArrayList<>();
+            final List<String> changedIds = new ArrayList<>();
+            changedPkgs.forEach(pkg -> (previousPkgs.containsKey(pkg.getId()) ? changedIds : addedIds).add(pkg.getId()));
+            pkgChangeLog.record(previous.getGeneration(), snapshot.getGeneration(), addedIds, changedIds, keysToRemove);
+        }
+
+        invalidateCatalogBodies();
+        LOGGER.debug("Updated json caches with {} changed and {} removed pkgs (generation {}) in {} ms", changedPkgs.size(), keysToRemove.size(), snapshot.getGeneration(), (System.currentTimeMillis() - startUpdatingJsonCaches));
+    }
+
+    private boolean isJsonOutdated(final Pkg pkg, final Pkg previousPkg) {
+        if (null == previousPkg) { return true; }
+        final String id = pkg.getId();
+        if (!jsonCacheV2.containsKey(id) || !jsonCacheV3.containsKey(id) || !jsonCacheMinimizedV3.containsKey(id)) { return true; }
+        return previousPkg != pkg && !previousPkg.diff(pkg).isEmpty();
     }
 
     public List<MajorVersion> getMajorVersions() {
@@ -166,7 +227,112 @@ public enum CacheManager {
         return majorVersions.stream().filter(majorVersion -> majorVersion.getScope() == scope).collect(Collectors.toList());
     }
 
-    public void syncCacheWithDatabase() {
+    /**
+     * Returns the version catalog of the current package cache generation.
+     * @return the version catalog of the current package cache generation
+     */
+    public VersionCatalog getVersionCatalog() { return pkgCache.getSnapshot().getVersionCatalog(); }
+
+    /**
+     * Returns the versions and number of packages per distribution of the current package cache
+     * generation. If the package cache has changed, the catalog will be derived from the previous one.
+     * @return the distribution catalog of the current package cache generation
+     */
+    public DistroCatalog getDistroCatalog() {
+        final PkgSnapshot<String, Pkg> snapshot = pkgCache.getSnapshot();
+        final DistroCatalog            catalog  = distroCatalog.get();
+        if (catalog.getGeneration() >= snapshot.getGeneration()) { return catalog; }
+        synchronized (distroCatalog) {
+            final DistroCatalog previous = distroCatalog.get();
+            if (previous.getGeneration() >= snapshot.getGeneration()) { return previous; }
+            final DistroCatalog updated = DistroCatalog.of(snapshot.getGeneration(), snapshot.getPkgs(), previous);
+            distroCatalog.set(updated);
+            return updated;
+        }
+    }
+
+    /**
+     * Returns the precomputed all packages message for the given json cache and parameters.
+     * Every variant will be computed and compressed only once until the package cache or the
+     * json caches change.
+     * @param jsonCache    One of jsonCacheV2, jsonCacheV3 or jsonCacheMinimizedV3
+     * @param downloadable If true only distributions that are directly downloadable will be included
+     * @param include_ea   If true early access packages will be included
+     * @param scope        BUILD_OF_OPEN_JDK, BUILD_OF_GRAALVM or any other scope for all packages
+     * @return the precomputed all packages message for the given json cache and parameters
+     */
+    public CatalogBody getAllPkgsBody(final JsonBytesCache<String> jsonCache, final Boolean downloadable, final Boolean include_ea, final BuildScope scope) {
+        final long           generation = catalogBodyGeneration.get();
+        final BuildScope     buildScope = (BuildScope.BUILD_OF_OPEN_JDK == scope || BuildScope.BUILD_OF_GRAALVM == scope) ? scope : null;
+        final CatalogBodyKey key        = new CatalogBodyKey(generation, jsonCache, null != downloadable && downloadable, null != include_ea && include_ea, buildScope);
+        final CatalogBody    body       = catalogBodies.computeIfAbsent(key, k -> {
+            // The packages must be the ones the json caches have been built for, a newer snapshot of pkgCache
+            // can contain packages without json or with outdated json until updateJsonCaches() has run
+            final PkgSnapshot<String, Pkg> snapshot = getJsonCacheSnapshot();
+            final ByteArrayOutputStream    out      = new ByteArrayOutputStream();
+            try {
+                new AllPkgsWriter(snapshot.getPkgs(), jsonCache, k.downloadable(), k.includeEa(), k.scope()).writeTo(out, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return CatalogBody.of(out.toByteArray());
+        });
+        // Bodies that were computed while the caches have been updated are outdated
+        if (generation != catalogBodyGeneration.get()) { catalogBodies.keySet().removeIf(k -> k.generation() != catalogBodyGeneration.get()); }
+        return body;
+    }
+
+    /**
+     * Returns the precomputed all packages list in the binary format (see PkgBinaryWriter) for the given
+     * parameters. It contains the same packages in the same order as the all packages message of jsonCacheV3
+     * and will be computed and compressed only once until the package cache or the json caches change.
+     * @param downloadable If true only distributions that are directly downloadable will be included
+     * @param include_ea   If true early access packages will be included
+     * @param scope        BUILD_OF_OPEN_JDK, BUILD_OF_GRAALVM or any other scope for all packages
+     * @return the precomputed all packages list in the binary format for the given parameters
+     */
+    public CatalogBody getAllPkgsBinaryBody(final Boolean downloadable, final Boolean include_ea, final BuildScope scope) {
+        final long           generation = catalogBodyGeneration.get();
+        final BuildScope     buildScope = (BuildScope.BUILD_OF_OPEN_JDK == scope || BuildScope.BUILD_OF_GRAALVM == scope) ? scope : null;
+        // The binary variants are stored without a json cache
+        final CatalogBodyKey key        = new CatalogBodyKey(generation, null, null != downloadable && downloadable, null != include_ea && include_ea, buildScope);
+        final CatalogBody    body       = catalogBodies.computeIfAbsent(key, k -> {
+            final PkgSnapshot<String, Pkg> snapshot = getJsonCacheSnapshot();
+            final Predicate<Pkg>           filter   = AllPkgsWriter.filter(k.downloadable(), k.includeEa(), k.scope());
+            final List<Pkg>                pkgs     = snapshot.getPkgs().stream().filter(pkg -> filter.test(pkg) && jsonCacheV3.containsKey(pkg.getId())).collect(Collectors.toList());
+            return CatalogBody.of(PkgBinaryWriter.write(pkgs, snapshot.getGeneration()), MediaType.of(Constants.PKGS_BINARY_MEDIA_TYPE));
+        });
+        // Bodies that were computed while the caches have been updated are outdated
+        if (generation != catalogBodyGeneration.get()) { catalogBodies.keySet().removeIf(k -> k.generation() != catalogBodyGeneration.get()); }
+        return body;
+    }
+
+    /**
+     * Returns the snapshot of the package cache the json caches have been built for (or the current
+     * snapshot if the json caches have not been built yet). Responses that combine packages with their
+     * cached json have to use the packages of this snapshot.
+     * @return the snapshot of the package cache the json caches have been built for
+     */
+    public PkgSnapshot<String, Pkg> getJsonCacheSnapshot() {
+        final PkgSnapshot<String, Pkg> snapshot = jsonCacheSnapshot.get();
+        return null == snapshot ? pkgCache.getSnapshot() : snapshot;
+    }
+
+    private void invalidateCatalogBodies() {
+        final long generation = catalogBodyGeneration.incrementAndGet();
+        catalogBodies.keySet().removeIf(key -> key.generation() != generation);
+    }
+
+    public void syncCacheWithDatabase() { syncCacheWithDatabase(false); }
+    /**
+     * Synchronizes the package cache with the packages in the database. The timestamps of the last update per
+     * distribution (distroupdates collection) will be compared with the ones that have been applied to the cache
+     * and only the packages of the distributions that have been updated since will be reloaded and replaced in
+     * one new snapshot. All packages will be reloaded if the cache is empty, no timestamps have been applied yet,
+     * the database does not contain any timestamps or if a full reload is requested.
+     * @param fullReload If true all packages will be reloaded from the database
+     */
+    public void syncCacheWithDatabase(final boolean fullReload) {
         if (syncWithDatabaseInProgress.get()) { return; }
 
         syncWithDatabaseInProgress.set(true);
@@ -177,13 +343,58 @@ public enum CacheManager {
         Map<Distro, Instant> lastUpdates = MongoDbManager.INSTANCE.getLastUpdatesForDistros();
         Distro.getAsListWithoutNoneAndNotFound().forEach(distro -> distro.lastUpdate.set(lastUpdates.get(distro)));
 
-        LOGGER.debug("Fill cache with packages from mongodb");
-        final long      startRetrievingPkgFromMongodb = System.currentTimeMillis();
-        final List<Pkg> pkgsFromMongoDb               = MongoDbManager.INSTANCE.getPkgs();
-        LOGGER.debug("Got all pkgs from mongodb in {} ms", (System.currentTimeMillis() - startRetrievingPkgFromMongodb));
+        final boolean reloadAll = fullReload || pkgCache.isEmpty() || appliedDistroUpdates.isEmpty() || lastUpdates.isEmpty();
+        if (reloadAll) {
+            LOGGER.debug("Fill cache with packages from mongodb");
+            final Map<String, Pkg> patch = loadPkgsFromDatabase(Distro.getAsListWithoutNoneAndNotFound(), true);
+            if (null == patch || patch.isEmpty()) {
+                // Publishing an empty or partly loaded cache would drop packages that are still in the database
+                if (null != patch) { LOGGER.warn("No packages loaded from mongodb, package cache stays at generation {}", pkgCache.getGeneration()); }
+                syncWithDatabaseInProgress.set(false);
+                return;
+            }
+
+            final long startPublishingSnapshot = System.currentTimeMillis();
+            pkgCache.setAll(patch);
+            LOGGER.debug("Published snapshot with {} indexed pkgs (generation {}) in {} ms", pkgCache.size(), pkgCache.getGeneration(), (System.currentTimeMillis() - startPublishingSnapshot));
+            appliedDistroUpdates.clear();
+            appliedDistroUpdates.putAll(lastUpdates);
+        } else {
+            final Set<Distro> updatedDistros = Stream.concat(lastUpdates.keySet().stream(), appliedDistroUpdates.keySet().stream())
+                                                     .filter(distro -> !Objects.equals(lastUpdates.get(distro), appliedDistroUpdates.get(distro)))
+                                                     .collect(Collectors.toSet());
+            if (updatedDistros.isEmpty()) {
+                LOGGER.debug("No distro updated since last sync, package cache stays at generation {}", pkgCache.getGeneration());
+                lastSync.set(Instant.now());
+                syncWithDatabaseInProgress.set(false);
+                return;
+            }
+
+            LOGGER.debug("Fill cache with packages of updated distros {} from mongodb", updatedDistros);
+            final Map<String, Pkg> patch = loadPkgsFromDatabase(updatedDistros.stream().filter(distro -> Distro.NONE != distro && Distro.NOT_FOUND != distro).collect(Collectors.toList()), false);
+            if (null == patch) {
+                // The updated distros keep their packages and their applied timestamps, so they will be loaded again with the next sync.
+                // An empty patch on the other hand is valid and removes the packages of the updated distros from the cache.
+                syncWithDatabaseInProgress.set(false);
+                return;
+            }
 
-        Map<String, Pkg> patch = pkgsFromMongoDb.parallelStream().collect(Collectors.toMap(Pkg::getId, pkg -> pkg));
-        pkgCache.setAll(patch);
+            final long startPublishingSnapshot = System.currentTimeMillis();
+            pkgCache.replaceAll(pkg -> null != pkg.getDistribution() && updatedDistros.contains(pkg.getDistribution().getDistro()), patch);
+            LOGGER.debug("Published snapshot with {} indexed pkgs (generation {}) in {} ms", pkgCache.size(), pkgCache.getGeneration(), (System.currentTimeMillis() - startPublishingSnapshot));
+            updatedDistros.forEach(distro -> {
+                final Instant lastUpdate = lastUpdates.get(distro);
+                if (null == lastUpdate) {
+                    appliedDistroUpdates.remove(distro);
+                } else {
+                    appliedDistroUpdates.put(distro, lastUpdate);
+                }
+            });
+        }
+        // Results of the previous generation are outdated now
+        DiscoService.INSTANCE.invalidateQueryCache();
+        invalidateCatalogBodies();
+        getDistroCatalog();
 
         numberOfPackages.set(pkgCache.size());
         msToFillCacheWithPkgsFromDB.set(System.currentTimeMillis() - startSyncronizingCache);
@@ -193,7 +404,36 @@ public enum CacheManager {
 
         lastSync.set(Instant.now());
         syncWithDatabaseInProgress.set(false);
+    }
+
+    /**
+     * Loads the packages of the given distributions from the database and records the time needed per partition.
+     * A load that failed or could not be done (e.g. database not connected) will be treated as failed, because
+     * replacing packages with its result would remove them from the cache. An empty result is returned as is,
+     * it is up to the caller to decide whether it is valid (e.g. all packages of a distribution have been deleted).
+     * @param distros       Distributions to load
+     * @param includeOthers If true all packages will be loaded (including the ones of all other distributions)
+     * @return the loaded packages by their id or null if the load failed
+     */
+    private Map<String, Pkg> loadPkgsFromDatabase(final List<Distro> distros, final boolean includeOthers) {
+        final long              start = System.currentTimeMillis();
+        final Map<String, Pkg>  pkgs  = new ConcurrentHashMap<>();
+        final Map<String, Long> msPerPartition;
+        try {
+            msPerPartition = MongoDbManager.INSTANCE.loadPkgs(distros, includeOthers, pkgs);
+        } catch (MongoException e) {
+            LOGGER.error("Error loading packages from mongodb, package cache stays at generation {}. {}", pkgCache.getGeneration(), e.getMessage());
+            return null;
+        }
+        if (null == msPerPartition) {
+            LOGGER.warn("Packages could not be loaded from mongodb, package cache stays at generation {}", pkgCache.getGeneration());
+            return null;
         }
+        LOGGER.debug("Got {} pkgs of {} partitions from mongodb in {} ms", pkgs.size(), msPerPartition.size(), (System.currentTimeMillis() - start));
+        if (includeOthers) { msToLoadPartitionFromDB.clear(); }
+        msToLoadPartitionFromDB.putAll(msPerPartition);
+        return pkgs;
+    }
 
 
     // ******************** MQTT Message handling *****************************
@@ -212,9 +452,7 @@ public enum CacheManager {
                             syncCacheWithDatabase();
 
                             // Update json cache
-                            updateJsonCacheV2();
-                        updateJsonCacheV3();
-                        updateJsonCacheMinimizedV3();
+                            updateJsonCaches();
                         } catch (Exception e) {
                             syncWithDatabaseInProgress.set(false);
                         }
@@ -228,9 +466,7 @@ public enum CacheManager {
                         syncCacheWithDatabase();
 
                         // Update json cache
-                        updateJsonCacheV2();
-                        updateJsonCacheV3();
-                        updateJsonCacheMinimizedV3();
+                        updateJsonCaches();
                     } catch (Exception e) {
                         syncWithDatabaseInProgress.set(false);
                     }
@@ -240,13 +476,11 @@ public enum CacheManager {
                         LOGGER.debug("Force pkg update -> syncCacheWithDatabase(). MQTT event: {}", evt);
                         mqttManager.publish(Constants.MQTT_API_STATE_TOPIC, "Force pkg update -> syncCacheWithDatabase");
 
-                        // Update cache with pkgs from mongodb
-                        syncCacheWithDatabase();
+                        // Reload all pkgs from mongodb
+                        syncCacheWithDatabase(true);
 
                         // Update json cache
-                        updateJsonCacheV2();
-                        updateJsonCacheV3();
-                        updateJsonCacheMinimizedV3();
+                        updateJsonCaches();
                     } catch (Exception e) {
                         syncWithDatabaseInProgress.set(false);
                     }
@@ -254,4 +488,7 @@ public enum CacheManager {
             }
         }
     }
+
+
+    private record CatalogBodyKey(long generation, JsonBytesCache<String> jsonCache, boolean downloadable, boolean includeEa, BuildScope scope) {}
 }
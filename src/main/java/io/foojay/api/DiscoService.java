@@ -40,17 +40,24 @@ import io.foojay.api.pkg.Feature;
 import io.foojay.api.pkg.MajorVersion;
 import io.foojay.api.pkg.Pkg;
 import io.foojay.api.util.Constants;
+import io.foojay.api.util.PkgIndex;
+import io.foojay.api.util.PkgQuery;
+import io.foojay.api.util.PkgSnapshot;
+import io.foojay.api.util.QueryCache;
+import io.foojay.api.util.VersionKey;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -60,55 +67,20 @@ import static java.util.stream.Collectors.toSet;
 public enum DiscoService {
     INSTANCE;
 
+    private final QueryCache<PkgQuery, List<Pkg>> queryCache = new QueryCache<>("discoapi.queries", Constants.QUERY_CACHE_SIZE);
+
+
     public List<Pkg> getPkgsFromCache(final VersionNumber fromVersionNumber, final VersionNumber toVersionNumber, final MajorVersion jdkVersion, final List<Distribution> distributions, final List<Architecture> architectures, final List<FPU> fpus, final List<ArchiveType> archiveTypes,
                                       final PackageType packageType, final List<OperatingSystem> operatingSystems, final List<LibCType> libCTypes, final List<ReleaseStatus> releaseStatus, final List<TermOfSupport> termsOfSupport,
                                       final Bitness bitness, final Boolean javafxBundled, final Boolean withFxIfAvailable, final Boolean directlyDownloadable, final List<Feature> features, final Boolean signatureAvailable,
                                       final Boolean freeToUseInProduction, final Verification tckTested, final Verification aqavitCertified, final List<Scope> distroScopes, final Match match, final List<Scope> pkgScopes) {
-        Collection<Pkg> selection = CacheManager.INSTANCE.pkgCache.getPkgs();
-        if (null != pkgScopes && !pkgScopes.isEmpty()) {
-            for (Scope scope : pkgScopes) {
-                switch (scope.getApiString()) {
-                    case "signature_available"     -> selection = selection.parallelStream().filter(pkg -> !pkg.getSignatureUri().isEmpty()).collect(Collectors.toList());
-                    case "signature_not_available" -> selection = selection.parallelStream().filter(pkg -> pkg.getSignatureUri().isEmpty()).collect(Collectors.toList());
-                }
-            }
-        }
-        Collection<Pkg> pkgSelection = selection;
-
-        final VersionNumber minVersionNumber = null == fromVersionNumber ? new VersionNumber(6)                                : fromVersionNumber;
-        final VersionNumber maxVersionNumber = null == toVersionNumber   ? new VersionNumber(MajorVersion.getLatest(true).getAsInt()) : toVersionNumber;
-        List<Pkg> pkgsFound = pkgSelection.parallelStream()
-                                          .filter(pkg -> distributions.isEmpty()                  ? pkg.getDistribution()        != null        : distributions.contains(pkg.getDistribution()))
-                                          .filter(pkg -> Match.ANY == match                       ? Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().anyMatch(distroScopes.stream().collect(toSet())::contains) : Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().allMatch(distroScopes.stream().collect(toSet())::contains))
-                                          .filter(pkg -> null             == jdkVersion           ? pkg.getJdkVersion()          != null        : pkg.getJdkVersion().equals(jdkVersion))
-                                          .filter(pkg -> architectures.isEmpty()                  ? pkg.getArchitecture()        != null        : architectures.contains(pkg.getArchitecture()))
-                                          .filter(pkg -> archiveTypes.isEmpty()                   ? pkg.getArchiveType()         != null        : archiveTypes.contains(pkg.getArchiveType()))
-                                          .filter(pkg -> operatingSystems.isEmpty()               ? pkg.getOperatingSystem()     != null        : operatingSystems.contains(pkg.getOperatingSystem()))
-                                          .filter(pkg -> libCTypes.isEmpty()                      ? pkg.getLibCType()            != null        : libCTypes.contains(pkg.getLibCType()))
-                                          .filter(pkg -> termsOfSupport.isEmpty()                 ? pkg.getTermOfSupport()       != null        : termsOfSupport.contains(pkg.getTermOfSupport()))
-                                          .filter(pkg -> PackageType.NONE == packageType          ? pkg.getPackageType()         != packageType : pkg.getPackageType()         == packageType)
-                                          .filter(pkg -> releaseStatus.isEmpty()                  ? pkg.getReleaseStatus()       != null        : releaseStatus.contains(pkg.getReleaseStatus()))
-                                          .filter(pkg -> Bitness.NONE     == bitness              ? pkg.getBitness()             != bitness     : pkg.getBitness()             == bitness)
-                                          .filter(pkg -> fpus.isEmpty()                           ? pkg.getFPU()                 != null        : fpus.contains(pkg.getFPU()))
-                                          .filter(pkg -> null             == javafxBundled        ? pkg.isJavaFXBundled()        != null        : pkg.isJavaFXBundled()        == javafxBundled)
-                                          .filter(pkg -> null             == directlyDownloadable ? pkg.isDirectlyDownloadable() != null        : pkg.isDirectlyDownloadable() == directlyDownloadable)
-                                          .filter(pkg -> features.isEmpty()                       ? pkg.getFeatures()            != null        : features.stream().anyMatch(feature -> pkg.getFeatures().contains(feature)))
-                                          .filter(pkg -> null == signatureAvailable ? (pkg != null) : !signatureAvailable ? (null == pkg.getSignatureUri() || pkg.getSignatureUri().isEmpty()) : (pkg.getSignatureUri() != null && !pkg.getSignatureUri().isEmpty()))
-                                          .filter(pkg -> null == freeToUseInProduction            ? pkg.getFreeUseInProduction() != null        : pkg.getFreeUseInProduction())
-                                          .filter(pkg -> Verification.NONE == tckTested           ? pkg.getTckTested()           != null        : pkg.getTckTested()           == tckTested)
-                                          .filter(pkg -> Verification.NONE == aqavitCertified     ? pkg.getAqavitCertified()     != null        : pkg.getAqavitCertified()     == aqavitCertified)
-                                          .filter(pkg -> pkg.getVersionNumber().compareTo(minVersionNumber) >= 0)
-                                          .filter(pkg -> pkg.getVersionNumber().compareTo(maxVersionNumber) <= 0)
-                                          .sorted(Comparator.comparing(Pkg::getDistributionName).reversed().thenComparing(Comparator.comparing(Pkg::getSemver).reversed()))
-                                          .collect(Collectors.toList());
-        if (null == javafxBundled && withFxIfAvailable) {
-            List<Pkg> pkgsToRemove = pkgsFound.stream()
-                                              .filter(Predicate.not(Pkg::isJavaFXBundled))
-                                              .filter(pkg -> pkgsFound.stream().filter(p -> p.equalsExceptJavaFXAndPackageType(pkg)).count() > 0)
-                                              .collect(Collectors.toList());
-            pkgsFound.removeAll(pkgsToRemove);
-        }
+        final PkgSnapshot<String, Pkg> snapshot = CacheManager.INSTANCE.pkgCache.getSnapshot();
+        final PkgQuery                 query    = PkgQuery.ofRange(fromVersionNumber, toVersionNumber, jdkVersion, distributions, architectures, fpus, archiveTypes, packageType, operatingSystems, libCTypes, releaseStatus, termsOfSupport, bitness, javafxBundled, withFxIfAvailable, directlyDownloadable, features, signatureAvailable, freeToUseInProduction, tckTested, aqavitCertified, distroScopes, match, pkgScopes);
+        final List<Pkg>                cached   = queryCache.get(snapshot.getGeneration(), query);
+        if (null != cached) { return new ArrayList<>(cached); }
 
+        final List<Pkg> pkgsFound = findPkgs(snapshot.getIndex(), fromVersionNumber, toVersionNumber, jdkVersion, distributions, architectures, fpus, archiveTypes, packageType, operatingSystems, libCTypes, releaseStatus, termsOfSupport, bitness, javafxBundled, withFxIfAvailable, directlyDownloadable, features, signatureAvailable, freeToUseInProduction, tckTested, aqavitCertified, distroScopes, match, pkgScopes);
+        queryCache.put(snapshot.getGeneration(), query, List.copyOf(pkgsFound));
         return pkgsFound;
     }
 
@@ -123,22 +95,87 @@ public enum DiscoService {
                                       final PackageType packageType, final List<OperatingSystem> operatingSystems, final List<LibCType> libCTypes, final List<ReleaseStatus> releaseStatus, final List<TermOfSupport> termsOfSupport,
                                       final Bitness bitness, final Boolean javafxBundled, final Boolean withFxIfAvailable, final Boolean directlyDownloadable, final Latest latest, final List<Feature> features, final Boolean signatureAvailable,
                                       final Boolean freeToUseInProduction, final Verification tckTested, final Verification aqavitCertified, final List<Scope> distroScopes, final Match match, final List<Scope> pkgScopes) {
-        Collection<Pkg> selection = CacheManager.INSTANCE.pkgCache.getPkgs();
-        if (null != pkgScopes && !pkgScopes.isEmpty()) {
-            for (Scope scope : pkgScopes) {
-                switch (scope.getApiString()) {
-                    case "signature_available":
-                        selection = selection.parallelStream().filter(pkg -> !pkg.getSignatureUri().isEmpty()).collect(Collectors.toList());
-                        break;
-                    case "signature_not_available":
-                        selection = selection.parallelStream().filter(pkg -> pkg.getSignatureUri().isEmpty()).collect(Collectors.toList());
-                        break;
-                }
+        final PkgSnapshot<String, Pkg> snapshot = CacheManager.INSTANCE.pkgCache.getSnapshot();
+        final PkgQuery                 query    = PkgQuery.of(versionNumber, toVersionNumber, comparison, jdkVersion, distributions, architectures, fpus, archiveTypes, packageType, operatingSystems, libCTypes, releaseStatus, termsOfSupport, bitness, javafxBundled, withFxIfAvailable, directlyDownloadable, latest, features, signatureAvailable, freeToUseInProduction, tckTested, aqavitCertified, distroScopes, match, pkgScopes);
+        final List<Pkg>                cached   = queryCache.get(snapshot.getGeneration(), query);
+        if (null != cached) { return new ArrayList<>(cached); }
+
+        final List<Pkg> pkgsFound = findPkgs(snapshot.getIndex(), versionNumber, toVersionNumber, comparison, jdkVersion, distributions, architectures, fpus, archiveTypes, packageType, operatingSystems, libCTypes, releaseStatus, termsOfSupport, bitness, javafxBundled, withFxIfAvailable, directlyDownloadable, latest, features, signatureAvailable, freeToUseInProduction, tckTested, aqavitCertified, distroScopes, match, pkgScopes);
+        queryCache.put(snapshot.getGeneration(), query, List.copyOf(pkgsFound));
+        return pkgsFound;
+    }
+
+    /**
+     * Returns the results of the given queries in the order of the queries. All queries will be evaluated against the
+     * same package cache snapshot, so the results are consistent with each other even if the cache is updated meanwhile.
+     * Identical queries will only be evaluated once, queries that are already cached for the snapshot will not be
+     * evaluated at all and the remaining queries will be evaluated in parallel.
+     * @param querySpecs Parameters of the queries (e.g. one per operating system and architecture)
+     * @return the results of the given queries in the order of the queries
+     */
+    public List<List<Pkg>> getPkgsFromCache(final List<QuerySpec> querySpecs) {
+        final PkgSnapshot<String, Pkg> snapshot = CacheManager.INSTANCE.pkgCache.getSnapshot();
+        final Map<PkgQuery, QuerySpec> distinct = new LinkedHashMap<>();
+        final List<PkgQuery>           queries  = new ArrayList<>(querySpecs.size());
+        for (QuerySpec querySpec : querySpecs) {
+            final PkgQuery query = querySpec.toPkgQuery();
+            queries.add(query);
+            distinct.putIfAbsent(query, querySpec);
+        }
+
+        final Map<PkgQuery, List<Pkg>> results = new ConcurrentHashMap<>();
+        distinct.entrySet().parallelStream().forEach(entry -> {
+            List<Pkg> result = queryCache.get(snapshot.getGeneration(), entry.getKey());
+            if (null == result) {
+                result = List.copyOf(findPkgs(snapshot.getIndex(), entry.getValue()));
+                queryCache.put(snapshot.getGeneration(), entry.getKey(), result);
             }
+            results.put(entry.getKey(), result);
+        });
+        return queries.stream().map(query -> (List<Pkg>) new ArrayList<>(results.get(query))).collect(Collectors.toList());
+    }
+
+    public void invalidateQueryCache() { queryCache.invalidate(); }
+
+
+    private List<Pkg> findPkgs(final PkgIndex pkgIndex, final QuerySpec q) {
+        if (q.versionRange()) {
+            return findPkgs(pkgIndex, q.versionNumber(), q.toVersionNumber(), q.jdkVersion(), q.distributions(), q.architectures(), q.fpus(), q.archiveTypes(), q.packageType(), q.operatingSystems(), q.libCTypes(), q.releaseStatus(), q.termsOfSupport(), q.bitness(), q.javafxBundled(), q.withFxIfAvailable(), q.directlyDownloadable(), q.features(), q.signatureAvailable(), q.freeToUseInProduction(), q.tckTested(), q.aqavitCertified(), q.distroScopes(), q.match(), q.pkgScopes());
+        } else {
+            return findPkgs(pkgIndex, q.versionNumber(), q.toVersionNumber(), q.comparison(), q.jdkVersion(), q.distributions(), q.architectures(), q.fpus(), q.archiveTypes(), q.packageType(), q.operatingSystems(), q.libCTypes(), q.releaseStatus(), q.termsOfSupport(), q.bitness(), q.javafxBundled(), q.withFxIfAvailable(), q.directlyDownloadable(), q.latest(), q.features(), q.signatureAvailable(), q.freeToUseInProduction(), q.tckTested(), q.aqavitCertified(), q.distroScopes(), q.match(), q.pkgScopes());
         }
-        Collection<Pkg> pkgSelection = selection;
+    }
+
+
+    private List<Pkg> findPkgs(final PkgIndex pkgIndex, final VersionNumber fromVersionNumber, final VersionNumber toVersionNumber, final MajorVersion jdkVersion, final List<Distribution> distributions, final List<Architecture> architectures, final List<FPU> fpus, final List<ArchiveType> archiveTypes,
+                               final PackageType packageType, final List<OperatingSystem> operatingSystems, final List<LibCType> libCTypes, final List<ReleaseStatus> releaseStatus, final List<TermOfSupport> termsOfSupport,
+                               final Bitness bitness, final Boolean javafxBundled, final Boolean withFxIfAvailable, final Boolean directlyDownloadable, final List<Feature> features, final Boolean signatureAvailable,
+                               final Boolean freeToUseInProduction, final Verification tckTested, final Verification aqavitCertified, final List<Scope> distroScopes, final Match match, final List<Scope> pkgScopes) {
+        final VersionNumber minVersionNumber = null == fromVersionNumber ? new VersionNumber(6)                                : fromVersionNumber;
+        final VersionNumber maxVersionNumber = null == toVersionNumber   ? new VersionNumber(MajorVersion.getLatest(true).getAsInt()) : toVersionNumber;
+        final BitSet        versionRange     = pkgIndex.getVersionRange(VersionKey.of(minVersionNumber), true, VersionKey.of(maxVersionNumber), true);
+        final List<Pkg>     pkgSelection     = selectPkgs(pkgIndex, versionRange, pkgScopes, distributions, architectures, archiveTypes, operatingSystems, libCTypes, termsOfSupport, packageType, releaseStatus, bitness, fpus, javafxBundled, directlyDownloadable, features);
+        List<Pkg> pkgsFound = pkgSelection.parallelStream()
+                                          .filter(pkg -> Match.ANY == match                       ? Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().anyMatch(distroScopes.stream().collect(toSet())::contains) : Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().allMatch(distroScopes.stream().collect(toSet())::contains))
+                                          .filter(pkg -> null             == jdkVersion           ? pkg.getJdkVersion()          != null        : pkg.getJdkVersion().equals(jdkVersion))
+                                          .filter(pkg -> null == signatureAvailable ? (pkg != null) : !signatureAvailable ? (null == pkg.getSignatureUri() || pkg.getSignatureUri().isEmpty()) : (pkg.getSignatureUri() != null && !pkg.getSignatureUri().isEmpty()))
+                                          .filter(pkg -> null == freeToUseInProduction            ? pkg.getFreeUseInProduction() != null        : pkg.getFreeUseInProduction())
+                                          .filter(pkg -> Verification.NONE == tckTested           ? pkg.getTckTested()           != null        : pkg.getTckTested()           == tckTested)
+                                          .filter(pkg -> Verification.NONE == aqavitCertified     ? pkg.getAqavitCertified()     != null        : pkg.getAqavitCertified()     == aqavitCertified)
+                                          .filter(versionRangeCheck(minVersionNumber, true, maxVersionNumber, true))
+                                          .collect(Collectors.toList());
+        if (null == javafxBundled && withFxIfAvailable) { removePkgsWithoutFxIfFxAvailable(pkgsFound); }
+
+        return pkgsFound;
+    }
+
+    private List<Pkg> findPkgs(final PkgIndex pkgIndex, final VersionNumber versionNumber, final VersionNumber toVersionNumber, final Comparison comparison, final MajorVersion jdkVersion, final List<Distribution> distributions, final List<Architecture> architectures, final List<FPU> fpus, final List<ArchiveType> archiveTypes,
+                               final PackageType packageType, final List<OperatingSystem> operatingSystems, final List<LibCType> libCTypes, final List<ReleaseStatus> releaseStatus, final List<TermOfSupport> termsOfSupport,
+                               final Bitness bitness, final Boolean javafxBundled, final Boolean withFxIfAvailable, final Boolean directlyDownloadable, final Latest latest, final List<Feature> features, final Boolean signatureAvailable,
+                               final Boolean freeToUseInProduction, final Verification tckTested, final Verification aqavitCertified, final List<Scope> distroScopes, final Match match, final List<Scope> pkgScopes) {
         List<Pkg> pkgsFound;
         if (Comparison.EQUAL == comparison) {
+            final List<Pkg> pkgSelection = selectPkgs(pkgIndex, null, pkgScopes, distributions, architectures, archiveTypes, operatingSystems, libCTypes, termsOfSupport, packageType, releaseStatus, bitness, fpus, javafxBundled, directlyDownloadable, features);
             switch(latest) {
                 case OVERALL:
                 case ALL_OF_VERSION:
@@ -155,18 +192,6 @@ public enum DiscoService {
                                                                                                                                          pkg.getDistribution().getDistro() != Distro.MANDREL) : distributions.contains(pkg.getDistribution()))
                                                                             .filter(pkg -> Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().anyMatch(distroScopes.stream().collect(toSet())::contains))
                                                                             .filter(pkg -> null               == jdkVersion           ? pkg.getJdkVersion()          != null          : pkg.getJdkVersion().equals(jdkVersion))
-                                                                            .filter(pkg -> architectures.isEmpty()                    ? pkg.getArchitecture()        != null          : architectures.contains(pkg.getArchitecture()))
-                                                                            .filter(pkg -> archiveTypes.isEmpty()                     ? pkg.getArchiveType()         != null          : archiveTypes.contains(pkg.getArchiveType()))
-                                                                            .filter(pkg -> operatingSystems.isEmpty()                 ? pkg.getOperatingSystem()     != null          : operatingSystems.contains(pkg.getOperatingSystem()))
-                                                                            .filter(pkg -> libCTypes.isEmpty()                        ? pkg.getLibCType()            != null          : libCTypes.contains(pkg.getLibCType()))
-                                                                            .filter(pkg -> termsOfSupport.isEmpty()                   ? pkg.getTermOfSupport()       != null          : termsOfSupport.contains(pkg.getTermOfSupport()))
-                                                                            .filter(pkg -> PackageType.NONE   == packageType          ? pkg.getPackageType()         != packageType   : pkg.getPackageType()         == packageType)
-                                                                            .filter(pkg -> releaseStatus.isEmpty()                    ? pkg.getReleaseStatus()       != null          : releaseStatus.contains(pkg.getReleaseStatus()))
-                                                                            .filter(pkg -> Bitness.NONE       == bitness              ? pkg.getBitness()             != bitness       : pkg.getBitness()             == bitness)
-                                                                            .filter(pkg -> fpus.isEmpty()                             ? pkg.getFPU()                 != null          : fpus.contains(pkg.getFPU()))
-                                                                            .filter(pkg -> null               == javafxBundled        ? pkg.isJavaFXBundled()        != null          : pkg.isJavaFXBundled()        == javafxBundled)
-                                                                            .filter(pkg -> null               == directlyDownloadable ? pkg.isDirectlyDownloadable() != null          : pkg.isDirectlyDownloadable() == directlyDownloadable)
-                                                                            .filter(pkg -> features.isEmpty()                         ? pkg.getFeatures()            != null          : features.stream().anyMatch(feature -> pkg.getFeatures().contains(feature)))
                                                                             .filter(pkg -> null == signatureAvailable ? (pkg != null) : !signatureAvailable ? (null == pkg.getSignatureUri() || pkg.getSignatureUri().isEmpty()) : (pkg.getSignatureUri() != null && !pkg.getSignatureUri().isEmpty()))
                                                                             .filter(pkg -> null == freeToUseInProduction              ? pkg.getFreeUseInProduction() != null          : pkg.getFreeUseInProduction())
                                                                             .filter(pkg -> Verification.NONE == tckTested             ? pkg.getTckTested()           != null          : pkg.getTckTested()           == tckTested)
@@ -180,21 +205,8 @@ public enum DiscoService {
                     } else {
                         int featureVersion = versionNumber.getFeature().getAsInt();
                         Optional<Pkg> pkgWithMaxVersionNumber = pkgSelection.parallelStream()
-                                                                            .filter(pkg -> distributions.isEmpty()                    ? pkg.getDistribution()        != null          : distributions.contains(pkg.getDistribution()))
                                                                             .filter(pkg -> Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().anyMatch(distroScopes.stream().collect(toSet())::contains))
                                                                             .filter(pkg -> null               == jdkVersion           ? pkg.getJdkVersion()          != null          : pkg.getJdkVersion().equals(jdkVersion))
-                                                                            .filter(pkg -> architectures.isEmpty()                    ? pkg.getArchitecture()        != null          : architectures.contains(pkg.getArchitecture()))
-                                                                            .filter(pkg -> archiveTypes.isEmpty()                     ? pkg.getArchiveType()         != null          : archiveTypes.contains(pkg.getArchiveType()))
-                                                                            .filter(pkg -> operatingSystems.isEmpty()                 ? pkg.getOperatingSystem()     != null          : operatingSystems.contains(pkg.getOperatingSystem()))
-                                                                            .filter(pkg -> libCTypes.isEmpty()                        ? pkg.getLibCType()            != null          : libCTypes.contains(pkg.getLibCType()))
-                                                                            .filter(pkg -> termsOfSupport.isEmpty()                   ? pkg.getTermOfSupport()       != null          : termsOfSupport.contains(pkg.getTermOfSupport()))
-                                                                            .filter(pkg -> PackageType.NONE   == packageType          ? pkg.getPackageType()         != packageType   : pkg.getPackageType()         == packageType)
-                                                                            .filter(pkg -> releaseStatus.isEmpty()                    ? pkg.getReleaseStatus()       != null          : releaseStatus.contains(pkg.getReleaseStatus()))
-                                                                            .filter(pkg -> Bitness.NONE       == bitness              ? pkg.getBitness()             != bitness       : pkg.getBitness()             == bitness)
-                                                                            .filter(pkg -> fpus.isEmpty()                             ? pkg.getFPU()                 != null          : fpus.contains(pkg.getFPU()))
-                                                                            .filter(pkg -> null               == javafxBundled        ? pkg.isJavaFXBundled()        != null          : pkg.isJavaFXBundled()        == javafxBundled)
-                                                                            .filter(pkg -> null               == directlyDownloadable ? pkg.isDirectlyDownloadable() != null          : pkg.isDirectlyDownloadable() == directlyDownloadable)
-                                                                            .filter(pkg -> features.isEmpty()                         ? pkg.getFeatures()            != null          : features.stream().anyMatch(feature -> pkg.getFeatures().contains(feature)))
                                                                             .filter(pkg -> null == signatureAvailable ? (pkg != null) : !signatureAvailable ? (null == pkg.getSignatureUri() || pkg.getSignatureUri().isEmpty()) : (pkg.getSignatureUri() != null && !pkg.getSignatureUri().isEmpty()))
                                                                             .filter(pkg -> null == freeToUseInProduction              ? pkg.getFreeUseInProduction() != null          : pkg.getFreeUseInProduction())
                                                                             .filter(pkg -> Verification.NONE == tckTested             ? pkg.getTckTested()           != null          : pkg.getTckTested()           == tckTested)
@@ -209,51 +221,23 @@ public enum DiscoService {
                     }
                     if (Latest.OVERALL == latest) {
                         pkgsFound = pkgSelection.parallelStream()
-                                                .filter(pkg -> distributions.isEmpty()                    ? pkg.getDistribution()        != null          : distributions.contains(pkg.getDistribution()))
                                                 .filter(pkg -> Match.ANY == match                         ? Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().anyMatch(distroScopes.stream().collect(toSet())::contains) : Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().allMatch(distroScopes.stream().collect(toSet())::contains))
                                                 .filter(pkg -> null               == jdkVersion           ? pkg.getJdkVersion()          != null          : pkg.getJdkVersion().equals(jdkVersion))
-                                                .filter(pkg -> architectures.isEmpty()                    ? pkg.getArchitecture()        != null          : architectures.contains(pkg.getArchitecture()))
-                                                .filter(pkg -> archiveTypes.isEmpty()                     ? pkg.getArchiveType()         != null          : archiveTypes.contains(pkg.getArchiveType()))
-                                                .filter(pkg -> operatingSystems.isEmpty()                 ? pkg.getOperatingSystem()     != null          : operatingSystems.contains(pkg.getOperatingSystem()))
-                                                .filter(pkg -> libCTypes.isEmpty()                        ? pkg.getLibCType()            != null          : libCTypes.contains(pkg.getLibCType()))
-                                                .filter(pkg -> termsOfSupport.isEmpty()                   ? pkg.getTermOfSupport()       != null          : termsOfSupport.contains(pkg.getTermOfSupport()))
-                                                .filter(pkg -> PackageType.NONE   == packageType          ? pkg.getPackageType()         != packageType   : pkg.getPackageType()         == packageType)
-                                                .filter(pkg -> releaseStatus.isEmpty()                    ? pkg.getReleaseStatus()       != null          : releaseStatus.contains(pkg.getReleaseStatus()))
-                                                .filter(pkg -> Bitness.NONE       == bitness              ? pkg.getBitness()             != bitness       : pkg.getBitness()             == bitness)
-                                                .filter(pkg -> fpus.isEmpty()                             ? pkg.getFPU()                 != null          : fpus.contains(pkg.getFPU()))
-                                                .filter(pkg -> null               == javafxBundled        ? pkg.isJavaFXBundled()        != null          : pkg.isJavaFXBundled()        == javafxBundled)
-                                                .filter(pkg -> null               == directlyDownloadable ? pkg.isDirectlyDownloadable() != null          : pkg.isDirectlyDownloadable() == directlyDownloadable)
-                                                .filter(pkg -> features.isEmpty()                         ? pkg.getFeatures()            != null          : features.stream().anyMatch(feature -> pkg.getFeatures().contains(feature)))
                                                 .filter(pkg -> null == signatureAvailable ? (pkg != null) : !signatureAvailable ? (null == pkg.getSignatureUri() || pkg.getSignatureUri().isEmpty()) : (pkg.getSignatureUri() != null && !pkg.getSignatureUri().isEmpty()))
                                                 .filter(pkg -> null == freeToUseInProduction              ? pkg.getFreeUseInProduction() != null          : pkg.getFreeUseInProduction())
                                                 .filter(pkg -> Verification.NONE == tckTested             ? pkg.getTckTested()           != null          : pkg.getTckTested()           == tckTested)
                                                 .filter(pkg -> Verification.NONE == aqavitCertified       ? pkg.getAqavitCertified()     != null          : pkg.getAqavitCertified()     == aqavitCertified)
                                                 .filter(pkg -> pkg.getVersionNumber().compareTo(maxNumber) == 0)
-                                                .sorted(Comparator.comparing(Pkg::getDistributionName).reversed().thenComparing(Comparator.comparing(Pkg::getSemver).reversed()))
                                                 .collect(Collectors.toList());
                     } else {
                         pkgsFound = pkgSelection.parallelStream()
-                                                .filter(pkg -> distributions.isEmpty()                    ? pkg.getDistribution()        != null          : distributions.contains(pkg.getDistribution()))
                                                 .filter(pkg -> Match.ANY == match                         ? Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().anyMatch(distroScopes.stream().collect(toSet())::contains) : Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().allMatch(distroScopes.stream().collect(toSet())::contains))
                                                 .filter(pkg -> null               == jdkVersion           ? pkg.getJdkVersion()          != null          : pkg.getJdkVersion().equals(jdkVersion))
-                                                .filter(pkg -> architectures.isEmpty()                    ? pkg.getArchitecture()        != null          : architectures.contains(pkg.getArchitecture()))
-                                                .filter(pkg -> archiveTypes.isEmpty()                     ? pkg.getArchiveType()         != null          : archiveTypes.contains(pkg.getArchiveType()))
-                                                .filter(pkg -> operatingSystems.isEmpty()                 ? pkg.getOperatingSystem()     != null          : operatingSystems.contains(pkg.getOperatingSystem()))
-                                                .filter(pkg -> libCTypes.isEmpty()                        ? pkg.getLibCType()            != null          : libCTypes.contains(pkg.getLibCType()))
-                                                .filter(pkg -> termsOfSupport.isEmpty()                   ? pkg.getTermOfSupport()       != null          : termsOfSupport.contains(pkg.getTermOfSupport()))
-                                                .filter(pkg -> PackageType.NONE   == packageType          ? pkg.getPackageType()         != packageType   : pkg.getPackageType()         == packageType)
-                                                .filter(pkg -> releaseStatus.isEmpty()                    ? pkg.getReleaseStatus()       != null          : releaseStatus.contains(pkg.getReleaseStatus()))
-                                                .filter(pkg -> Bitness.NONE       == bitness              ? pkg.getBitness()             != bitness       : pkg.getBitness()             == bitness)
-                                                .filter(pkg -> fpus.isEmpty()                             ? pkg.getFPU()                 != null          : fpus.contains(pkg.getFPU()))
-                                                .filter(pkg -> null               == javafxBundled        ? pkg.isJavaFXBundled()        != null          : pkg.isJavaFXBundled()        == javafxBundled)
-                                                .filter(pkg -> null               == directlyDownloadable ? pkg.isDirectlyDownloadable() != null          : pkg.isDirectlyDownloadable() == directlyDownloadable)
-                                                .filter(pkg -> features.isEmpty()                         ? pkg.getFeatures()            != null          : features.stream().anyMatch(feature -> pkg.getFeatures().contains(feature)))
                                                 .filter(pkg -> null == signatureAvailable ? (pkg != null) : !signatureAvailable ? (null == pkg.getSignatureUri() || pkg.getSignatureUri().isEmpty()) : (pkg.getSignatureUri() != null && !pkg.getSignatureUri().isEmpty()))
                                                 .filter(pkg -> null == freeToUseInProduction              ? pkg.getFreeUseInProduction() != null          : pkg.getFreeUseInProduction())
                                                 .filter(pkg -> Verification.NONE == tckTested             ? pkg.getTckTested()           != null          : pkg.getTckTested()           == tckTested)
                                                 .filter(pkg -> Verification.NONE == aqavitCertified       ? pkg.getAqavitCertified()     != null          : pkg.getAqavitCertified()     == aqavitCertified)
                                                 .filter(pkg -> (pkg.getVersionNumber().getFeature().getAsInt() >= maxNumber.getFeature().getAsInt() && pkg.getVersionNumber().compareTo(maxNumber) <= 0))
-                                                .sorted(Comparator.comparing(Pkg::getDistributionName).reversed().thenComparing(Comparator.comparing(Pkg::getSemver).reversed()))
                                                 .collect(Collectors.toList());
                     }
                     break;
@@ -269,23 +253,15 @@ public enum DiscoService {
                             break;
                     }
 
+                    // The max version per distribution does not take fpus and features into account
+                    List<Pkg>                        pkgsOfDistributions       = selectPkgs(pkgIndex, null, pkgScopes, distributions, architectures, archiveTypes, operatingSystems, libCTypes, termsOfSupport, packageType, releaseStatus, bitness, null, javafxBundled, directlyDownloadable, null);
                     List<Pkg>                        pkgs                      = new ArrayList<>();
                     Map<Distribution, VersionNumber> maxVersionPerDistribution = new ConcurrentHashMap<>();
                     distributionsToCheck.forEach(distro -> {
-                        Optional<Pkg> pkgFound = pkgSelection.parallelStream()
-                                                             .filter(pkg -> pkg.getDistribution().equals(distro))
-                                                             .filter(pkg -> null               == jdkVersion           ? pkg.getJdkVersion()          != null          : pkg.getJdkVersion().equals(jdkVersion))
-                                                             .filter(pkg -> architectures.isEmpty()                    ? pkg.getArchitecture()        != null          : architectures.contains(pkg.getArchitecture()))
-                                                             .filter(pkg -> archiveTypes.isEmpty()                     ? pkg.getArchiveType()         != null          : archiveTypes.contains(pkg.getArchiveType()))
-                                                             .filter(pkg -> operatingSystems.isEmpty()                 ? pkg.getOperatingSystem()     != null          : operatingSystems.contains(pkg.getOperatingSystem()))
-                                                             .filter(pkg -> libCTypes.isEmpty()                        ? pkg.getLibCType()            != null          : libCTypes.contains(pkg.getLibCType()))
-                                                             .filter(pkg -> termsOfSupport.isEmpty()                   ? pkg.getTermOfSupport()       != null          : termsOfSupport.contains(pkg.getTermOfSupport()))
-                                                             .filter(pkg -> PackageType.NONE   == packageType          ? pkg.getPackageType()         != packageType   : pkg.getPackageType()         == packageType)
-                                                             .filter(pkg -> releaseStatus.isEmpty()                    ? pkg.getReleaseStatus()       != null          : releaseStatus.contains(pkg.getReleaseStatus()))
-                                                             .filter(pkg -> Bitness.NONE       == bitness              ? pkg.getBitness()             != bitness       : pkg.getBitness()             == bitness)
-                                                             .filter(pkg -> null               == javafxBundled        ? pkg.isJavaFXBundled()        != null          : pkg.isJavaFXBundled()        == javafxBundled)
-                                                             .filter(pkg -> null               == directlyDownloadable ? pkg.isDirectlyDownloadable() != null          : pkg.isDirectlyDownloadable() == directlyDownloadable)
-                                                             .max(Comparator.comparing(Pkg::getSemver));
+                        Optional<Pkg> pkgFound = pkgsOfDistributions.parallelStream()
+                                                                    .filter(pkg -> pkg.getDistribution().equals(distro))
+                                                                    .filter(pkg -> null               == jdkVersion           ? pkg.getJdkVersion()          != null          : pkg.getJdkVersion().equals(jdkVersion))
+                                                                    .max(Comparator.comparing(Pkg::getSemver));
                         if (pkgFound.isPresent()) { maxVersionPerDistribution.put(distro, pkgFound.get().getVersionNumber()); }
                     });
 
@@ -293,130 +269,54 @@ public enum DiscoService {
                                                                                    .filter(pkg -> pkg.getDistribution().equals(distro))
                                                                                    .filter(pkg -> Match.ANY == match                         ? Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().anyMatch(distroScopes.stream().collect(toSet())::contains) : Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().allMatch(distroScopes.stream().collect(toSet())::contains))
                                                                                    .filter(pkg -> null               == jdkVersion           ? pkg.getJdkVersion()          != null          : pkg.getJdkVersion().equals(jdkVersion))
-                                                                                   .filter(pkg -> architectures.isEmpty()                    ? pkg.getArchitecture()        != null          : architectures.contains(pkg.getArchitecture()))
-                                                                                   .filter(pkg -> archiveTypes.isEmpty()                     ? pkg.getArchiveType()         != null          : archiveTypes.contains(pkg.getArchiveType()))
-                                                                                   .filter(pkg -> operatingSystems.isEmpty()                 ? pkg.getOperatingSystem()     != null          : operatingSystems.contains(pkg.getOperatingSystem()))
-                                                                                   .filter(pkg -> libCTypes.isEmpty()                        ? pkg.getLibCType()            != null          : libCTypes.contains(pkg.getLibCType()))
-                                                                                   .filter(pkg -> termsOfSupport.isEmpty()                   ? pkg.getTermOfSupport()       != null          : termsOfSupport.contains(pkg.getTermOfSupport()))
-                                                                                   .filter(pkg -> PackageType.NONE   == packageType          ? pkg.getPackageType()         != packageType   : pkg.getPackageType()         == packageType)
-                                                                                   .filter(pkg -> releaseStatus.isEmpty()                    ? pkg.getReleaseStatus()       != null          : releaseStatus.contains(pkg.getReleaseStatus()))
-                                                                                   .filter(pkg -> Bitness.NONE       == bitness              ? pkg.getBitness()             != bitness       : pkg.getBitness()             == bitness)
-                                                                                   .filter(pkg -> fpus.isEmpty()                             ? pkg.getFPU()                 != null          : fpus.contains(pkg.getFPU()))
-                                                                                   .filter(pkg -> null               == javafxBundled        ? pkg.isJavaFXBundled()        != null          : pkg.isJavaFXBundled()        == javafxBundled)
-                                                                                   .filter(pkg -> null               == directlyDownloadable ? pkg.isDirectlyDownloadable() != null          : pkg.isDirectlyDownloadable() == directlyDownloadable)
-                                                                                   .filter(pkg -> features.isEmpty()                         ? pkg.getFeatures()            != null          : features.stream().anyMatch(feature -> pkg.getFeatures().contains(feature)))
                                                                                    .filter(pkg -> null == signatureAvailable ? (pkg != null) : !signatureAvailable ? (null == pkg.getSignatureUri() || pkg.getSignatureUri().isEmpty()) : (pkg.getSignatureUri() != null && !pkg.getSignatureUri().isEmpty()))
                                                                                    .filter(pkg -> null == freeToUseInProduction              ? pkg.getFreeUseInProduction() != null          : pkg.getFreeUseInProduction())
                                                                                    .filter(pkg -> Verification.NONE == tckTested             ? pkg.getTckTested()           != null          : pkg.getTckTested()           == tckTested)
                                                                                    .filter(pkg -> Verification.NONE == aqavitCertified       ? pkg.getAqavitCertified()     != null          : pkg.getAqavitCertified()     == aqavitCertified)
                                                                                    .filter(pkg -> pkg.getVersionNumber().equals(maxVersionPerDistribution.get(distro)))
-                                                                                   .sorted(Comparator.comparing(Pkg::getDistributionName).reversed().thenComparing(Comparator.comparing(Pkg::getSemver).reversed()))
                                                                                    .collect(Collectors.toList())));
                     pkgsFound = pkgs;
                     break;
                 case PER_VERSION:
                     pkgsFound = pkgSelection.parallelStream()
-                                            .filter(pkg -> distributions.isEmpty()                    ? pkg.getDistribution()        != null          : distributions.contains(pkg.getDistribution()))
                                             .filter(pkg -> Match.ANY == match                         ? Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().anyMatch(distroScopes.stream().collect(toSet())::contains) : Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().allMatch(distroScopes.stream().collect(toSet())::contains))
                                             .filter(pkg -> null               == jdkVersion           ? pkg.getJdkVersion()          != null          : pkg.getJdkVersion().equals(jdkVersion))
-                                            .filter(pkg -> architectures.isEmpty()                    ? pkg.getArchitecture()        != null          : architectures.contains(pkg.getArchitecture()))
-                                            .filter(pkg -> archiveTypes.isEmpty()                     ? pkg.getArchiveType()         != null          : archiveTypes.contains(pkg.getArchiveType()))
-                                            .filter(pkg -> operatingSystems.isEmpty()                 ? pkg.getOperatingSystem()     != null          : operatingSystems.contains(pkg.getOperatingSystem()))
-                                            .filter(pkg -> libCTypes.isEmpty()                        ? pkg.getLibCType()            != null          : libCTypes.contains(pkg.getLibCType()))
-                                            .filter(pkg -> termsOfSupport.isEmpty()                   ? pkg.getTermOfSupport()       != null          : termsOfSupport.contains(pkg.getTermOfSupport()))
-                                            .filter(pkg -> PackageType.NONE   == packageType          ? pkg.getPackageType()         != packageType   : pkg.getPackageType()         == packageType)
-                                            .filter(pkg -> releaseStatus.isEmpty()                    ? pkg.getReleaseStatus()       != null          : releaseStatus.contains(pkg.getReleaseStatus()))
-                                            .filter(pkg -> Bitness.NONE       == bitness              ? pkg.getBitness()             != bitness       : pkg.getBitness()             == bitness)
-                                            .filter(pkg -> fpus.isEmpty()                             ? pkg.getFPU()                 != null          : fpus.contains(pkg.getFPU()))
-                                            .filter(pkg -> null               == javafxBundled        ? pkg.isJavaFXBundled()        != null          : pkg.isJavaFXBundled()        == javafxBundled)
-                                            .filter(pkg -> null               == directlyDownloadable ? pkg.isDirectlyDownloadable() != null          : pkg.isDirectlyDownloadable() == directlyDownloadable)
-                                            .filter(pkg -> features.isEmpty()                         ? pkg.getFeatures()            != null          : features.stream().anyMatch(feature -> pkg.getFeatures().contains(feature)))
                                             .filter(pkg -> null == signatureAvailable ? (pkg != null) : !signatureAvailable ? (null == pkg.getSignatureUri() || pkg.getSignatureUri().isEmpty()) : (pkg.getSignatureUri() != null && !pkg.getSignatureUri().isEmpty()))
                                             .filter(pkg -> null == freeToUseInProduction              ? pkg.getFreeUseInProduction() != null          : pkg.getFreeUseInProduction())
                                             .filter(pkg -> Verification.NONE == tckTested             ? pkg.getTckTested()           != null          : pkg.getTckTested()           == tckTested)
                                             .filter(pkg -> Verification.NONE == aqavitCertified       ? pkg.getAqavitCertified()     != null          : pkg.getAqavitCertified()     == aqavitCertified)
                                             .filter(pkg -> pkg.getVersionNumber().getFeature().getAsInt() == versionNumber.getFeature().getAsInt())
                                             .filter(pkg -> pkg.isLatestBuildAvailable())
-                                            .sorted(Comparator.comparing(Pkg::getDistributionName).reversed().thenComparing(Comparator.comparing(Pkg::getSemver).reversed()))
                                             .collect(Collectors.toList());
                     break;
                 case AVAILABLE:
                     pkgsFound = pkgSelection.parallelStream()
-                                            .filter(pkg -> distributions.isEmpty()                    ? pkg.getDistribution()        != null          : distributions.contains(pkg.getDistribution()))
                                             .filter(pkg -> Match.ANY == match                         ? Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().anyMatch(distroScopes.stream().collect(toSet())::contains) : Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().allMatch(distroScopes.stream().collect(toSet())::contains))
                                             .filter(pkg -> null               == jdkVersion           ? pkg.getJdkVersion()          != null          : pkg.getJdkVersion().equals(jdkVersion))
-                                            .filter(pkg -> architectures.isEmpty()                    ? pkg.getArchitecture()        != null          : architectures.contains(pkg.getArchitecture()))
-                                            .filter(pkg -> archiveTypes.isEmpty()                     ? pkg.getArchiveType()         != null          : archiveTypes.contains(pkg.getArchiveType()))
-                                            .filter(pkg -> operatingSystems.isEmpty()                 ? pkg.getOperatingSystem()     != null          : operatingSystems.contains(pkg.getOperatingSystem()))
-                                            .filter(pkg -> libCTypes.isEmpty()                        ? pkg.getLibCType()            != null          : libCTypes.contains(pkg.getLibCType()))
-                                            .filter(pkg -> termsOfSupport.isEmpty()                   ? pkg.getTermOfSupport()       != null          : termsOfSupport.contains(pkg.getTermOfSupport()))
-                                            .filter(pkg -> PackageType.NONE   == packageType          ? pkg.getPackageType()         != packageType   : pkg.getPackageType()         == packageType)
-                                            .filter(pkg -> releaseStatus.isEmpty()                    ? pkg.getReleaseStatus()       != null          : releaseStatus.contains(pkg.getReleaseStatus()))
-                                            .filter(pkg -> Bitness.NONE       == bitness              ? pkg.getBitness()             != bitness       : pkg.getBitness()             == bitness)
-                                            .filter(pkg -> fpus.isEmpty()                             ? pkg.getFPU()                 != null          : fpus.contains(pkg.getFPU()))
-                                            .filter(pkg -> null               == javafxBundled        ? pkg.isJavaFXBundled()        != null          : pkg.isJavaFXBundled()        == javafxBundled)
-                                            .filter(pkg -> null               == directlyDownloadable ? pkg.isDirectlyDownloadable() != null          : pkg.isDirectlyDownloadable() == directlyDownloadable)
-                                            .filter(pkg -> features.isEmpty()                         ? pkg.getFeatures()            != null          : features.stream().anyMatch(feature -> pkg.getFeatures().contains(feature)))
                                             .filter(pkg -> null == signatureAvailable ? (pkg != null) : !signatureAvailable ? (null == pkg.getSignatureUri() || pkg.getSignatureUri().isEmpty()) : (pkg.getSignatureUri() != null && !pkg.getSignatureUri().isEmpty()))
                                             .filter(pkg -> null == freeToUseInProduction              ? pkg.getFreeUseInProduction() != null          : pkg.getFreeUseInProduction())
                                             .filter(pkg -> Verification.NONE == tckTested             ? pkg.getTckTested()           != null          : pkg.getTckTested()           == tckTested)
                                             .filter(pkg -> Verification.NONE == aqavitCertified       ? pkg.getAqavitCertified()     != null          : pkg.getAqavitCertified()     == aqavitCertified)
                                             .filter(pkg -> null               == versionNumber        ? pkg.getVersionNumber()       != null          : pkg.getVersionNumber().getFeature().getAsInt() == versionNumber.getFeature().getAsInt())
-                                            .sorted(Comparator.comparing(Pkg::getDistributionName).reversed().thenComparing(Comparator.comparing(Pkg::getSemver).reversed()))
                                             .collect(Collectors.toList());
-                    final Set<Pkg>  filteredPkgsFound = new CopyOnWriteArraySet<>();
-                    final List<Pkg> pkgsToCheck       = new CopyOnWriteArrayList<>(pkgsFound);
-                    final Set<Pkg>  diffPkgs          = new CopyOnWriteArraySet<>();
-                    pkgsFound.forEach(pkg -> {
-                        List<Pkg> pkgsWithDifferentUpdate = pkgsToCheck.parallelStream()
-                                                                       .filter(pkg1 -> pkg.equalsExceptUpdate(pkg1))
-                                                                       .collect(Collectors.toList());
-                        diffPkgs.addAll(pkgsWithDifferentUpdate);
-
-                        Pkg pkgWithMaxVersion = pkgsWithDifferentUpdate.parallelStream()
-                                                                       .max(Comparator.comparing(Pkg::getVersionNumber))
-                                                                       .orElse(null);
-                        if (null != pkgWithMaxVersion) {
-                            List<Pkg> pkgsWithSmallerVersions = filteredPkgsFound.parallelStream()
-                                                                                 .filter(pkg3 -> pkg3.equalsExceptUpdate(pkgWithMaxVersion))
-                                                                                 .filter(pkg3 -> pkg3.getSemver().compareTo(pkgWithMaxVersion.getSemver()) < 0)
-                                                                                 .collect(Collectors.toList());
-                            if (!pkgsWithSmallerVersions.isEmpty()) { filteredPkgsFound.removeAll(pkgsWithSmallerVersions); }
-                            filteredPkgsFound.add(pkgWithMaxVersion);
-                        }
-                    });
-
-                    pkgsToCheck.removeAll(diffPkgs);
-                    filteredPkgsFound.addAll(pkgsToCheck);
-
-                    pkgsFound.clear();
-                    pkgsFound.addAll(filteredPkgsFound);
+                    // Only keep the packages with the max version of each group of packages that only differ in their update version
+                    final Map<List<Object>, VersionNumber> maxVersionPerGroup = new HashMap<>();
+                    pkgsFound.forEach(pkg -> maxVersionPerGroup.merge(pkg.getKeyExceptUpdate(), pkg.getVersionNumber(), (v1, v2) -> v1.compareTo(v2) >= 0 ? v1 : v2));
+                    pkgsFound = pkgsFound.stream()
+                                         .filter(pkg -> pkg.getVersionNumber().compareTo(maxVersionPerGroup.get(pkg.getKeyExceptUpdate())) == 0)
+                                         .collect(Collectors.toList());
                     break;
                 case NONE:
                 case NOT_FOUND:
                 default:
                     pkgsFound = pkgSelection.parallelStream()
-                                            .filter(pkg -> distributions.isEmpty()                    ? pkg.getDistribution()        != null          : distributions.contains(pkg.getDistribution()))
                                             .filter(pkg -> Match.ANY == match                         ? Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().anyMatch(distroScopes.stream().collect(toSet())::contains) : Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().allMatch(distroScopes.stream().collect(toSet())::contains))
                                             .filter(pkg -> null != versionNumber ? versionNumber.getBuild().isPresent() ? pkg.getVersionNumber().compareTo(versionNumber) == 0 : pkg.getVersionNumber().equals(versionNumber) : null != pkg.getVersionNumber())
                                             .filter(pkg -> null               == jdkVersion           ? pkg.getJdkVersion()          != null          : pkg.getJdkVersion().equals(jdkVersion))
-                                            .filter(pkg -> architectures.isEmpty()                    ? pkg.getArchitecture()        != null          : architectures.contains(pkg.getArchitecture()))
-                                            .filter(pkg -> archiveTypes.isEmpty()                     ? pkg.getArchiveType()         != null          : archiveTypes.contains(pkg.getArchiveType()))
-                                            .filter(pkg -> operatingSystems.isEmpty()                 ? pkg.getOperatingSystem()     != null          : operatingSystems.contains(pkg.getOperatingSystem()))
-                                            .filter(pkg -> libCTypes.isEmpty()                        ? pkg.getLibCType()            != null          : libCTypes.contains(pkg.getLibCType()))
-                                            .filter(pkg -> termsOfSupport.isEmpty()                   ? pkg.getTermOfSupport()       != null          : termsOfSupport.contains(pkg.getTermOfSupport()))
-                                            .filter(pkg -> PackageType.NONE   == packageType          ? pkg.getPackageType()         != packageType   : pkg.getPackageType()         == packageType)
-                                            .filter(pkg -> releaseStatus.isEmpty()                    ? pkg.getReleaseStatus()       != null          : releaseStatus.contains(pkg.getReleaseStatus()))
-                                            .filter(pkg -> Bitness.NONE       == bitness              ? pkg.getBitness()             != bitness       : pkg.getBitness()             == bitness)
-                                            .filter(pkg -> fpus.isEmpty()                             ? pkg.getFPU()                 != null          : fpus.contains(pkg.getFPU()))
-                                            .filter(pkg -> null               == javafxBundled        ? pkg.isJavaFXBundled()        != null          : pkg.isJavaFXBundled()        == javafxBundled)
-                                            .filter(pkg -> null               == directlyDownloadable ? pkg.isDirectlyDownloadable() != null          : pkg.isDirectlyDownloadable() == directlyDownloadable)
-                                            .filter(pkg -> features.isEmpty()                         ? pkg.getFeatures()            != null          : features.stream().anyMatch(feature -> pkg.getFeatures().contains(feature)))
                                             .filter(pkg -> null == signatureAvailable ? (pkg != null) : !signatureAvailable ? (null == pkg.getSignatureUri() || pkg.getSignatureUri().isEmpty()) : (pkg.getSignatureUri() != null && !pkg.getSignatureUri().isEmpty()))
                                             .filter(pkg -> null == freeToUseInProduction              ? pkg.getFreeUseInProduction() != null          : pkg.getFreeUseInProduction())
                                             .filter(pkg -> Verification.NONE == tckTested             ? pkg.getTckTested()           != null          : pkg.getTckTested()           == tckTested)
                                             .filter(pkg -> Verification.NONE == aqavitCertified       ? pkg.getAqavitCertified()     != null          : pkg.getAqavitCertified()     == aqavitCertified)
-                                            .sorted(Comparator.comparing(Pkg::getDistributionName).reversed().thenComparing(Comparator.comparing(Pkg::getSemver).reversed()))
                                             .collect(Collectors.toList());
 
                     if (null != versionNumber) {
@@ -424,142 +324,213 @@ public enum DiscoService {
                         int interimVersion = versionNumber.getInterim().getAsInt();
                         int updateVersion  = versionNumber.getUpdate().getAsInt();
                         int patchVersion   = versionNumber.getPatch().getAsInt();
-                        if (0 != patchVersion) {
-                            // e.g. 11.N.N.3
-                            pkgsFound = pkgsFound.parallelStream()
-                                                 .filter(pkg -> pkg.getVersionNumber().getFeature().getAsInt() == featureVersion)
-                                                 .filter(pkg -> pkg.getVersionNumber().getInterim().getAsInt() == interimVersion)
-                                                 .filter(pkg -> pkg.getVersionNumber().getUpdate().getAsInt()  == updateVersion)
-                                                 .filter(pkg -> pkg.getVersionNumber().getPatch().isPresent())
-                                                 .filter(pkg -> pkg.getVersionNumber().getPatch().getAsInt()   == patchVersion)
-                                                 .collect(Collectors.toList());
-                        } else if (0 != updateVersion) {
-                            // e.g. 11.N.2.N
-                            pkgsFound = pkgsFound.parallelStream()
-                                                 .filter(pkg -> pkg.getVersionNumber().getFeature().getAsInt() == featureVersion)
-                                                 .filter(pkg -> pkg.getVersionNumber().getInterim().getAsInt() == interimVersion)
-                                                 .filter(pkg -> pkg.getVersionNumber().getUpdate().isPresent())
-                                                 .filter(pkg -> pkg.getVersionNumber().getUpdate().getAsInt()  == updateVersion)
-                                                 .collect(Collectors.toList());
-                        } else if (0 != interimVersion) {
-                            // e.g. 11.1.N.N
-                            pkgsFound = pkgsFound.parallelStream()
-                                                 .filter(pkg -> pkg.getVersionNumber().getFeature().getAsInt() == featureVersion)
-                                                 .filter(pkg -> pkg.getVersionNumber().getInterim().isPresent())
-                                                 .filter(pkg -> pkg.getVersionNumber().getInterim().getAsInt() == interimVersion)
-                                                 .collect(Collectors.toList());
-                        } else {
-                            // e.g. 11.N.N.N
-                            pkgsFound = pkgsFound.parallelStream()
-                                                 .filter(pkg -> pkg.getVersionNumber().getFeature().getAsInt() == featureVersion)
-                                                 .collect(Collectors.toList());
-                        }
+                        // e.g. 11.N.N.3 -> 4, 11.N.2.N -> 3, 11.1.N.N -> 2, 11.N.N.N -> 1
+                        int depth          = 0 != patchVersion ? 4 : 0 != updateVersion ? 3 : 0 != interimVersion ? 2 : 1;
+                        pkgsFound = pkgsFound.parallelStream()
+                                             .filter(versionPrefixCheck(versionNumber, depth))
+                                             .collect(Collectors.toList());
                     }
                     break;
             }
         } else {
-            VersionNumber  minVersionNumber;
-            VersionNumber  maxVersionNumber;
-            Predicate<Pkg> greaterCheck;
-            Predicate<Pkg> smallerCheck;
+            VersionNumber minVersionNumber;
+            VersionNumber maxVersionNumber;
+            boolean       minInclusive;
+            boolean       maxInclusive;
             switch (comparison) {
                 case EQUAL:
                     minVersionNumber = versionNumber;
                     maxVersionNumber = versionNumber;
-                    greaterCheck     = pkg -> pkg.getVersionNumber().compareTo(minVersionNumber) >= 0;
-                    smallerCheck     = pkg -> pkg.getVersionNumber().compareTo(maxVersionNumber) <= 0;
+                    minInclusive     = true;
+                    maxInclusive     = true;
                     break;
                 case LESS_THAN:
                     minVersionNumber = new VersionNumber(6);
                     maxVersionNumber = versionNumber;
-                    greaterCheck     = pkg -> pkg.getVersionNumber().compareTo(minVersionNumber) >= 0;
-                    smallerCheck     = pkg -> pkg.getVersionNumber().compareTo(maxVersionNumber) < 0;
+                    minInclusive     = true;
+                    maxInclusive     = false;
                     break;
                 case LESS_THAN_OR_EQUAL:
                     minVersionNumber = new VersionNumber(6);
                     maxVersionNumber = versionNumber;
-                    greaterCheck     = pkg -> pkg.getVersionNumber().compareTo(minVersionNumber) >= 0;
-                    smallerCheck     = pkg -> pkg.getVersionNumber().compareTo(maxVersionNumber) <= 0;
+                    minInclusive     = true;
+                    maxInclusive     = true;
                     break;
                 case GREATER_THAN:
                     minVersionNumber = versionNumber;
                     maxVersionNumber = new VersionNumber(MajorVersion.getLatest(true).getAsInt());
-                    greaterCheck     = pkg -> pkg.getVersionNumber().compareTo(minVersionNumber) > 0;
-                    smallerCheck     = pkg -> pkg.getVersionNumber().compareTo(maxVersionNumber) <= 0;
+                    minInclusive     = false;
+                    maxInclusive     = true;
                     break;
                 case GREATER_THAN_OR_EQUAL:
                     minVersionNumber = versionNumber;
                     maxVersionNumber = new VersionNumber(MajorVersion.getLatest(true).getAsInt());
-                    greaterCheck     = pkg -> pkg.getVersionNumber().compareTo(minVersionNumber) >= 0;
-                    smallerCheck     = pkg -> pkg.getVersionNumber().compareTo(maxVersionNumber) <= 0;
+                    minInclusive     = true;
+                    maxInclusive     = true;
                     break;
                 case RANGE_INCLUDING:
                     minVersionNumber = versionNumber;
                     maxVersionNumber = null == toVersionNumber ? new VersionNumber(MajorVersion.getLatest(true).getAsInt()) : toVersionNumber;
-                    greaterCheck     = pkg -> pkg.getVersionNumber().compareTo(minVersionNumber) >= 0;
-                    smallerCheck     = pkg -> pkg.getVersionNumber().compareTo(maxVersionNumber) <= 0;
+                    minInclusive     = true;
+                    maxInclusive     = true;
                     break;
                 case RANGE_EXCLUDING_TO:
                     minVersionNumber = versionNumber;
                     maxVersionNumber = null == toVersionNumber ? new VersionNumber(MajorVersion.getLatest(true).getAsInt()) : toVersionNumber;
-                    greaterCheck     = pkg -> pkg.getVersionNumber().compareTo(minVersionNumber) >= 0;
-                    smallerCheck     = pkg -> pkg.getVersionNumber().compareTo(maxVersionNumber) < 0;
+                    minInclusive     = true;
+                    maxInclusive     = false;
                     break;
                 case RANGE_EXCLUDING_FROM:
                     minVersionNumber = versionNumber;
                     maxVersionNumber = null == toVersionNumber ? new VersionNumber(MajorVersion.getLatest(true).getAsInt()) : toVersionNumber;
-                    greaterCheck     = pkg -> pkg.getVersionNumber().compareTo(minVersionNumber) > 0;
-                    smallerCheck     = pkg -> pkg.getVersionNumber().compareTo(maxVersionNumber) <= 0;
+                    minInclusive     = false;
+                    maxInclusive     = true;
                     break;
                 case RANGE_EXCLUDING:
                     minVersionNumber = versionNumber;
                     maxVersionNumber = null == toVersionNumber ? new VersionNumber(MajorVersion.getLatest(true).getAsInt()) : toVersionNumber;
-                    greaterCheck     = pkg -> pkg.getVersionNumber().compareTo(minVersionNumber) > 0;
-                    smallerCheck     = pkg -> pkg.getVersionNumber().compareTo(maxVersionNumber) < 0;
+                    minInclusive     = false;
+                    maxInclusive     = false;
                     break;
                 default:
                     minVersionNumber = new VersionNumber(6);
                     maxVersionNumber = new VersionNumber(MajorVersion.getLatest(true).getAsInt());
-                    greaterCheck     = pkg -> pkg.getVersionNumber().compareTo(minVersionNumber) >= 0;
-                    smallerCheck     = pkg -> pkg.getVersionNumber().compareTo(maxVersionNumber) <= 0;
+                    minInclusive     = true;
+                    maxInclusive     = true;
                     break;
             }
 
+            final BitSet    versionRange = pkgIndex.getVersionRange(VersionKey.of(minVersionNumber), minInclusive, VersionKey.of(maxVersionNumber), maxInclusive);
+            final List<Pkg> pkgSelection = selectPkgs(pkgIndex, versionRange, pkgScopes, distributions, architectures, archiveTypes, operatingSystems, libCTypes, termsOfSupport, packageType, releaseStatus, bitness, fpus, javafxBundled, directlyDownloadable, features);
             pkgsFound = pkgSelection.parallelStream()
-                                    .filter(pkg -> distributions.isEmpty()                  ? pkg.getDistribution()        != null          : distributions.contains(pkg.getDistribution()))
                                     .filter(pkg -> Match.ANY == match                         ? Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().anyMatch(distroScopes.stream().collect(toSet())::contains) : Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().allMatch(distroScopes.stream().collect(toSet())::contains))
                                     .filter(pkg -> null             == jdkVersion           ? pkg.getJdkVersion()          != null          : pkg.getJdkVersion().equals(jdkVersion))
-                                    .filter(pkg -> architectures.isEmpty()                  ? pkg.getArchitecture()        != null          : architectures.contains(pkg.getArchitecture()))
-                                    .filter(pkg -> archiveTypes.isEmpty()                   ? pkg.getArchiveType()         != null          : archiveTypes.contains(pkg.getArchiveType()))
-                                    .filter(pkg -> operatingSystems.isEmpty()               ? pkg.getOperatingSystem()     != null          : operatingSystems.contains(pkg.getOperatingSystem()))
-                                    .filter(pkg -> libCTypes.isEmpty()                      ? pkg.getLibCType()            != null          : libCTypes.contains(pkg.getLibCType()))
-                                    .filter(pkg -> termsOfSupport.isEmpty()                 ? pkg.getTermOfSupport()       != null          : termsOfSupport.contains(pkg.getTermOfSupport()))
-                                    .filter(pkg -> PackageType.NONE == packageType          ? pkg.getPackageType()         != packageType   : pkg.getPackageType()         == packageType)
-                                    .filter(pkg -> releaseStatus.isEmpty()                  ? pkg.getReleaseStatus()       != null          : releaseStatus.contains(pkg.getReleaseStatus()))
-                                    .filter(pkg -> Bitness.NONE     == bitness              ? pkg.getBitness()             != bitness       : pkg.getBitness()             == bitness)
-                                    .filter(pkg -> fpus.isEmpty()                           ? pkg.getFPU()                 != null          : fpus.contains(pkg.getFPU()))
-                                    .filter(pkg -> null             == javafxBundled        ? pkg.isJavaFXBundled()        != null          : pkg.isJavaFXBundled()        == javafxBundled)
-                                    .filter(pkg -> null             == directlyDownloadable ? pkg.isDirectlyDownloadable() != null          : pkg.isDirectlyDownloadable() == directlyDownloadable)
-                                    .filter(pkg -> features.isEmpty()                       ? pkg.getFeatures()            != null          : features.stream().anyMatch(feature -> pkg.getFeatures().contains(feature)))
                                     .filter(pkg -> null == signatureAvailable ? (pkg != null) : !signatureAvailable ? (null == pkg.getSignatureUri() || pkg.getSignatureUri().isEmpty()) : (pkg.getSignatureUri() != null && !pkg.getSignatureUri().isEmpty()))
                                     .filter(pkg -> null == freeToUseInProduction              ? pkg.getFreeUseInProduction() != null          : pkg.getFreeUseInProduction())
                                     .filter(pkg -> Verification.NONE == tckTested             ? pkg.getTckTested()           != null          : pkg.getTckTested()           == tckTested)
                                     .filter(pkg -> Verification.NONE == aqavitCertified       ? pkg.getAqavitCertified()     != null          : pkg.getAqavitCertified()     == aqavitCertified)
-                                    .filter(greaterCheck)
-                                    .filter(smallerCheck)
-                                    .sorted(Comparator.comparing(Pkg::getDistributionName).reversed().thenComparing(Comparator.comparing(Pkg::getSemver).reversed()))
+                                    .filter(versionRangeCheck(minVersionNumber, minInclusive, maxVersionNumber, maxInclusive))
                                     .collect(Collectors.toList());
         }
 
-        if (null == javafxBundled && null != withFxIfAvailable && withFxIfAvailable) {
-            List<Pkg> finalPkgsFound = pkgsFound;
-            List<Pkg> pkgsToRemove = pkgsFound.stream()
-                                              .filter(Predicate.not(Pkg::isJavaFXBundled))
-                                              .filter(pkg -> finalPkgsFound.stream().filter(p -> p.equalsExceptJavaFXAndPackageType(pkg)).count() > 0)
-                                              .collect(Collectors.toList());
-            pkgsFound.removeAll(pkgsToRemove);
-        }
+        if (null == javafxBundled && null != withFxIfAvailable && withFxIfAvailable) { removePkgsWithoutFxIfFxAvailable(pkgsFound); }
 
         return pkgsFound;
     }
+
+    /**
+     * Removes all packages without javafx bundled for which the same package with javafx bundled
+     * is part of the given list (see Pkg.equalsExceptJavaFXAndPackageType()).
+     * The packages with javafx are grouped by their key and java version first, so that each
+     * package without javafx only needs one lookup.
+     * @param pkgs
+     */
+    private void removePkgsWithoutFxIfFxAvailable(final List<Pkg> pkgs) {
+        final Map<List<Object>, Set<VersionNumber>> javaVersionsWithFx = new HashMap<>();
+        pkgs.stream()
+            .filter(pkg -> !Boolean.FALSE.equals(pkg.isJavaFXBundled()))
+            .forEach(pkg -> javaVersionsWithFx.computeIfAbsent(pkg.getKeyExceptJavaFXAndPackageType(), key -> new TreeSet<>()).add(pkg.getJavaVersion()));
+        if (javaVersionsWithFx.isEmpty()) { return; }
+        pkgs.removeIf(pkg -> !pkg.isJavaFXBundled() && javaVersionsWithFx.getOrDefault(pkg.getKeyExceptJavaFXAndPackageType(), Set.of()).contains(pkg.getJavaVersion()));
+    }
+
+    /**
+     * Returns a predicate that checks if the version number of a package is in the given range.
+     * The comparison is done on the packed version keys and only falls back to
+     * VersionNumber.compareTo() for versions that cannot be packed into a key.
+     */
+    private static Predicate<Pkg> versionRangeCheck(final VersionNumber minVersionNumber, final boolean minInclusive, final VersionNumber maxVersionNumber, final boolean maxInclusive) {
+        final long minKey = VersionKey.of(minVersionNumber);
+        final long maxKey = VersionKey.of(maxVersionNumber);
+        return pkg -> {
+            final long key = pkg.getVersionKey();
+            final int  compareMin;
+            final int  compareMax;
+            if (VersionKey.NONE == key || VersionKey.NONE == minKey || VersionKey.NONE == maxKey) {
+                compareMin = pkg.getVersionNumber().compareTo(minVersionNumber);
+                compareMax = pkg.getVersionNumber().compareTo(maxVersionNumber);
+            } else {
+                compareMin = Long.compare(key, minKey);
+                compareMax = Long.compare(key, maxKey);
+            }
+            return (minInclusive ? compareMin >= 0 : compareMin > 0) && (maxInclusive ? compareMax <= 0 : compareMax < 0);
+        };
+    }
+
+    /**
+     * Returns a predicate that checks if the first depth numbers (1 = feature ... 4 = patch) of
+     * the version number of a package are equal to the ones of the given version number.
+     */
+    private static Predicate<Pkg> versionPrefixCheck(final VersionNumber versionNumber, final int depth) {
+        final long prefixKey = VersionKey.of(versionNumber);
+        final int  feature   = versionNumber.getFeature().getAsInt();
+        final int  interim   = versionNumber.getInterim().orElse(0);
+        final int  update    = versionNumber.getUpdate().orElse(0);
+        final int  patch     = versionNumber.getPatch().orElse(0);
+        return pkg -> {
+            final long key = pkg.getVersionKey();
+            if (VersionKey.NONE != key && VersionKey.NONE != prefixKey) { return VersionKey.hasPrefix(key, prefixKey, depth); }
+            final VersionNumber pkgVersionNumber = pkg.getVersionNumber();
+            return pkgVersionNumber.getFeature().orElse(0) == feature &&
+                   (depth < 2 || pkgVersionNumber.getInterim().orElse(0) == interim) &&
+                   (depth < 3 || pkgVersionNumber.getUpdate().orElse(0)  == update)  &&
+                   (depth < 4 || pkgVersionNumber.getPatch().orElse(0)   == patch);
+        };
+    }
+
+    /**
+     * Preselects the packages that match the given enum based criteria by using the
+     * given bitmap index and applies the given package scopes on the result. If candidates
+     * is not null, only the packages with the given ordinals will be taken into account.
+     * The selection comes in the order of the snapshot (Pkg.DEFAULT_ORDER) and as all following
+     * filters keep the encounter order, the results do not need to be sorted again.
+     * @return list of packages that match the given criteria
+     */
+    private List<Pkg> selectPkgs(final PkgIndex pkgIndex, final BitSet candidates, final List<Scope> pkgScopes, final Collection<Distribution> distributions, final Collection<Architecture> architectures, final Collection<ArchiveType> archiveTypes, final Collection<OperatingSystem> operatingSystems,
+                                 final Collection<LibCType> libCTypes, final Collection<TermOfSupport> termsOfSupport, final PackageType packageType, final Collection<ReleaseStatus> releaseStatus,
+                                 final Bitness bitness, final Collection<FPU> fpus, final Boolean javafxBundled, final Boolean directlyDownloadable, final Collection<Feature> features) {
+        List<Pkg> selection = null == candidates ? pkgIndex.select(distributions, architectures, archiveTypes, operatingSystems, libCTypes, termsOfSupport, packageType, releaseStatus, bitness, fpus, javafxBundled, directlyDownloadable, features)
+                                                 : pkgIndex.select(candidates, distributions, architectures, archiveTypes, operatingSystems, libCTypes, termsOfSupport, packageType, releaseStatus, bitness, fpus, javafxBundled, directlyDownloadable, features);
+        if (null != pkgScopes && !pkgScopes.isEmpty()) {
+            for (Scope scope : pkgScopes) {
+                switch (scope.getApiString()) {
+                    case "signature_available"     -> selection = selection.parallelStream().filter(pkg -> !pkg.getSignatureUri().isEmpty()).collect(Collectors.toList());
+                    case "signature_not_available" -> selection = selection.parallelStream().filter(pkg -> pkg.getSignatureUri().isEmpty()).collect(Collectors.toList());
+                }
+            }
+        }
+        return selection;
+    }
+
+
+    /**
+     * Parameters of one query of getPkgsFromCache(List), they are the same as the parameters of the other getPkgsFromCache() methods.
+     * Use ofRange() for a query with a version range (from versionNumber to toVersionNumber) and of() for a query with a comparison.
+     */
+    public record QuerySpec(boolean versionRange, VersionNumber versionNumber, VersionNumber toVersionNumber, Comparison comparison, MajorVersion jdkVersion, List<Distribution> distributions, List<Architecture> architectures,
+                            List<FPU> fpus, List<ArchiveType> archiveTypes, PackageType packageType, List<OperatingSystem> operatingSystems, List<LibCType> libCTypes, List<ReleaseStatus> releaseStatus,
+                            List<TermOfSupport> termsOfSupport, Bitness bitness, Boolean javafxBundled, Boolean withFxIfAvailable, Boolean directlyDownloadable, Latest latest, List<Feature> features,
+                            Boolean signatureAvailable, Boolean freeToUseInProduction, Verification tckTested, Verification aqavitCertified, List<Scope> distroScopes, Match match, List<Scope> pkgScopes) {
+
+        public static QuerySpec ofRange(final VersionNumber fromVersionNumber, final VersionNumber toVersionNumber, final MajorVersion jdkVersion, final List<Distribution> distributions, final List<Architecture> architectures, final List<FPU> fpus, final List<ArchiveType> archiveTypes,
+                                        final PackageType packageType, final List<OperatingSystem> operatingSystems, final List<LibCType> libCTypes, final List<ReleaseStatus> releaseStatus, final List<TermOfSupport> termsOfSupport,
+                                        final Bitness bitness, final Boolean javafxBundled, final Boolean withFxIfAvailable, final Boolean directlyDownloadable, final List<Feature> features, final Boolean signatureAvailable,
+                                        final Boolean freeToUseInProduction, final Verification tckTested, final Verification aqavitCertified, final List<Scope> distroScopes, final Match match, final List<Scope> pkgScopes) {
+            return new QuerySpec(true, fromVersionNumber, toVersionNumber, null, jdkVersion, distributions, architectures, fpus, archiveTypes, packageType, operatingSystems, libCTypes, releaseStatus, termsOfSupport,
+                                 bitness, javafxBundled, withFxIfAvailable, directlyDownloadable, null, features, signatureAvailable, freeToUseInProduction, tckTested, aqavitCertified, distroScopes, match, pkgScopes);
+        }
+
+        public static QuerySpec of(final VersionNumber versionNumber, final VersionNumber toVersionNumber, final Comparison comparison, final MajorVersion jdkVersion, final List<Distribution> distributions, final List<Architecture> architectures, final List<FPU> fpus, final List<ArchiveType> archiveTypes,
+                                   final PackageType packageType, final List<OperatingSystem> operatingSystems, final List<LibCType> libCTypes, final List<ReleaseStatus> releaseStatus, final List<TermOfSupport> termsOfSupport,
+                                   final Bitness bitness, final Boolean javafxBundled, final Boolean withFxIfAvailable, final Boolean directlyDownloadable, final Latest latest, final List<Feature> features, final Boolean signatureAvailable,
+                                   final Boolean freeToUseInProduction, final Verification tckTested, final Verification aqavitCertified, final List<Scope> distroScopes, final Match match, final List<Scope> pkgScopes) {
+            return new QuerySpec(false, versionNumber, toVersionNumber, comparison, jdkVersion, distributions, architectures, fpus, archiveTypes, packageType, operatingSystems, libCTypes, releaseStatus, termsOfSupport,
+                                 bitness, javafxBundled, withFxIfAvailable, directlyDownloadable, latest, features, signatureAvailable, freeToUseInProduction, tckTested, aqavitCertified, distroScopes, match, pkgScopes);
+        }
+
+        public PkgQuery toPkgQuery() {
+            return versionRange ? PkgQuery.ofRange(versionNumber, toVersionNumber, jdkVersion, distributions, architectures, fpus, archiveTypes, packageType, operatingSystems, libCTypes, releaseStatus, termsOfSupport, bitness, javafxBundled, withFxIfAvailable, directlyDownloadable, features, signatureAvailable, freeToUseInProduction, tckTested, aqavitCertified, distroScopes, match, pkgScopes)
+                                : PkgQuery.of(versionNumber, toVersionNumber, comparison, jdkVersion, distributions, architectures, fpus, archiveTypes, packageType, operatingSystems, libCTypes, releaseStatus, termsOfSupport, bitness, javafxBundled, withFxIfAvailable, directlyDownloadable, latest, features, signatureAvailable, freeToUseInProduction, tckTested, aqavitCertified, distroScopes, match, pkgScopes);
+        }
+    }
 }
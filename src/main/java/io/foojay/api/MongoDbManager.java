@@ -21,7 +21,9 @@ package io.foojay.api;
 
 import com.mongodb.MongoClientSettings;
 import com.mongodb.MongoCredential;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoException;
+import com.mongodb.MongoInterruptedException;
 import com.mongodb.ServerAddress;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
@@ -29,12 +31,19 @@ import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.MongoIterable;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
 import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
 import com.mongodb.client.model.UpdateOptions;
-import eu.hansolo.jdktools.util.OutputFormat;
+import com.mongodb.client.model.WriteModel;
 import io.foojay.api.pkg.Distro;
 import io.foojay.api.pkg.MajorVersion;
 import io.foojay.api.pkg.Pkg;
+import io.foojay.api.pkg.PkgCodec;
 import io.foojay.api.pkg.PkgField;
 import io.foojay.api.util.Config;
 import io.foojay.api.util.Constants;
@@ -43,8 +52,8 @@ import io.foojay.api.util.Helper;
 import io.foojay.api.util.State;
 import io.foojay.api.util.UpdaterState;
 import org.bson.BsonDocument;
-import org.bson.BsonString;
 import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistries;
 import org.bson.conversions.Bson;
 import org.bson.json.JsonParseException;
 import org.slf4j.Logger;
@@ -59,10 +68,18 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
@@ -72,13 +89,16 @@ import static com.mongodb.client.model.Filters.eq;
 import static com.mongodb.client.model.Filters.gte;
 import static com.mongodb.client.model.Filters.in;
 import static com.mongodb.client.model.Filters.lte;
+import static com.mongodb.client.model.Filters.nin;
+import static com.mongodb.client.model.Projections.include;
 import static com.mongodb.client.model.Updates.combine;
 import static com.mongodb.client.model.Updates.set;
-import static io.foojay.api.util.Constants.API_VERSION_V3;
+import static io.foojay.api.util.Constants.COLON;
 import static io.foojay.api.util.Constants.COMMA;
 import static io.foojay.api.util.Constants.COMMA_NEW_LINE;
 import static io.foojay.api.util.Constants.CURLY_BRACKET_CLOSE;
 import static io.foojay.api.util.Constants.CURLY_BRACKET_OPEN;
+import static io.foojay.api.util.Constants.QUOTES;
 import static io.foojay.api.util.Constants.SQUARE_BRACKET_CLOSE;
 import static io.foojay.api.util.Constants.SQUARE_BRACKET_OPEN;
 
@@ -107,14 +127,32 @@ public enum MongoDbManager {
     private static final String                           FIELD_TERM_OF_SUPPORT          = "term_of_support";
     private static final String                           FIELD_RELEASE_STATUS           = "release_status";
     private static final String                           FIELD_MAINTAINED               = "maintained";
+    private static final String                           FIELD_KEY                      = "key";
+    private static final String                           FIELD_NAME                     = "name";
+    private static final String                           FIELD_ACCESSES                 = "accesses";
+    private static final String                           FIELD_OPS                      = "ops";
+    private static final String                           INDEX_STATS                    = "$indexStats";
+    private static final int                              LOADER_THREADS                 = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+    public  static final String                           PARTITION_OTHERS               = "others";
+    // Indexes on the fields that are used in the filters of the queries and updates below, created at startup if missing
+    private static final List<ManagedIndex>               MANAGED_INDEXES                = List.of(new ManagedIndex(Constants.PACKAGES_COLLECTION, FIELD_PACKAGE_ID),
+                                                                                                   new ManagedIndex(Constants.PACKAGES_COLLECTION, PkgField.DISTRIBUTION.fieldName()),
+                                                                                                   new ManagedIndex(Constants.DOWNLOADS_COLLECTION, FIELD_PACKAGE_ID),
+                                                                                                   new ManagedIndex(Constants.DOWNLOADS_USER_AGENT_COLLECTION, FIELD_TIMESTAMP),
+                                                                                                   new ManagedIndex(Constants.DOWNLOADS_PER_DAY_COLLECTION, FIELD_DAY),
+                                                                                                   new ManagedIndex(Constants.DISTRO_UPDATES_COLLECTION, FIELD_DISTRO),
+                                                                                                   new ManagedIndex(Constants.EPHEMERAL_IDS_COLLECTION, FIELD_EPHEMERAL_ID),
+                                                                                                   new ManagedIndex(Constants.STATE_COLLECTION, FIELD_TYPE));
     public final         EphemeralIdCache<String, String> ephemeralIdCache               = new EphemeralIdCache<>();
     private              MongoClient                      mongoClient;
     private              boolean                          connected;
     private              MongoDatabase                    database;
+    private        final int                              bulkWriteBatchSize;
 
 
     MongoDbManager() {
-        connected = false;
+        connected          = false;
+        bulkWriteBatchSize = Config.INSTANCE.getFoojayMongoDbBatchSize();
         // Set mongodb logger to SEVERE only.
         java.util.logging.Logger mongoLogger = java.util.logging.Logger.getLogger("org.mongodb.driver");
         mongoLogger.setLevel(Level.SEVERE);
@@ -134,6 +172,7 @@ public enum MongoDbManager {
                 mongoClient = MongoClients.create(MongoClientSettings.builder()
                                                                      .applyToClusterSettings(builder -> builder.hosts(Arrays.asList(new ServerAddress(Config.INSTANCE.getFoojayMongoDbUrl(), Config.INSTANCE.getFoojayMongoDbPort()))))
                                                                      .credential(credential)
+                                                                     .codecRegistry(CodecRegistries.fromRegistries(CodecRegistries.fromCodecs(new PkgCodec()), MongoClientSettings.getDefaultCodecRegistry()))
                                                                      .build());
 
                 database = mongoClient.getDatabase(Config.INSTANCE.getFoojayMongoDbDatabase());
@@ -147,6 +186,7 @@ public enum MongoDbManager {
                 if (!collectionExists(database, Constants.DOWNLOADS_USER_AGENT_COLLECTION)) { database.createCollection(Constants.DOWNLOADS_USER_AGENT_COLLECTION); }
                 if (!collectionExists(database, Constants.DISTRO_UPDATES_COLLECTION)) { database.createCollection(Constants.DISTRO_UPDATES_COLLECTION); }
                 if (!collectionExists(database, Constants.SHEDLOCK_COLLECTION)) { database.createCollection(Constants.SHEDLOCK_COLLECTION); }
+                CompletableFuture.runAsync(this::createMissingIndexes);
 
                 updateEphemeralIds();
                 setState(State.IDLE);
@@ -365,22 +405,9 @@ public enum MongoDbManager {
         };
         if (!collectionExists(database, Constants.PACKAGES_COLLECTION)) { database.createCollection(Constants.PACKAGES_COLLECTION); }
 
-        final MongoCollection<Document> collection = database.getCollection(Constants.PACKAGES_COLLECTION);
-        final List<Pkg>                 result     = new ArrayList<>();
-        final MongoCursor<Document>     cursor     = collection.find().iterator();
-        try {
-            while(cursor.hasNext()) {
-                Document document = cursor.next();
-                try {
-                    Pkg pkg = new Pkg(document.toJson());
-                    result.add(pkg);
-                } catch (Exception e) {
-                    LOGGER.error("Error creating pkg from {}", document.toJson());
-                }
-            }
-        } finally {
-            cursor.close();
-        }
+        final MongoCollection<Pkg> collection = database.getCollection(Constants.PACKAGES_COLLECTION, Pkg.class);
+        final List<Pkg>            result     = new ArrayList<>();
+        readPkgs(collection, new BsonDocument(), result::add);
 
         LOGGER.debug("Successfully returned {} packages from mongodb in {} ms.", result.size(), (System.currentTimeMillis() - start));
         return result;
@@ -407,24 +434,91 @@ public enum MongoDbManager {
         };
         if (!collectionExists(database, Constants.PACKAGES_COLLECTION)) { database.createCollection(Constants.PACKAGES_COLLECTION); }
 
-        final MongoCollection<Document> collection = database.getCollection(Constants.PACKAGES_COLLECTION);
-        final List<Pkg>                 result     = new ArrayList<>();
-        final MongoCursor<Document>     cursor     = collection.find(eq(PkgField.DISTRIBUTION.fieldName(), distro.getApiString())).iterator();
+        final MongoCollection<Pkg> collection = database.getCollection(Constants.PACKAGES_COLLECTION, Pkg.class);
+        final List<Pkg>            result     = new ArrayList<>();
+        readPkgs(collection, eq(PkgField.DISTRIBUTION.fieldName(), distro.getApiString()), result::add);
+        LOGGER.debug("Successfully returned {} packages for distribution {} from mongodb in {} ms.", result.size(), distro.name(), (System.currentTimeMillis() - start));
+        return result;
+    }
+
+    /**
+     * Loads the packages of the given distributions into the given map. Each distribution is a partition
+     * that is read with its own cursor, the partitions are loaded in parallel on at most LOADER_THREADS threads.
+     * @param distros        Distributions to load
+     * @param includeOthers  If true the packages of all other distributions will be loaded in one additional partition
+     * @param target         Map the packages will be put into by their id, must be thread safe
+     * @return the time in ms it took to load each partition by the api string of its distribution (or PARTITION_OTHERS) or null if the packages could not be loaded (e.g. not connected)
+     */
+    public Map<String, Long> loadPkgs(final Collection<Distro> distros, final boolean includeOthers, final Map<String, Pkg> target) {
+        connect();
+        if (!connected) {
+            LOGGER.debug("MongoDB not connected, no packages loaded");
+            return null;
+        }
+        if (null == Config.INSTANCE.getFoojayMongoDbDatabase()) {
+            LOGGER.debug("Cannot load packages because FOOJAY_MONGODB_DATABASE environment variable was not set.");
+            return null;
+        }
+        if (null == database) {
+            LOGGER.error("Database is not set.");
+            database = mongoClient.getDatabase(Config.INSTANCE.getFoojayMongoDbDatabase());
+        }
+        if (null == Constants.PACKAGES_COLLECTION) {
+            LOGGER.error("Constants.PACKAGES_COLLECTION not set.");
+            return null;
+        }
+        if (!collectionExists(database, Constants.PACKAGES_COLLECTION)) { database.createCollection(Constants.PACKAGES_COLLECTION); }
+
+        final MongoCollection<Pkg> collection = database.getCollection(Constants.PACKAGES_COLLECTION, Pkg.class);
+        final Map<String, Bson>    partitions = new LinkedHashMap<>();
+        distros.forEach(distro -> partitions.put(distro.getApiString(), eq(PkgField.DISTRIBUTION.fieldName(), distro.getApiString())));
+        if (includeOthers) { partitions.put(PARTITION_OTHERS, nin(PkgField.DISTRIBUTION.fieldName(), List.copyOf(partitions.keySet()))); }
+        if (partitions.isEmpty()) { return new HashMap<>(); }
+
+        final Map<String, Future<Long>> futures  = new LinkedHashMap<>();
+        final ExecutorService           executor = Executors.newFixedThreadPool(Math.min(LOADER_THREADS, partitions.size()));
         try {
-            while(cursor.hasNext()) {
-                Document document = cursor.next();
+            partitions.forEach((partition, filter) -> futures.put(partition, executor.submit(() -> {
+                final long start = System.currentTimeMillis();
+                final int  count = readPkgs(collection, filter, pkg -> target.put(pkg.getId(), pkg));
+                final long ms    = System.currentTimeMillis() - start;
+                LOGGER.debug("Loaded {} packages of partition {} from mongodb in {} ms", count, partition, ms);
+                return ms;
+            })));
+            final Map<String, Long> msPerPartition = new LinkedHashMap<>();
+            for (Entry<String, Future<Long>> entry : futures.entrySet()) {
                 try {
-                    Pkg pkg = new Pkg(document.toJson());
-                    result.add(pkg);
-                } catch (Exception e) {
-                    LOGGER.error("Error creating pkg from {}", document.toJson());
+                    msPerPartition.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    // A missing partition would remove its packages from the cache, so the whole load fails
+                    throw new MongoException("Error loading packages of partition " + entry.getKey(), e.getCause());
+                }
+            }
+            return msPerPartition;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MongoInterruptedException("Interrupted while loading packages from mongodb", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int readPkgs(final MongoCollection<Pkg> collection, final Bson filter, final Consumer<Pkg> consumer) {
+        int count = 0;
+        final MongoCursor<Pkg> cursor = collection.find(filter).iterator();
+        try {
+            while(cursor.hasNext()) {
+                // PkgCodec decodes documents that do not contain a valid package to null
+                Pkg pkg = cursor.next();
+                if (null != pkg) {
+                    consumer.accept(pkg);
+                    count++;
                 }
             }
         } finally {
             cursor.close();
         }
-        LOGGER.debug("Successfully returned {} packages for distribution {} from mongodb in {} ms.", result.size(), distro.name(), (System.currentTimeMillis() - start));
-        return result;
+        return count;
     }
 
     /**
@@ -455,27 +549,31 @@ public enum MongoDbManager {
         }
         if (!collectionExists(database, Constants.PACKAGES_COLLECTION)) { database.createCollection(Constants.PACKAGES_COLLECTION); }
 
-        final MongoCollection<Document> collection = database.getCollection(Constants.PACKAGES_COLLECTION);
-        final List<Document>            documents  = new ArrayList<>();
-        pkgs.stream()
-            .filter(pkg -> !pkg.getArchitecture().getApiString().isEmpty())
-            .filter(pkg -> !pkg.getArchiveType().getApiString().isEmpty())
-            .filter(pkg -> !pkg.getOperatingSystem().getApiString().isEmpty())
-            .filter(pkg -> !pkg.getLibCType().getApiString().isEmpty())
-            .filter(pkg -> !pkg.getPackageType().getApiString().isEmpty())
-            .filter(pkg -> !pkg.getReleaseStatus().getApiString().isEmpty())
-            .filter(pkg -> !pkg.getFilename().isEmpty())
-            .forEach(pkg -> {
-                try {
-                    long count = collection.countDocuments(new BsonDocument(FIELD_PACKAGE_ID, new BsonString(pkg.getId())));
-                    if (count == 0) { documents.add(Document.parse(pkg.toString(OutputFormat.FULL_COMPRESSED, API_VERSION_V3))); }
-                } catch (JsonParseException e) {
-                    LOGGER.error("Error parsing json when adding package {}. {}", pkg.getId(), e);
-                }
-            });
-
-        collection.insertMany(documents);
-        LOGGER.debug("Successfully inserted {} packages to mongodb.", pkgs.size());
+        final MongoCollection<Pkg> collection = database.getCollection(Constants.PACKAGES_COLLECTION, Pkg.class);
+        final List<Pkg>            validPkgs  = pkgs.stream()
+                                                    .filter(pkg -> !pkg.getArchitecture().getApiString().isEmpty())
+                                                    .filter(pkg -> !pkg.getArchiveType().getApiString().isEmpty())
+                                                    .filter(pkg -> !pkg.getOperatingSystem().getApiString().isEmpty())
+                                                    .filter(pkg -> !pkg.getLibCType().getApiString().isEmpty())
+                                                    .filter(pkg -> !pkg.getPackageType().getApiString().isEmpty())
+                                                    .filter(pkg -> !pkg.getReleaseStatus().getApiString().isEmpty())
+                                                    .filter(pkg -> !pkg.getFilename().isEmpty())
+                                                    .collect(Collectors.toList());
+
+        // Look up the existing ids with one query per batch instead of one count per package
+        final List<WriteModel<Pkg>> inserts = new ArrayList<>();
+        for (int i = 0 ; i < validPkgs.size() ; i += bulkWriteBatchSize) {
+            final List<Pkg>   batch       = validPkgs.subList(i, Math.min(i + bulkWriteBatchSize, validPkgs.size()));
+            final Set<String> existingIds = new HashSet<>();
+            database.getCollection(Constants.PACKAGES_COLLECTION)
+                    .find(in(FIELD_PACKAGE_ID, batch.stream().map(Pkg::getId).collect(Collectors.toList())))
+                    .projection(include(FIELD_PACKAGE_ID))
+                    .forEach(document -> existingIds.add(document.getString(FIELD_PACKAGE_ID)));
+            batch.stream().filter(pkg -> !existingIds.contains(pkg.getId())).forEach(pkg -> inserts.add(new InsertOneModel<>(pkg)));
+        }
+
+        final BulkWriteStats stats = bulkWrite(collection, inserts, "insert packages");
+        LOGGER.debug("Successfully inserted {} of {} packages to mongodb.", stats.written(), pkgs.size());
     }
 
     /**
@@ -507,26 +605,21 @@ public enum MongoDbManager {
         }
         if (!collectionExists(database, Constants.PACKAGES_COLLECTION)) { database.createCollection(Constants.PACKAGES_COLLECTION); }
 
-        MongoCollection<Document> collection = database.getCollection(Constants.PACKAGES_COLLECTION);
-        ReplaceOptions replaceOptions = new ReplaceOptions().upsert(true);
-        pkgs.stream()
-            .filter(pkg -> !pkg.getArchitecture().getApiString().isEmpty())
-            .filter(pkg -> !pkg.getArchiveType().getApiString().isEmpty())
-            .filter(pkg -> !pkg.getOperatingSystem().getApiString().isEmpty())
-            .filter(pkg -> !pkg.getLibCType().getApiString().isEmpty())
-            .filter(pkg -> !pkg.getPackageType().getApiString().isEmpty())
-            .filter(pkg -> !pkg.getReleaseStatus().getApiString().isEmpty())
-            .filter(pkg -> !pkg.getFilename().isEmpty())
-            .forEach(pkg -> {
-            try {
-                Document document = Document.parse(pkg.toString(OutputFormat.FULL_COMPRESSED, API_VERSION_V3));
-                collection.replaceOne(eq(FIELD_PACKAGE_ID, pkg.getId()), document, replaceOptions);
-            } catch (JsonParseException e) {
-                LOGGER.error("Error parsing json when adding package {}. {}", pkg.getId(), e.getMessage());
-            }
-        });
-        LOGGER.debug("Successfully added {} new packages to mongodb.", pkgs.size());
-        return true;
+        final MongoCollection<Pkg>  collection     = database.getCollection(Constants.PACKAGES_COLLECTION, Pkg.class);
+        final ReplaceOptions        replaceOptions = new ReplaceOptions().upsert(true);
+        final List<WriteModel<Pkg>> replacements   = pkgs.stream()
+                                                         .filter(pkg -> !pkg.getArchitecture().getApiString().isEmpty())
+                                                         .filter(pkg -> !pkg.getArchiveType().getApiString().isEmpty())
+                                                         .filter(pkg -> !pkg.getOperatingSystem().getApiString().isEmpty())
+                                                         .filter(pkg -> !pkg.getLibCType().getApiString().isEmpty())
+                                                         .filter(pkg -> !pkg.getPackageType().getApiString().isEmpty())
+                                                         .filter(pkg -> !pkg.getReleaseStatus().getApiString().isEmpty())
+                                                         .filter(pkg -> !pkg.getFilename().isEmpty())
+                                                         .map(pkg -> new ReplaceOneModel<>(eq(FIELD_PACKAGE_ID, pkg.getId()), pkg, replaceOptions))
+                                                         .collect(Collectors.toList());
+        final BulkWriteStats stats = bulkWrite(collection, replacements, "upsert packages");
+        LOGGER.debug("Successfully added {} of {} packages to mongodb.", stats.written(), pkgs.size());
+        return stats.failed() == 0 && stats.writeConcernErrors() == 0;
     }
 
     /**
@@ -883,10 +976,13 @@ public enum MongoDbManager {
         }
         if (!collectionExists(database, Constants.PACKAGES_COLLECTION)) { database.createCollection(Constants.PACKAGES_COLLECTION); }
 
-        MongoCollection<Document> collection = database.getCollection(Constants.PACKAGES_COLLECTION);
-        pkgs.forEach(pkg -> collection.updateOne(eq(FIELD_PACKAGE_ID, pkg.getId()), set(PkgField.LATEST_BUILD_AVAILABLE.fieldName(), false)));
+        final MongoCollection<Document>  collection = database.getCollection(Constants.PACKAGES_COLLECTION);
+        final List<WriteModel<Document>> updates    = pkgs.stream()
+                                                          .map(pkg -> new UpdateOneModel<Document>(eq(FIELD_PACKAGE_ID, pkg.getId()), set(PkgField.LATEST_BUILD_AVAILABLE.fieldName(), false)))
+                                                          .collect(Collectors.toList());
+        final BulkWriteStats stats = bulkWrite(collection, updates, "update latest build available");
 
-        LOGGER.debug("Successfully updated latest build available for {} packages", pkgs.size());
+        LOGGER.debug("Successfully updated latest build available for {} of {} packages", stats.written(), pkgs.size());
     }
 
     public Map<Distro, Instant> getLastUpdatesForDistros() {
@@ -1321,10 +1417,125 @@ public enum MongoDbManager {
         }
         if (!collectionExists(database, Constants.PACKAGES_COLLECTION)) { database.createCollection(Constants.PACKAGES_COLLECTION); }
 
-        MongoCollection<Document> collection = database.getCollection(Constants.PACKAGES_COLLECTION);
-        pkgs.forEach(pkg -> collection.updateOne(eq(FIELD_PACKAGE_ID, pkg.getId()), set(PkgField.LATEST_BUILD_AVAILABLE.fieldName(), pkg.isLatestBuildAvailable())));
+        final MongoCollection<Document>  collection = database.getCollection(Constants.PACKAGES_COLLECTION);
+        final List<WriteModel<Document>> updates    = pkgs.stream()
+                                                          .map(pkg -> new UpdateOneModel<Document>(eq(FIELD_PACKAGE_ID, pkg.getId()), set(PkgField.LATEST_BUILD_AVAILABLE.fieldName(), pkg.isLatestBuildAvailable())))
+                                                          .collect(Collectors.toList());
+        final BulkWriteStats stats = bulkWrite(collection, updates, "sync latest build available");
 
-        LOGGER.debug("Successfully synced latest build available for all packages in cache {}", pkgs.size());
+        LOGGER.debug("Successfully synced latest build available for {} of {} packages in cache", stats.written(), pkgs.size());
+    }
+
+    /**
+     * Executes the given writes as unordered bulk writes of at most bulkWriteBatchSize writes each.
+     * Unordered bulk writes continue after a failed write, so a failing write or batch will be
+     * logged and counted but does not stop the remaining writes.
+     * @param collection Collection to write to
+     * @param writes     Writes to execute
+     * @param operation  Name of the operation used in the log messages
+     * @return the number of batches, successful and failed writes and the number of batches with a write concern error
+     */
+    private <T> BulkWriteStats bulkWrite(final MongoCollection<T> collection, final List<? extends WriteModel<? extends T>> writes, final String operation) {
+        final long             start              = System.currentTimeMillis();
+        final BulkWriteOptions options            = new BulkWriteOptions().ordered(false);
+        final int              noOfBatches        = (writes.size() + bulkWriteBatchSize - 1) / bulkWriteBatchSize;
+        int                    failed             = 0;
+        int                    writeConcernErrors = 0;
+        for (int i = 0 ; i < writes.size() ; i += bulkWriteBatchSize) {
+            final List<? extends WriteModel<? extends T>> batch      = writes.subList(i, Math.min(i + bulkWriteBatchSize, writes.size()));
+            final int                                     batchNo    = i / bulkWriteBatchSize + 1;
+            final long                                    batchStart = System.currentTimeMillis();
+            try {
+                collection.bulkWrite(batch, options);
+                LOGGER.debug("Bulk write {} batch {}/{} with {} writes took {} ms", operation, batchNo, noOfBatches, batch.size(), (System.currentTimeMillis() - batchStart));
+            } catch (MongoBulkWriteException e) {
+                final int noOfWriteErrors = e.getWriteErrors().size();
+                failed += noOfWriteErrors;
+                if (noOfWriteErrors > 0) {
+                    LOGGER.error("Bulk write {} batch {}/{} failed for {} of {} writes in {} ms. {}", operation, batchNo, noOfBatches, noOfWriteErrors, batch.size(), (System.currentTimeMillis() - batchStart), e.getWriteErrors().get(0).getMessage());
+                }
+                if (null != e.getWriteConcernError()) {
+                    // The writes have been applied but their durability could not be confirmed, so they will not be counted as failed
+                    writeConcernErrors++;
+                    LOGGER.error("Bulk write {} batch {}/{} with {} writes got write concern error in {} ms. {}", operation, batchNo, noOfBatches, batch.size(), (System.currentTimeMillis() - batchStart), e.getWriteConcernError().getMessage());
+                }
+            } catch (MongoException e) {
+                failed += batch.size();
+                LOGGER.error("Bulk write {} batch {}/{} with {} writes failed in {} ms. {}", operation, batchNo, noOfBatches, batch.size(), (System.currentTimeMillis() - batchStart), e.getMessage());
+            }
+        }
+        LOGGER.debug("Bulk write {} of {} writes in {} batches ({} failed, {} write concern errors) took {} ms", operation, writes.size(), noOfBatches, failed, writeConcernErrors, (System.currentTimeMillis() - start));
+        return new BulkWriteStats(noOfBatches, writes.size() - failed, failed, writeConcernErrors);
+    }
+
+    /**
+     * Returns the number of operations that used each index of the collections with managed indexes
+     * since the index usage statistics of the server have been reset (e.g. by a restart)
+     * @return json object with the number of operations per index name per collection
+     */
+    public String getIndexUsageJson() {
+        connect();
+        if (!connected) {
+            LOGGER.debug("MongoDB not connected, return empty index usage");
+            return CURLY_BRACKET_OPEN + CURLY_BRACKET_CLOSE;
+        }
+        if (null == Config.INSTANCE.getFoojayMongoDbDatabase()) {
+            LOGGER.debug("Cannot return index usage because FOOJAY_MONGODB_DATABASE environment variable was not set.");
+            return CURLY_BRACKET_OPEN + CURLY_BRACKET_CLOSE;
+        }
+        if (null == database) {
+            LOGGER.error("Database is not set.");
+            database = mongoClient.getDatabase(Config.INSTANCE.getFoojayMongoDbDatabase());
+        }
+
+        final StringBuilder msgBuilder = new StringBuilder().append(CURLY_BRACKET_OPEN);
+        MANAGED_INDEXES.stream().map(ManagedIndex::collection).distinct().forEach(collectionName -> {
+            if (msgBuilder.length() > 1) { msgBuilder.append(COMMA); }
+            msgBuilder.append(QUOTES).append(collectionName).append(QUOTES).append(COLON).append(CURLY_BRACKET_OPEN);
+            try {
+                final StringBuilder indexBuilder = new StringBuilder();
+                database.getCollection(collectionName).aggregate(List.of(new Document(INDEX_STATS, new Document()))).forEach(stats -> {
+                    final Document accesses = stats.get(FIELD_ACCESSES, Document.class);
+                    final Number   ops      = null == accesses ? null : accesses.get(FIELD_OPS, Number.class);
+                    if (indexBuilder.length() > 0) { indexBuilder.append(COMMA); }
+                    indexBuilder.append(QUOTES).append(stats.getString(FIELD_NAME)).append(QUOTES).append(COLON).append(null == ops ? 0 : ops.longValue());
+                });
+                msgBuilder.append(indexBuilder);
+            } catch (MongoException e) {
+                LOGGER.error("Error getting index usage of collection {}. {}", collectionName, e.getMessage());
+            }
+            msgBuilder.append(CURLY_BRACKET_CLOSE);
+        });
+        return msgBuilder.append(CURLY_BRACKET_CLOSE).toString();
+    }
+
+    /**
+     * Creates the managed indexes that do not exist yet. The indexes are built in the background,
+     * so the collections stay available while an index is built on a large collection.
+     */
+    private void createMissingIndexes() {
+        final long start   = System.currentTimeMillis();
+        int        created = 0;
+        for (ManagedIndex index : MANAGED_INDEXES) {
+            try {
+                final MongoCollection<Document> collection = database.getCollection(index.collection());
+                boolean exists = false;
+                for (Document existingIndex : collection.listIndexes()) {
+                    final Document key = existingIndex.get(FIELD_KEY, Document.class);
+                    if (null != key && key.size() == 1 && key.containsKey(index.field())) {
+                        exists = true;
+                        break;
+                    }
+                }
+                if (exists) { continue; }
+                collection.createIndex(Indexes.ascending(index.field()), new IndexOptions().background(true));
+                created++;
+                LOGGER.debug("Created index on {} of collection {}", index.field(), index.collection());
+            } catch (MongoException e) {
+                LOGGER.error("Error creating index on {} of collection {}. {}", index.field(), index.collection(), e.getMessage());
+            }
+        }
+        LOGGER.debug("Checked {} managed indexes and created {} missing indexes in {} ms", MANAGED_INDEXES.size(), created, (System.currentTimeMillis() - start));
     }
 
     public boolean collectionExists(final MongoDatabase database, final String collectionName) {
@@ -1339,4 +1550,9 @@ public enum MongoDbManager {
         }
         return false;
     }
+
+
+    private record BulkWriteStats(int batches, int written, int failed, int writeConcernErrors) {}
+
+    private record ManagedIndex(String collection, String field) {}
 }
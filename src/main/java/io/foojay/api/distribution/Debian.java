@@ -42,7 +42,6 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeSet;
 import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -138,11 +137,7 @@ public class Debian implements Distribution {
     @Override public List<String> getSynonyms() { return List.of("debian", "DEBIAN", "Debian"); }
 
     @Override public List<Semver> getVersions() {
-        return CacheManager.INSTANCE.pkgCache.getPkgs()
-                                             .stream()
-                                             .filter(pkg -> Distro.DEBIAN.get().equals(pkg.getDistribution()))
-                                             .map(pkg -> pkg.getSemver())
-                                             .collect(Collectors.toCollection(() -> new TreeSet<>(Comparator.comparing(Semver::toString)))).stream().sorted(Comparator.comparing(Semver::getVersionNumber).reversed()).collect(Collectors.toList());
+        return CacheManager.INSTANCE.getDistroCatalog().getVersions(Distro.DEBIAN);
     }
 
     @Override public String getUrlForAvailablePkgs(final VersionNumber versionNumber, final boolean latest, final OperatingSystem operatingSystem, final Architecture architecture, final Bitness bitness, final ArchiveType archiveType,
@@ -430,7 +430,7 @@ public enum Distro implements Api {
     }
 
     public static long getNumberOfPkgsForDistro(final Distro distro) {
-        return CacheManager.INSTANCE.pkgCache.getPkgs().parallelStream().filter(pkg -> pkg.getDistribution().getDistro() == distro).count();
+        return CacheManager.INSTANCE.getDistroCatalog().getNumberOfPkgs(distro);
     }
 
     public static boolean isBasedOnOpenJDK(final Distro distro) { return getDistributionsBasedOnOpenJDK().contains(distro); }
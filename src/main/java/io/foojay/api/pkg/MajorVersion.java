@@ -29,7 +29,6 @@ import eu.hansolo.jdktools.scopes.Scope;
 import eu.hansolo.jdktools.versioning.Semver;
 import eu.hansolo.jdktools.versioning.VersionNumber;
 import io.foojay.api.CacheManager;
-import io.foojay.api.util.Constants;
 import io.foojay.api.util.Helper;
 
 import java.util.ArrayList;
@@ -38,7 +37,6 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import static io.foojay.api.util.Constants.COLON;
@@ -51,7 +49,6 @@ import static io.foojay.api.util.Constants.NEW_LINE;
 import static io.foojay.api.util.Constants.QUOTES;
 import static io.foojay.api.util.Constants.SQUARE_BRACKET_CLOSE;
 import static io.foojay.api.util.Constants.SQUARE_BRACKET_OPEN;
-import static java.util.stream.Collectors.toSet;
 
 
 /**
@@ -265,77 +262,39 @@ public class MajorVersion implements Comparable<MajorVersion> {
 
     // Early Access only
     public Boolean isEarlyAccessOnly() {
-        return getVersions().stream().filter(semver -> ReleaseStatus.EA == semver.getReleaseStatus()).count() == getVersions().size();
+        final List<Semver> versions = getVersions();
+        return versions.stream().filter(semver -> ReleaseStatus.EA == semver.getReleaseStatus()).count() == versions.size();
     }
 
     // Versions
     public List<Semver> getVersions(final List<Scope> scopes, final Match match) {
-        final Match scopeMatch = (null == match || Match.NONE == match || Match.NOT_FOUND == match) ? Match.ANY : match;
-        return CacheManager.INSTANCE.pkgCache.getPkgs()
-                                             .stream()
-                                             .filter(pkg -> Match.ANY == scopeMatch ? Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().anyMatch(scopes.stream().collect(toSet())::contains) : Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).containsAll(scopes))
-                                             .filter(pkg -> majorVersion == pkg.getVersionNumber().getFeature().getAsInt())
-                                             .filter(pkg -> ReleaseStatus.GA == pkg.getReleaseStatus())
-                                             .map(pkg -> pkg.getSemver())
-                                             .collect(Collectors.toCollection(() -> new TreeSet<>(Comparator.comparing(Semver::toString)))).stream().sorted(Comparator.comparing(Semver::getVersionNumber).reversed()).collect(Collectors.toList());
+        return CacheManager.INSTANCE.getVersionCatalog().getVersions(majorVersion, scopes, match, ReleaseStatus.GA);
     }
     public List<Semver> getVersions() {
         return getVersions(BuildScope.BUILD_OF_OPEN_JDK);
     }
     public List<Semver> getVersions(final BuildScope scope) {
-        return CacheManager.INSTANCE.pkgCache.getPkgs()
-                                             .stream()
-                                             .filter(pkg -> scope == BuildScope.BUILD_OF_OPEN_JDK ? Distro.getDistributionsBasedOnOpenJDK().contains(pkg.getDistribution().getDistro()) : Distro.getDistributionsBasedOnGraalVm().contains(pkg.getDistribution().getDistro()))
-                                             .filter(pkg -> majorVersion == pkg.getVersionNumber().getFeature().getAsInt())
-                                             .filter(pkg -> ReleaseStatus.GA == pkg.getReleaseStatus())
-                                             .map(pkg -> pkg.getSemver())
-                                             .collect(Collectors.toCollection(() -> new TreeSet<>(Comparator.comparing(Semver::toString)))).stream()
-                                             .sorted(Comparator.comparing(Semver::getVersionNumber).reversed())
-                                             .collect(Collectors.toList());
+        return CacheManager.INSTANCE.getVersionCatalog().getVersions(majorVersion, scope, ReleaseStatus.GA);
     }
 
     public List<Semver> getVersionsOnlyEarlyAccess(final List<Scope> scopes, final Match match) {
-        final Match scopeMatch = (null == match || Match.NONE == match || Match.NOT_FOUND == match) ? Match.ANY : match;
-        return CacheManager.INSTANCE.pkgCache.getPkgs()
-                                             .stream()
-                                             .filter(pkg -> Match.ANY == scopeMatch ? Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().anyMatch(scopes.stream().collect(toSet())::contains) : Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).containsAll(scopes))
-                                             .filter(pkg -> majorVersion == pkg.getVersionNumber().getFeature().getAsInt())
-                                             .filter(pkg -> ReleaseStatus.EA == pkg.getReleaseStatus())
-                                             .map(pkg -> pkg.getSemver())
-                                             .collect(Collectors.toCollection(() -> new TreeSet<>(Comparator.comparing(Semver::toString)))).stream().sorted(Comparator.comparing(Semver::getVersionNumber).reversed()).collect(Collectors.toList());
+        return CacheManager.INSTANCE.getVersionCatalog().getVersions(majorVersion, scopes, match, ReleaseStatus.EA);
     }
     public List<Semver> getVersionsOnlyEarlyAccess() {
         return getVersionsOnlyEarlyAccess(BuildScope.BUILD_OF_OPEN_JDK);
     }
     public List<Semver> getVersionsOnlyEarlyAccess(final BuildScope scope) {
-        return CacheManager.INSTANCE.pkgCache.getPkgs()
-                                             .stream()
-                                             .filter(pkg -> scope == BuildScope.BUILD_OF_OPEN_JDK ? Distro.getDistributionsBasedOnOpenJDK().contains(pkg.getDistribution().getDistro()) : Distro.getDistributionsBasedOnGraalVm().contains(pkg.getDistribution().getDistro()))
-                                             .filter(pkg -> majorVersion == pkg.getVersionNumber().getFeature().getAsInt())
-                                             .filter(pkg -> ReleaseStatus.EA == pkg.getReleaseStatus())
-                                             .map(pkg -> pkg.getSemver())
-                                             .collect(Collectors.toCollection(() -> new TreeSet<>(Comparator.comparing(Semver::toString)))).stream().sorted(Comparator.comparing(Semver::getVersionNumber).reversed()).collect(Collectors.toList());
+        return CacheManager.INSTANCE.getVersionCatalog().getVersions(majorVersion, scope, ReleaseStatus.EA);
     }
 
     public List<Semver> getVersionsIncludingEarlyAccess(final List<Scope> scopes, final Match match) {
-        final Match scopeMatch = (null == match || Match.NONE == match || Match.NOT_FOUND == match) ? Match.ANY : match;
-        return CacheManager.INSTANCE.pkgCache.getPkgs()
-                                             .stream()
-                                             .filter(pkg -> Match.ANY == scopeMatch ? Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).stream().anyMatch(scopes.stream().collect(toSet())::contains) : Constants.SCOPE_LOOKUP.get(pkg.getDistribution().getDistro()).containsAll(scopes))
-                                             .filter(pkg -> majorVersion == pkg.getVersionNumber().getFeature().getAsInt())
-                                             .map(pkg -> pkg.getSemver())
-                                             .collect(Collectors.toCollection(() -> new TreeSet<>(Comparator.comparing(Semver::toString)))).stream().sorted(Comparator.comparing(Semver::getVersionNumber).reversed()).collect(Collectors.toList());
+        return CacheManager.INSTANCE.getVersionCatalog().getVersions(majorVersion, scopes, match, ReleaseStatus.NONE);
     }
     public List<Semver> getVersionsIncludingEarlyAccess() {
         return getVersionsIncludingEarlyAccess(BuildScope.BUILD_OF_OPEN_JDK);
     }
     public List<Semver> getVersionsIncludingEarlyAccess(final BuildScope scope) {
-        return CacheManager.INSTANCE.pkgCache.getPkgs()
-                                             .stream()
-                                             .filter(pkg -> scope == BuildScope.BUILD_OF_OPEN_JDK ? Distro.getDistributionsBasedOnOpenJDK().contains(pkg.getDistribution().getDistro()) : Distro.getDistributionsBasedOnGraalVm().contains(pkg.getDistribution().getDistro()))
-                                             .filter(pkg -> majorVersion == pkg.getVersionNumber().getFeature().getAsInt())
-                                             .map(pkg -> pkg.getSemver())
-                                             .collect(Collectors.toCollection(() -> new TreeSet<>(Comparator.comparing(Semver::toString)))).stream().sorted(Comparator.comparing(Semver::getVersionNumber).reversed()).collect(Collectors.toList());
+        return CacheManager.INSTANCE.getVersionCatalog().getVersions(majorVersion, scope, ReleaseStatus.NONE);
     }
 
     public String toString(final boolean includingEarlyAccess, final BuildScope scope) {
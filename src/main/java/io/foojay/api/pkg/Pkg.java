@@ -39,10 +39,14 @@ import eu.hansolo.jdktools.versioning.VersionNumber;
 import io.foojay.api.distribution.Distribution;
 import io.foojay.api.util.Constants;
 import io.foojay.api.util.Helper;
+import io.foojay.api.util.VersionKey;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
@@ -71,6 +75,9 @@ import static io.foojay.api.util.Constants.SQUARE_BRACKET_OPEN;
 
 
 public class Pkg {
+    /** Order of packages in all responses, distribution name descending then semver descending */
+    public static final Comparator<Pkg> DEFAULT_ORDER = Comparator.comparing(Pkg::getDistributionName).reversed().thenComparing(Comparator.comparing(Pkg::getSemver).reversed());
+
     private             Distribution    distribution;
     private             VersionNumber   versionNumber;
     private             VersionNumber   javaVersion;
@@ -106,6 +113,12 @@ public class Pkg {
     private             Boolean         urlValid;
     private             long            size;
     private             Set<Feature>    features;
+    // Memoized values that depend on the identity fields (see resetIdentity())
+    private volatile    String          id;
+    private volatile    int             hash;
+    private volatile    List<Object>    keyExceptUpdate;
+    private volatile    List<Object>    keyExceptJavaFXAndPackageType;
+    private volatile    long            versionKey = Long.MIN_VALUE;
 
 
     public Pkg() {
@@ -153,67 +166,55 @@ public class Pkg {
         this.semver               = versionNumber.getFeature().isPresent() ? Semver.fromText(versionNumber.toString()).getSemver1() : new Semver(versionNumber);
     }
     public Pkg(final String jsonText) {
-        if (null == jsonText || jsonText.isEmpty()) { throw new IllegalArgumentException("Json text cannot be null or empty"); }
-        final Gson       gson = new Gson();
-        final JsonObject json = gson.fromJson(jsonText, JsonObject.class);
-
-        final Distro distro       = Distro.fromText(json.get(PkgField.DISTRIBUTION.fieldName()).getAsString());
+        this(jsonValues(jsonText));
+    }
+    /**
+     * Creates a package from the given field values, missing optional fields get the same defaults as in Pkg(String)
+     * @param values Values of the fields as stored in the database (FULL_COMPRESSED layout)
+     */
+    Pkg(final FieldValues values) {
+        final Distro distro       = Distro.fromText(values.getString(PkgField.DISTRIBUTION));
         this.distribution         = distro.get();
-        this.versionNumber        = VersionNumber.fromText(json.get(PkgField.JAVA_VERSION.fieldName()).getAsString());
-        this.javaVersion          = VersionNumber.fromText(json.get(PkgField.JAVA_VERSION.fieldName()).getAsString());
-        this.distributionVersion  = VersionNumber.fromText(json.get(PkgField.DISTRIBUTION_VERSION.fieldName()).getAsString());
-        this.jdkVersion           = new MajorVersion(json.has(PkgField.JDK_VERSION.fieldName()) ? json.get(PkgField.JDK_VERSION.fieldName()).getAsInt() : this.javaVersion.getFeature().getAsInt());
-        this.latestBuildAvailable = json.has(PkgField.LATEST_BUILD_AVAILABLE.fieldName()) ? json.get(PkgField.LATEST_BUILD_AVAILABLE.fieldName()).getAsBoolean() : Boolean.FALSE;
-        this.architecture         = Architecture.fromText(json.get(PkgField.ARCHITECTURE.fieldName()).getAsString());
+        this.versionNumber        = VersionNumber.fromText(values.getString(PkgField.JAVA_VERSION));
+        this.javaVersion          = VersionNumber.fromText(values.getString(PkgField.JAVA_VERSION));
+        this.distributionVersion  = VersionNumber.fromText(values.getString(PkgField.DISTRIBUTION_VERSION));
+        this.jdkVersion           = new MajorVersion(values.has(PkgField.JDK_VERSION) ? values.getInt(PkgField.JDK_VERSION) : this.javaVersion.getFeature().getAsInt());
+        this.latestBuildAvailable = values.has(PkgField.LATEST_BUILD_AVAILABLE) ? values.getBoolean(PkgField.LATEST_BUILD_AVAILABLE) : Boolean.FALSE;
+        this.architecture         = Architecture.fromText(values.getString(PkgField.ARCHITECTURE));
         this.bitness              = this.architecture.getBitness();
-        this.fpu                  = json.has(PkgField.FPU.fieldName()) ? FPU.fromText(json.get(PkgField.FPU.fieldName()).getAsString()) : FPU.UNKNOWN;
-        this.operatingSystem      = OperatingSystem.fromText(json.get(PkgField.OPERATING_SYSTEM.fieldName()).getAsString());
-        this.libCType             = LibCType.fromText(json.get(PkgField.LIB_C_TYPE.fieldName()).getAsString());
-        this.packageType          = PackageType.fromText(json.get(PkgField.PACKAGE_TYPE.fieldName()).getAsString());
-        this.releaseStatus        = ReleaseStatus.fromText(json.get(PkgField.RELEASE_STATUS.fieldName()).getAsString());
-        this.termOfSupport        = TermOfSupport.fromText(json.get(PkgField.TERM_OF_SUPPORT.fieldName()).getAsString());
-        this.javafxBundled        = json.get(PkgField.JAVAFX_BUNDLED.fieldName()).getAsBoolean();
-        this.directlyDownloadable = json.has(PkgField.DIRECTLY_DOWNLOADABLE.fieldName()) ? json.get(PkgField.DIRECTLY_DOWNLOADABLE.fieldName()).getAsBoolean() : Boolean.TRUE;
+        this.fpu                  = values.has(PkgField.FPU) ? FPU.fromText(values.getString(PkgField.FPU)) : FPU.UNKNOWN;
+        this.operatingSystem      = OperatingSystem.fromText(values.getString(PkgField.OPERATING_SYSTEM));
+        this.libCType             = LibCType.fromText(values.getString(PkgField.LIB_C_TYPE));
+        this.packageType          = PackageType.fromText(values.getString(PkgField.PACKAGE_TYPE));
+        this.releaseStatus        = ReleaseStatus.fromText(values.getString(PkgField.RELEASE_STATUS));
+        this.termOfSupport        = TermOfSupport.fromText(values.getString(PkgField.TERM_OF_SUPPORT));
+        this.javafxBundled        = values.getBoolean(PkgField.JAVAFX_BUNDLED);
+        this.directlyDownloadable = values.has(PkgField.DIRECTLY_DOWNLOADABLE) ? values.getBoolean(PkgField.DIRECTLY_DOWNLOADABLE) : Boolean.TRUE;
         this.headless             = Boolean.FALSE;
-        this.filename             = json.get(PkgField.FILENAME.fieldName()).getAsString();
-        this.archiveType          = json.get(PkgField.ARCHIVE_TYPE.fieldName()).getAsString().isEmpty() ? Helper.fetchArchiveType(this.filename) : ArchiveType.fromText(json.get(PkgField.ARCHIVE_TYPE.fieldName()).getAsString());
-        this.directDownloadUri    = json.get(PkgField.DIRECT_DOWNLOAD_URI.fieldName()).getAsString();
-        this.downloadSiteUri      = json.get(PkgField.DOWNLOAD_SITE_URI.fieldName()).getAsString();
-        this.signatureUri         = json.has(PkgField.SIGNATURE_URI.fieldName()) ? json.get(PkgField.SIGNATURE_URI.fieldName()).getAsString() : "";
-        this.checksumUri          = json.has(PkgField.CHECKSUM_URI.fieldName()) ? json.get(PkgField.CHECKSUM_URI.fieldName()).getAsString() : "";
-        this.checksum             = json.has(PkgField.CHECKSUM.fieldName()) ? json.get(PkgField.CHECKSUM.fieldName()).getAsString() : "";
-        this.checksumType         = json.has(PkgField.CHECKSUM_TYPE.fieldName()) ? HashAlgorithm.fromText(json.get(PkgField.CHECKSUM_TYPE.fieldName()).getAsString()) : HashAlgorithm.NONE;
-        this.semver               = Semver.fromText(json.get(PkgField.JAVA_VERSION.fieldName()).getAsString()).getSemver1();
-        this.freeUseInProduction  = json.has(PkgField.FREE_USE_IN_PROD.fieldName()) ? json.get(PkgField.FREE_USE_IN_PROD.fieldName()).getAsBoolean() : Boolean.FALSE;
-        this.tckTested            = json.has(PkgField.TCK_TESTED.fieldName()) ? Verification.fromText(json.get(PkgField.TCK_TESTED.fieldName()).getAsString()) : Verification.UNKNOWN;
-        this.tckCertUri           = json.has(PkgField.TCK_CERT_URI.fieldName()) ? json.get(PkgField.TCK_CERT_URI.fieldName()).getAsString() : "";
-        this.aqavitCertified      = json.has(PkgField.AQAVIT_CERTIFIED.fieldName()) ? Verification.fromText(json.get(PkgField.AQAVIT_CERTIFIED.fieldName()).getAsString()) : Verification.UNKNOWN;
-        this.aqavitCertUri        = json.has(PkgField.AQAVIT_CERT_URI.fieldName()) ? json.get(PkgField.AQAVIT_CERT_URI.fieldName()).getAsString() : "";
-        this.validatedAt          = json.has(PkgField.VALIDATED_AT.fieldName()) ? json.get(PkgField.VALIDATED_AT.fieldName()).getAsLong() : Instant.now().getEpochSecond() - Constants.SECONDS_PER_MONTH;
-        this.urlValid             = json.has(PkgField.URL_VALID.fieldName()) ? json.get(PkgField.URL_VALID.fieldName()).getAsBoolean() : Boolean.TRUE;
-        this.size                 = json.has(PkgField.SIZE.fieldName()) ? json.get(PkgField.SIZE.fieldName()).getAsLong() : -1;
-        if (json.has(PkgField.FEATURE.fieldName())) {
-            features = new HashSet<>();
-            JsonArray featureArray = json.getAsJsonArray(PkgField.FEATURE.fieldName());
-            for (int i = 0 ; i < featureArray.size() ; i++) {
-                if (featureArray.get(i).isJsonObject()) {
-                    JsonObject featureObj = featureArray.get(i).getAsJsonObject();
-                    Feature feat = Feature.fromText(featureObj.get("name").getAsString());
-                    if (Feature.NOT_FOUND == feat || Feature.NONE == feat) {
-                        continue;
-                    }
-                    features.add(feat);
-                } else {
-                    String  featureString = featureArray.get(i).getAsString();
-                    Feature feat          = Feature.fromText(featureString);
-                    if (Feature.NOT_FOUND == feat || Feature.NONE == feat) {
-                        continue;
-                    }
-                    features.add(feat);
-                }
+        this.filename             = values.getString(PkgField.FILENAME);
+        this.archiveType          = values.getString(PkgField.ARCHIVE_TYPE).isEmpty() ? Helper.fetchArchiveType(this.filename) : ArchiveType.fromText(values.getString(PkgField.ARCHIVE_TYPE));
+        this.directDownloadUri    = values.getString(PkgField.DIRECT_DOWNLOAD_URI);
+        this.downloadSiteUri      = values.getString(PkgField.DOWNLOAD_SITE_URI);
+        this.signatureUri         = values.has(PkgField.SIGNATURE_URI) ? values.getString(PkgField.SIGNATURE_URI) : "";
+        this.checksumUri          = values.has(PkgField.CHECKSUM_URI) ? values.getString(PkgField.CHECKSUM_URI) : "";
+        this.checksum             = values.has(PkgField.CHECKSUM) ? values.getString(PkgField.CHECKSUM) : "";
+        this.checksumType         = values.has(PkgField.CHECKSUM_TYPE) ? HashAlgorithm.fromText(values.getString(PkgField.CHECKSUM_TYPE)) : HashAlgorithm.NONE;
+        this.semver               = Semver.fromText(values.getString(PkgField.JAVA_VERSION)).getSemver1();
+        this.freeUseInProduction  = values.has(PkgField.FREE_USE_IN_PROD) ? values.getBoolean(PkgField.FREE_USE_IN_PROD) : Boolean.FALSE;
+        this.tckTested            = values.has(PkgField.TCK_TESTED) ? Verification.fromText(values.getString(PkgField.TCK_TESTED)) : Verification.UNKNOWN;
+        this.tckCertUri           = values.has(PkgField.TCK_CERT_URI) ? values.getString(PkgField.TCK_CERT_URI) : "";
+        this.aqavitCertified      = values.has(PkgField.AQAVIT_CERTIFIED) ? Verification.fromText(values.getString(PkgField.AQAVIT_CERTIFIED)) : Verification.UNKNOWN;
+        this.aqavitCertUri        = values.has(PkgField.AQAVIT_CERT_URI) ? values.getString(PkgField.AQAVIT_CERT_URI) : "";
+        this.validatedAt          = values.has(PkgField.VALIDATED_AT) ? values.getLong(PkgField.VALIDATED_AT) : Instant.now().getEpochSecond() - Constants.SECONDS_PER_MONTH;
+        this.urlValid             = values.has(PkgField.URL_VALID) ? values.getBoolean(PkgField.URL_VALID) : Boolean.TRUE;
+        this.size                 = values.has(PkgField.SIZE) ? values.getLong(PkgField.SIZE) : -1;
+        this.features             = new HashSet<>();
+        if (values.has(PkgField.FEATURE)) {
+            for (String featureName : values.getFeatureNames()) {
+                Feature feat = Feature.fromText(featureName);
+                if (Feature.NOT_FOUND == feat || Feature.NONE == feat) { continue; }
+                features.add(feat);
             }
-        } else {
-            features = new HashSet<>();
         }
 
         if (ArchiveType.NOT_FOUND     == this.archiveType)     { this.archiveType     = ArchiveType.getFromFileName(this.filename); }
@@ -265,7 +266,7 @@ public class Pkg {
 
 
     public Distribution getDistribution() { return distribution; }
-    public void setDistribution(final Distribution distribution) { this.distribution = distribution; }
+    public void setDistribution(final Distribution distribution) { this.distribution = distribution; resetIdentity(); }
 
     public String getDistributionName() { return this.distribution.getDistro().getName(); }
 
@@ -275,6 +276,7 @@ public class Pkg {
     public void setVersionNumber(final VersionNumber versionNumber) {
         this.versionNumber = versionNumber;
         this.semver        = Semver.fromText(versionNumber.toString()).getSemver1();
+        resetIdentity();
     }
 
     public VersionNumber getJavaVersion() { return javaVersion; }
@@ -291,6 +293,20 @@ public class Pkg {
     public MajorVersion getJdkVersion() { return jdkVersion; }
     public void setJdkVersion(final MajorVersion jdkVersion) { this.jdkVersion = jdkVersion; }
 
+    /**
+     * Returns the version number packed into a long that sorts like the version number
+     * or VersionKey.NONE if the version number does not fit into a VersionKey.
+     * @return the version number packed into a long that sorts like the version number
+     */
+    public long getVersionKey() {
+        long key = this.versionKey;
+        if (Long.MIN_VALUE == key) {
+            key             = VersionKey.of(versionNumber);
+            this.versionKey = key;
+        }
+        return key;
+    }
+
     public OptionalInt getFeatureVersion() { return versionNumber.getFeature(); }
 
     public OptionalInt getInterimVersion() { return versionNumber.getInterim(); }
@@ -300,10 +316,10 @@ public class Pkg {
     public OptionalInt getPatchVersion() { return versionNumber.getPatch(); }
 
     public Architecture getArchitecture() { return architecture; }
-    public void setArchitecture(final Architecture architecture) { this.architecture = architecture; }
+    public void setArchitecture(final Architecture architecture) { this.architecture = architecture; resetIdentity(); }
 
     public Bitness getBitness() { return bitness; }
-    public void setBitness(final Bitness bitness) { this.bitness = bitness; }
+    public void setBitness(final Bitness bitness) { this.bitness = bitness; resetIdentity(); }
 
     public FPU getFPU() { return fpu; }
     public void setFPU(final FPU fpu) { this.fpu = fpu; }
@@ -312,41 +328,43 @@ public class Pkg {
     public void setOperatingSystem(final OperatingSystem operatingSystem) {
         this.operatingSystem = operatingSystem;
         this.libCType        = operatingSystem.getLibCType();
+        resetIdentity();
     }
 
     public LibCType getLibCType() { return libCType; }
-    public void setLibCType(final LibCType libCType) { this.libCType = libCType; }
+    public void setLibCType(final LibCType libCType) { this.libCType = libCType; resetIdentity(); }
 
     public PackageType getPackageType() { return packageType; }
-    public void setPackageType(final PackageType packageType) { this.packageType = packageType; }
+    public void setPackageType(final PackageType packageType) { this.packageType = packageType; resetIdentity(); }
 
     public ReleaseStatus getReleaseStatus() { return releaseStatus; }
     public void setReleaseStatus(final ReleaseStatus releaseStatus) {
         this.releaseStatus = releaseStatus;
         this.versionNumber.setReleaseStatus(releaseStatus);
         this.semver        = Semver.fromText(versionNumber.toString()).getSemver1();
+        resetIdentity();
     }
 
     public ArchiveType getArchiveType() { return archiveType; }
-    public void setArchiveType(final ArchiveType archiveType) { this.archiveType = archiveType; }
+    public void setArchiveType(final ArchiveType archiveType) { this.archiveType = archiveType; resetIdentity(); }
 
     public TermOfSupport getTermOfSupport() { return termOfSupport; }
-    public void setTermOfSupport(final TermOfSupport termOfSupport) { this.termOfSupport = termOfSupport; }
+    public void setTermOfSupport(final TermOfSupport termOfSupport) { this.termOfSupport = termOfSupport; resetIdentity(); }
 
     public Boolean isJavaFXBundled() { return javafxBundled; }
-    public void setJavaFXBundled(final Boolean fx) { this.javafxBundled = fx; }
+    public void setJavaFXBundled(final Boolean fx) { this.javafxBundled = fx; resetIdentity(); }
 
     public Boolean isDirectlyDownloadable() { return directlyDownloadable; }
-    public void setDirectlyDownloadable(final Boolean directlyDownloadable) { this.directlyDownloadable = directlyDownloadable; }
+    public void setDirectlyDownloadable(final Boolean directlyDownloadable) { this.directlyDownloadable = directlyDownloadable; resetIdentity(); }
 
     public boolean isHeadless() { return headless; }
     public void setHeadless(final boolean headless) { this.headless = headless; }
 
     public String getFilename() { return filename; }
-    public void setFileName(final String filename) { this.filename = filename; }
+    public void setFileName(final String filename) { this.filename = filename; resetIdentity(); }
 
     public String getDirectDownloadUri() { return directDownloadUri; }
-    public void setDirectDownloadUri(final String directDownloadUri) { this.directDownloadUri = directDownloadUri; }
+    public void setDirectDownloadUri(final String directDownloadUri) { this.directDownloadUri = directDownloadUri; resetIdentity(); }
 
     public String getDownloadSiteUri() { return downloadSiteUri; }
     public void setDownloadSiteUri(final String downloadSiteUri) { this.downloadSiteUri = downloadSiteUri; }
@@ -392,7 +410,12 @@ public class Pkg {
     public void setFeatures(final Set<Feature> features) { this.features = features; }
 
     public String getId() {
-        return directlyDownloadable ? Helper.getMD5(directDownloadUri.getBytes(StandardCharsets.UTF_8)) : Helper.getMD5(String.join("", directDownloadUri, filename).getBytes(StandardCharsets.UTF_8));
+        String id = this.id;
+        if (null == id) {
+            id      = directlyDownloadable ? Helper.getMD5(directDownloadUri.getBytes(StandardCharsets.UTF_8)) : Helper.getMD5(String.join("", directDownloadUri, filename).getBytes(StandardCharsets.UTF_8));
+            this.id = id;
+        }
+        return id;
     }
 
     /**
@@ -423,24 +446,24 @@ public class Pkg {
                                                   .append(INDENTED_QUOTES).append(PkgField.PACKAGE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(packageType.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.JAVAFX_BUNDLED).append(QUOTES).append(COLON).append(javafxBundled).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.DIRECTLY_DOWNLOADABLE).append(QUOTES).append(COLON).append(directlyDownloadable).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.FILENAME).append(QUOTES).append(COLON).append(QUOTES).append(filename).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.DIRECT_DOWNLOAD_URI).append(QUOTES).append(COLON).append(QUOTES).append(directDownloadUri).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.DOWNLOAD_SITE_URI).append(QUOTES).append(COLON).append(QUOTES).append(downloadSiteUri).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.SIGNATURE_URI).append(QUOTES).append(COLON).append(QUOTES).append(signatureUri).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.CHECKSUM_URI).append(QUOTES).append(COLON).append(QUOTES).append(checksumUri).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.CHECKSUM).append(QUOTES).append(COLON).append(QUOTES).append(checksum).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.FILENAME).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(filename)).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.DIRECT_DOWNLOAD_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(directDownloadUri)).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.DOWNLOAD_SITE_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(downloadSiteUri)).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.SIGNATURE_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(signatureUri)).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.CHECKSUM_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(checksumUri)).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.CHECKSUM).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(checksum)).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.CHECKSUM_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(checksumType.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.FREE_USE_IN_PROD).append(QUOTES).append(COLON).append(freeUseInProduction).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.TCK_TESTED).append(QUOTES).append(COLON).append(QUOTES).append(tckTested.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.TCK_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(tckCertUri).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.TCK_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(tckCertUri)).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.AQAVIT_CERTIFIED).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertified.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.AQAVIT_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertUri).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.AQAVIT_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(aqavitCertUri)).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.VALIDATED_AT).append(QUOTES).append(COLON).append(validatedAt).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.URL_VALID).append(QUOTES).append(COLON).append(urlValid).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.SIZE).append(QUOTES).append(COLON).append(size).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.FEATURE).append(QUOTES).append(COLON).append(features.stream().map(feature -> feature.toString()).collect(Collectors.joining(COMMA, SQUARE_BRACKET_OPEN, SQUARE_BRACKET_CLOSE))).append(NEW_LINE)
                                                   .append(CURLY_BRACKET_CLOSE)
-                                                  .toString().replaceAll("\\\\", "");
+                                                  .toString();
                     case REDUCED:
                         return new StringBuilder().append(CURLY_BRACKET_OPEN).append(NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.ID).append(QUOTES).append(COLON).append(QUOTES).append(getId()).append(QUOTES).append(COMMA_NEW_LINE)
@@ -460,13 +483,13 @@ public class Pkg {
                                                   .append(INDENTED_QUOTES).append(PkgField.PACKAGE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(packageType.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.JAVAFX_BUNDLED).append(QUOTES).append(COLON).append(javafxBundled).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.DIRECTLY_DOWNLOADABLE).append(QUOTES).append(COLON).append(directlyDownloadable).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.FILENAME).append(QUOTES).append(COLON).append(QUOTES).append(filename).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.FILENAME).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(filename)).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.EPHEMERAL_ID).append(QUOTES).append(COLON).append(QUOTES).append(getId()).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.FREE_USE_IN_PROD).append(QUOTES).append(COLON).append(freeUseInProduction).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.TCK_TESTED).append(QUOTES).append(COLON).append(QUOTES).append(tckTested.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.TCK_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(tckCertUri).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.TCK_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(tckCertUri)).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.AQAVIT_CERTIFIED).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertified.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.AQAVIT_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertUri).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.AQAVIT_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(aqavitCertUri)).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.SIZE).append(QUOTES).append(COLON).append(size).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.LINKS).append(QUOTES).append(COLON).append(CURLY_BRACKET_OPEN).append(NEW_LINE)
                                                   .append(INDENT).append(INDENT).append(QUOTES).append(PkgField.DOWNLOAD).append(QUOTES).append(COLON).append(QUOTES).append(BASE_URL).append(SLASH).append("v").append(API_VERSION).append("/").append(ENDPOINT_EPHEMERAL_IDS).append("/").append(getId()).append(QUOTES).append(COMMA_NEW_LINE)
@@ -474,7 +497,7 @@ public class Pkg {
                                                   .append(INDENT).append(CURLY_BRACKET_CLOSE).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.FEATURE).append(QUOTES).append(COLON).append(features.stream().map(feature -> feature.toString()).collect(Collectors.joining(COMMA, SQUARE_BRACKET_OPEN, SQUARE_BRACKET_CLOSE))).append(NEW_LINE)
                                                   .append(CURLY_BRACKET_CLOSE)
-                                                  .toString().replaceAll("\\\\", "");
+                                                  .toString();
                     case REDUCED_ENRICHED:
                         return new StringBuilder().append(CURLY_BRACKET_OPEN).append(NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.ID).append(QUOTES).append(COLON).append(QUOTES).append(getId()).append(QUOTES).append(COMMA_NEW_LINE)
@@ -499,13 +522,13 @@ public class Pkg {
                                                   .append(INDENTED_QUOTES).append(PkgField.PACKAGE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(packageType.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.JAVAFX_BUNDLED).append(QUOTES).append(COLON).append(javafxBundled).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.DIRECTLY_DOWNLOADABLE).append(QUOTES).append(COLON).append(directlyDownloadable).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.FILENAME).append(QUOTES).append(COLON).append(QUOTES).append(filename).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.FILENAME).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(filename)).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.EPHEMERAL_ID).append(QUOTES).append(COLON).append(QUOTES).append(getId()).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.FREE_USE_IN_PROD).append(QUOTES).append(COLON).append(freeUseInProduction).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.TCK_TESTED).append(QUOTES).append(COLON).append(QUOTES).append(tckTested.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.TCK_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(tckCertUri).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.TCK_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(tckCertUri)).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.AQAVIT_CERTIFIED).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertified.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.AQAVIT_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertUri).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.AQAVIT_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(aqavitCertUri)).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.SIZE).append(QUOTES).append(COLON).append(size).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.LINKS).append(QUOTES).append(COLON).append(CURLY_BRACKET_OPEN).append(NEW_LINE)
                                                   .append(INDENT).append(INDENT).append(QUOTES).append(PkgField.DOWNLOAD).append(QUOTES).append(COLON).append(QUOTES).append(BASE_URL).append(SLASH).append("v").append(API_VERSION).append("/").append(ENDPOINT_EPHEMERAL_IDS).append("/").append(getId()).append(QUOTES).append(COMMA_NEW_LINE)
@@ -513,119 +536,9 @@ public class Pkg {
                                                   .append(INDENT).append(CURLY_BRACKET_CLOSE).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.FEATURE).append(QUOTES).append(COLON).append(features.stream().map(feature -> feature.toString()).collect(Collectors.joining(COMMA, SQUARE_BRACKET_OPEN, SQUARE_BRACKET_CLOSE))).append(NEW_LINE)
                                                   .append(CURLY_BRACKET_CLOSE)
-                                                  .toString().replaceAll("\\\\", "");
-                    case FULL_COMPRESSED:
-                        return new StringBuilder().append(CURLY_BRACKET_OPEN)
-                                                  .append(QUOTES).append(PkgField.ID).append(QUOTES).append(COLON).append(QUOTES).append(getId()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.ARCHIVE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(archiveType.getUiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DISTRIBUTION).append(QUOTES).append(COLON).append(QUOTES).append(distribution.getDistro().getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.MAJOR_VERSION).append(QUOTES).append(COLON).append(versionNumber.getFeature().getAsInt()).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JAVA_VERSION).append(QUOTES).append(COLON).append(QUOTES).append(semver).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DISTRIBUTION_VERSION).append(QUOTES).append(COLON).append(QUOTES).append(distributionVersion.toString(OutputFormat.REDUCED_COMPRESSED, false, false)).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JDK_VERSION).append(QUOTES).append(COLON).append(jdkVersion.getAsInt()).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.LATEST_BUILD_AVAILABLE).append(QUOTES).append(COLON).append(null == latestBuildAvailable ? false : latestBuildAvailable).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.RELEASE_STATUS).append(QUOTES).append(COLON).append(QUOTES).append(releaseStatus.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TERM_OF_SUPPORT).append(QUOTES).append(COLON).append(QUOTES).append(termOfSupport.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.OPERATING_SYSTEM).append(QUOTES).append(COLON).append(QUOTES).append(operatingSystem.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.LIB_C_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(libCType.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.ARCHITECTURE).append(QUOTES).append(COLON).append(QUOTES).append(architecture.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FPU).append(QUOTES).append(COLON).append(QUOTES).append(fpu.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.PACKAGE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(packageType.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JAVAFX_BUNDLED).append(QUOTES).append(COLON).append(javafxBundled).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DIRECTLY_DOWNLOADABLE).append(QUOTES).append(COLON).append(directlyDownloadable).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FILENAME).append(QUOTES).append(COLON).append(QUOTES).append(filename).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DIRECT_DOWNLOAD_URI).append(QUOTES).append(COLON).append(QUOTES).append(directDownloadUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DOWNLOAD_SITE_URI).append(QUOTES).append(COLON).append(QUOTES).append(downloadSiteUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.SIGNATURE_URI).append(QUOTES).append(COLON).append(QUOTES).append(signatureUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.CHECKSUM_URI).append(QUOTES).append(COLON).append(QUOTES).append(checksumUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.CHECKSUM).append(QUOTES).append(COLON).append(QUOTES).append(checksum).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.CHECKSUM_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(checksumType.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FREE_USE_IN_PROD).append(QUOTES).append(COLON).append(freeUseInProduction).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TCK_TESTED).append(QUOTES).append(COLON).append(QUOTES).append(tckTested.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TCK_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(tckCertUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.AQAVIT_CERTIFIED).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertified.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.AQAVIT_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.VALIDATED_AT).append(QUOTES).append(COLON).append(validatedAt).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.URL_VALID).append(QUOTES).append(COLON).append(urlValid).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.SIZE).append(QUOTES).append(COLON).append(size).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FEATURE).append(QUOTES).append(COLON).append(features.stream().map(feature -> feature.toString()).collect(Collectors.joining(COMMA, SQUARE_BRACKET_OPEN, SQUARE_BRACKET_CLOSE)))
-                                                  .append(CURLY_BRACKET_CLOSE)
-                                                  .toString().replaceAll("\\\\", "");
-                    case REDUCED_ENRICHED_COMPRESSED:
-                        return new StringBuilder().append(CURLY_BRACKET_OPEN)
-                                                  .append(QUOTES).append(PkgField.ID).append(QUOTES).append(COLON).append(QUOTES).append(getId()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.ARCHIVE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(archiveType.getUiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DISTRIBUTION).append(QUOTES).append(COLON).append(QUOTES).append(distribution.getDistro().getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.MAJOR_VERSION).append(QUOTES).append(COLON).append(versionNumber.getFeature().getAsInt()).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JAVA_VERSION).append(QUOTES).append(COLON).append(QUOTES).append(semver).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DISTRIBUTION_VERSION).append(QUOTES).append(COLON).append(QUOTES).append(distributionVersion.toString(OutputFormat.REDUCED_COMPRESSED, false, false)).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JDK_VERSION).append(QUOTES).append(COLON).append(jdkVersion.getAsInt()).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FEATURE_VERSION).append(QUOTES).append(COLON).append(versionNumber.getFeature().isPresent() ? versionNumber.getFeature().getAsInt() : 0).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.INTERIM_VERSION).append(QUOTES).append(COLON).append(versionNumber.getInterim().isPresent() ? versionNumber.getInterim().getAsInt() : 0).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.UPDATE_VERSION).append(QUOTES).append(COLON).append(versionNumber.getUpdate().isPresent() ? versionNumber.getUpdate().getAsInt() : 0).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.PATCH_VERSION).append(QUOTES).append(COLON).append(versionNumber.getPatch().isPresent() ? versionNumber.getPatch().getAsInt() : 0).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.BUILD_VERSION).append(QUOTES).append(COLON).append(versionNumber.getBuild().isPresent() ? versionNumber.getBuild().getAsInt() : 0).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.LATEST_BUILD_AVAILABLE).append(QUOTES).append(COLON).append(null == latestBuildAvailable ? false : latestBuildAvailable).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.RELEASE_STATUS).append(QUOTES).append(COLON).append(QUOTES).append(releaseStatus.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TERM_OF_SUPPORT).append(QUOTES).append(COLON).append(QUOTES).append(termOfSupport.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.OPERATING_SYSTEM).append(QUOTES).append(COLON).append(QUOTES).append(operatingSystem.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.LIB_C_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(libCType.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.ARCHITECTURE).append(QUOTES).append(COLON).append(QUOTES).append(architecture.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FPU).append(QUOTES).append(COLON).append(QUOTES).append(fpu.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.PACKAGE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(packageType.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JAVAFX_BUNDLED).append(QUOTES).append(COLON).append(javafxBundled).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DIRECTLY_DOWNLOADABLE).append(QUOTES).append(COLON).append(directlyDownloadable).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FILENAME).append(QUOTES).append(COLON).append(QUOTES).append(filename).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.EPHEMERAL_ID).append(QUOTES).append(COLON).append(QUOTES).append(getId()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.LINKS).append(QUOTES).append(COLON).append(CURLY_BRACKET_OPEN).append(NEW_LINE)
-                                                  .append(QUOTES).append(PkgField.DOWNLOAD).append(QUOTES).append(COLON).append(QUOTES).append(BASE_URL).append(SLASH).append("v").append(API_VERSION).append("/").append(ENDPOINT_EPHEMERAL_IDS).append("/").append(getId()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.REDIRECT).append(QUOTES).append(COLON).append(QUOTES).append(BASE_URL).append(SLASH).append("v").append(API_VERSION).append("/").append(ENDPOINT_EPHEMERAL_IDS).append("/").append(getId()).append("/redirect").append(QUOTES)
-                                                  .append(CURLY_BRACKET_CLOSE).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FREE_USE_IN_PROD).append(QUOTES).append(COLON).append(freeUseInProduction).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TCK_TESTED).append(QUOTES).append(COLON).append(QUOTES).append(tckTested.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TCK_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(tckCertUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.AQAVIT_CERTIFIED).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertified.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.AQAVIT_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.SIZE).append(QUOTES).append(COLON).append(size).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FEATURE).append(QUOTES).append(COLON).append(features.stream().map(feature -> feature.toString()).collect(Collectors.joining(COMMA, SQUARE_BRACKET_OPEN, SQUARE_BRACKET_CLOSE)))
-                                                  .append(CURLY_BRACKET_CLOSE)
-                                                  .toString().replaceAll("\\\\", "");
-                    case REDUCED_COMPRESSED:
-                    case MINIMIZED:
+                                                  .toString();
                     default:
-                        return new StringBuilder().append(CURLY_BRACKET_OPEN)
-                                                  .append(QUOTES).append(PkgField.ID).append(QUOTES).append(COLON).append(QUOTES).append(getId()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.ARCHIVE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(archiveType.getUiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DISTRIBUTION).append(QUOTES).append(COLON).append(QUOTES).append(distribution.getDistro().getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.MAJOR_VERSION).append(QUOTES).append(COLON).append(versionNumber.getFeature().getAsInt()).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JAVA_VERSION).append(QUOTES).append(COLON).append(QUOTES).append(semver).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DISTRIBUTION_VERSION).append(QUOTES).append(COLON).append(QUOTES).append(distributionVersion.toString(OutputFormat.REDUCED_COMPRESSED, false, false)).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JDK_VERSION).append(QUOTES).append(COLON).append(jdkVersion.getAsInt()).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.LATEST_BUILD_AVAILABLE).append(QUOTES).append(COLON).append(null == latestBuildAvailable ? false : latestBuildAvailable).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.RELEASE_STATUS).append(QUOTES).append(COLON).append(QUOTES).append(releaseStatus.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TERM_OF_SUPPORT).append(QUOTES).append(COLON).append(QUOTES).append(termOfSupport.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.OPERATING_SYSTEM).append(QUOTES).append(COLON).append(QUOTES).append(operatingSystem.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.LIB_C_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(libCType.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.ARCHITECTURE).append(QUOTES).append(COLON).append(QUOTES).append(architecture.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FPU).append(QUOTES).append(COLON).append(QUOTES).append(fpu.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.PACKAGE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(packageType.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JAVAFX_BUNDLED).append(QUOTES).append(COLON).append(javafxBundled).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DIRECTLY_DOWNLOADABLE).append(QUOTES).append(COLON).append(directlyDownloadable).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FILENAME).append(QUOTES).append(COLON).append(QUOTES).append(filename).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.EPHEMERAL_ID).append(QUOTES).append(COLON).append(QUOTES).append(getId()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.LINKS).append(QUOTES).append(COLON).append(CURLY_BRACKET_OPEN).append(NEW_LINE)
-                                                  .append(QUOTES).append(PkgField.DOWNLOAD).append(QUOTES).append(COLON).append(QUOTES).append(BASE_URL).append(SLASH).append("v").append(API_VERSION).append("/").append(ENDPOINT_EPHEMERAL_IDS).append("/").append(getId()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.REDIRECT).append(QUOTES).append(COLON).append(QUOTES).append(BASE_URL).append(SLASH).append("v").append(API_VERSION).append("/").append(ENDPOINT_EPHEMERAL_IDS).append("/").append(getId()).append("/redirect").append(QUOTES)
-                                                  .append(CURLY_BRACKET_CLOSE).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FREE_USE_IN_PROD).append(QUOTES).append(COLON).append(freeUseInProduction).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TCK_TESTED).append(QUOTES).append(COLON).append(QUOTES).append(tckTested.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TCK_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(tckCertUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.AQAVIT_CERTIFIED).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertified.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.AQAVIT_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.SIZE).append(QUOTES).append(COLON).append(size).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FEATURE).append(QUOTES).append(COLON).append(features.stream().map(feature -> feature.toString()).collect(Collectors.joining(COMMA, SQUARE_BRACKET_OPEN, SQUARE_BRACKET_CLOSE)))
-                                                  .append(CURLY_BRACKET_CLOSE)
-                                                  .toString().replaceAll("\\\\", "");
+                        return new PkgJsonWriter().write(this, outputFormat, API_VERSION).toString();
                 }
             }
             default -> {
@@ -649,24 +562,24 @@ public class Pkg {
                                                   .append(INDENTED_QUOTES).append(PkgField.PACKAGE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(packageType.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.JAVAFX_BUNDLED).append(QUOTES).append(COLON).append(javafxBundled).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.DIRECTLY_DOWNLOADABLE).append(QUOTES).append(COLON).append(directlyDownloadable).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.FILENAME).append(QUOTES).append(COLON).append(QUOTES).append(filename).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.DIRECT_DOWNLOAD_URI).append(QUOTES).append(COLON).append(QUOTES).append(directDownloadUri).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.DOWNLOAD_SITE_URI).append(QUOTES).append(COLON).append(QUOTES).append(downloadSiteUri).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.SIGNATURE_URI).append(QUOTES).append(COLON).append(QUOTES).append(signatureUri).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.CHECKSUM_URI).append(QUOTES).append(COLON).append(QUOTES).append(checksumUri).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.CHECKSUM).append(QUOTES).append(COLON).append(QUOTES).append(checksum).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.FILENAME).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(filename)).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.DIRECT_DOWNLOAD_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(directDownloadUri)).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.DOWNLOAD_SITE_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(downloadSiteUri)).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.SIGNATURE_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(signatureUri)).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.CHECKSUM_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(checksumUri)).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.CHECKSUM).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(checksum)).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.CHECKSUM_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(checksumType.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.FREE_USE_IN_PROD).append(QUOTES).append(COLON).append(freeUseInProduction).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.TCK_TESTED).append(QUOTES).append(COLON).append(QUOTES).append(tckTested.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.TCK_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(tckCertUri).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.TCK_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(tckCertUri)).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.AQAVIT_CERTIFIED).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertified.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.AQAVIT_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertUri).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.AQAVIT_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(aqavitCertUri)).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.VALIDATED_AT).append(QUOTES).append(COLON).append(validatedAt).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.URL_VALID).append(QUOTES).append(COLON).append(urlValid).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.SIZE).append(QUOTES).append(COLON).append(size).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.FEATURE).append(QUOTES).append(COLON).append(features.stream().map(feature -> feature.toString()).collect(Collectors.joining(COMMA, SQUARE_BRACKET_OPEN, SQUARE_BRACKET_CLOSE))).append(NEW_LINE)
                                                   .append(CURLY_BRACKET_CLOSE)
-                                                  .toString().replaceAll("\\\\", "");
+                                                  .toString();
                     case REDUCED:
                         return new StringBuilder().append(CURLY_BRACKET_OPEN).append(NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.ID).append(QUOTES).append(COLON).append(QUOTES).append(getId()).append(QUOTES).append(COMMA_NEW_LINE)
@@ -686,12 +599,12 @@ public class Pkg {
                                                   .append(INDENTED_QUOTES).append(PkgField.PACKAGE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(packageType.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.JAVAFX_BUNDLED).append(QUOTES).append(COLON).append(javafxBundled).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.DIRECTLY_DOWNLOADABLE).append(QUOTES).append(COLON).append(directlyDownloadable).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.FILENAME).append(QUOTES).append(COLON).append(QUOTES).append(filename).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.FILENAME).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(filename)).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.FREE_USE_IN_PROD).append(QUOTES).append(COLON).append(freeUseInProduction).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.TCK_TESTED).append(QUOTES).append(COLON).append(QUOTES).append(tckTested.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.TCK_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(tckCertUri).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.TCK_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(tckCertUri)).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.AQAVIT_CERTIFIED).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertified.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.AQAVIT_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertUri).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.AQAVIT_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(aqavitCertUri)).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.SIZE).append(QUOTES).append(COLON).append(size).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.LINKS).append(QUOTES).append(COLON).append(CURLY_BRACKET_OPEN).append(NEW_LINE)
                                                   .append(INDENT).append(INDENT).append(QUOTES).append(PkgField.DOWNLOAD).append(QUOTES).append(COLON).append(QUOTES).append(BASE_URL).append(SLASH).append("v").append(API_VERSION).append("/").append(ENDPOINT_IDS).append("/").append(getId()).append(QUOTES).append(COMMA_NEW_LINE)
@@ -699,7 +612,7 @@ public class Pkg {
                                                   .append(INDENT).append(CURLY_BRACKET_CLOSE).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.FEATURE).append(QUOTES).append(COLON).append(features.stream().map(feature -> feature.toString()).collect(Collectors.joining(COMMA, SQUARE_BRACKET_OPEN, SQUARE_BRACKET_CLOSE))).append(NEW_LINE)
                                                   .append(CURLY_BRACKET_CLOSE)
-                                                  .toString().replaceAll("\\\\", "");
+                                                  .toString();
                     case REDUCED_ENRICHED:
                         return new StringBuilder().append(CURLY_BRACKET_OPEN).append(NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.ID).append(QUOTES).append(COLON).append(QUOTES).append(getId()).append(QUOTES).append(COMMA_NEW_LINE)
@@ -724,12 +637,12 @@ public class Pkg {
                                                   .append(INDENTED_QUOTES).append(PkgField.PACKAGE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(packageType.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.JAVAFX_BUNDLED).append(QUOTES).append(COLON).append(javafxBundled).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.DIRECTLY_DOWNLOADABLE).append(QUOTES).append(COLON).append(directlyDownloadable).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.FILENAME).append(QUOTES).append(COLON).append(QUOTES).append(filename).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.FILENAME).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(filename)).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.FREE_USE_IN_PROD).append(QUOTES).append(COLON).append(freeUseInProduction).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.TCK_TESTED).append(QUOTES).append(COLON).append(QUOTES).append(tckTested.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.TCK_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(tckCertUri).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.TCK_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(tckCertUri)).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.AQAVIT_CERTIFIED).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertified.getApiString()).append(QUOTES).append(COMMA_NEW_LINE)
-                                                  .append(INDENTED_QUOTES).append(PkgField.AQAVIT_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertUri).append(QUOTES).append(COMMA_NEW_LINE)
+                                                  .append(INDENTED_QUOTES).append(PkgField.AQAVIT_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(PkgJsonWriter.escape(aqavitCertUri)).append(QUOTES).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.SIZE).append(QUOTES).append(COLON).append(size).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.LINKS).append(QUOTES).append(COLON).append(CURLY_BRACKET_OPEN).append(NEW_LINE)
                                                   .append(INDENT).append(INDENT).append(QUOTES).append(PkgField.DOWNLOAD).append(QUOTES).append(COLON).append(QUOTES).append(BASE_URL).append(SLASH).append("v").append(API_VERSION).append("/").append(ENDPOINT_IDS).append("/").append(getId()).append(QUOTES).append(COMMA_NEW_LINE)
@@ -737,138 +650,9 @@ public class Pkg {
                                                   .append(INDENT).append(CURLY_BRACKET_CLOSE).append(COMMA_NEW_LINE)
                                                   .append(INDENTED_QUOTES).append(PkgField.FEATURE).append(QUOTES).append(COLON).append(features.stream().map(feature -> feature.toString()).collect(Collectors.joining(COMMA, SQUARE_BRACKET_OPEN, SQUARE_BRACKET_CLOSE))).append(NEW_LINE)
                                                   .append(CURLY_BRACKET_CLOSE)
-                                                  .toString().replaceAll("\\\\", "");
-                    case FULL_COMPRESSED:
-                        return new StringBuilder().append(CURLY_BRACKET_OPEN)
-                                                  .append(QUOTES).append(PkgField.ID).append(QUOTES).append(COLON).append(QUOTES).append(getId()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.ARCHIVE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(archiveType.getUiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DISTRIBUTION).append(QUOTES).append(COLON).append(QUOTES).append(distribution.getDistro().getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.MAJOR_VERSION).append(QUOTES).append(COLON).append(versionNumber.getFeature().getAsInt()).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JAVA_VERSION).append(QUOTES).append(COLON).append(QUOTES).append(semver).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DISTRIBUTION_VERSION).append(QUOTES).append(COLON).append(QUOTES).append(distributionVersion.toString(OutputFormat.REDUCED_COMPRESSED, false, false)).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JDK_VERSION).append(QUOTES).append(COLON).append(jdkVersion.getAsInt()).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.LATEST_BUILD_AVAILABLE).append(QUOTES).append(COLON).append(null == latestBuildAvailable ? false : latestBuildAvailable).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.RELEASE_STATUS).append(QUOTES).append(COLON).append(QUOTES).append(releaseStatus.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TERM_OF_SUPPORT).append(QUOTES).append(COLON).append(QUOTES).append(termOfSupport.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.OPERATING_SYSTEM).append(QUOTES).append(COLON).append(QUOTES).append(operatingSystem.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.LIB_C_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(libCType.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.ARCHITECTURE).append(QUOTES).append(COLON).append(QUOTES).append(architecture.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FPU).append(QUOTES).append(COLON).append(QUOTES).append(fpu.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.PACKAGE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(packageType.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JAVAFX_BUNDLED).append(QUOTES).append(COLON).append(javafxBundled).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DIRECTLY_DOWNLOADABLE).append(QUOTES).append(COLON).append(directlyDownloadable).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FILENAME).append(QUOTES).append(COLON).append(QUOTES).append(filename).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DIRECT_DOWNLOAD_URI).append(QUOTES).append(COLON).append(QUOTES).append(directDownloadUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DOWNLOAD_SITE_URI).append(QUOTES).append(COLON).append(QUOTES).append(downloadSiteUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.SIGNATURE_URI).append(QUOTES).append(COLON).append(QUOTES).append(signatureUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.CHECKSUM_URI).append(QUOTES).append(COLON).append(QUOTES).append(checksumUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.CHECKSUM).append(QUOTES).append(COLON).append(QUOTES).append(checksum).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.CHECKSUM_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(checksumType.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FREE_USE_IN_PROD).append(QUOTES).append(COLON).append(freeUseInProduction).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TCK_TESTED).append(QUOTES).append(COLON).append(QUOTES).append(tckTested.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TCK_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(tckCertUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.AQAVIT_CERTIFIED).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertified.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.AQAVIT_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.VALIDATED_AT).append(QUOTES).append(COLON).append(validatedAt).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.URL_VALID).append(QUOTES).append(COLON).append(urlValid).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.SIZE).append(QUOTES).append(COLON).append(size).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FEATURE).append(QUOTES).append(COLON).append(features.stream().map(feature -> feature.toString()).collect(Collectors.joining(COMMA, SQUARE_BRACKET_OPEN, SQUARE_BRACKET_CLOSE)))
-                                                  .append(CURLY_BRACKET_CLOSE)
-                                                  .toString().replaceAll("\\\\", "");
-                    case REDUCED_ENRICHED_COMPRESSED:
-                        return new StringBuilder().append(CURLY_BRACKET_OPEN)
-                                                  .append(QUOTES).append(PkgField.ID).append(QUOTES).append(COLON).append(QUOTES).append(getId()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.ARCHIVE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(archiveType.getUiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DISTRIBUTION).append(QUOTES).append(COLON).append(QUOTES).append(distribution.getDistro().getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.MAJOR_VERSION).append(QUOTES).append(COLON).append(versionNumber.getFeature().getAsInt()).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JAVA_VERSION).append(QUOTES).append(COLON).append(QUOTES).append(semver).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DISTRIBUTION_VERSION).append(QUOTES).append(COLON).append(QUOTES).append(distributionVersion.toString(OutputFormat.REDUCED_COMPRESSED, false, false)).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JDK_VERSION).append(QUOTES).append(COLON).append(jdkVersion.getAsInt()).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FEATURE_VERSION).append(QUOTES).append(COLON).append(versionNumber.getFeature().isPresent() ? versionNumber.getFeature().getAsInt() : 0).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.INTERIM_VERSION).append(QUOTES).append(COLON).append(versionNumber.getInterim().isPresent() ? versionNumber.getInterim().getAsInt() : 0).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.UPDATE_VERSION).append(QUOTES).append(COLON).append(versionNumber.getUpdate().isPresent() ? versionNumber.getUpdate().getAsInt() : 0).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.PATCH_VERSION).append(QUOTES).append(COLON).append(versionNumber.getPatch().isPresent() ? versionNumber.getPatch().getAsInt() : 0).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.BUILD_VERSION).append(QUOTES).append(COLON).append(versionNumber.getBuild().isPresent() ? versionNumber.getBuild().getAsInt() : 0).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.LATEST_BUILD_AVAILABLE).append(QUOTES).append(COLON).append(null == latestBuildAvailable ? false : latestBuildAvailable).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.RELEASE_STATUS).append(QUOTES).append(COLON).append(QUOTES).append(releaseStatus.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TERM_OF_SUPPORT).append(QUOTES).append(COLON).append(QUOTES).append(termOfSupport.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.OPERATING_SYSTEM).append(QUOTES).append(COLON).append(QUOTES).append(operatingSystem.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.LIB_C_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(libCType.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.ARCHITECTURE).append(QUOTES).append(COLON).append(QUOTES).append(architecture.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FPU).append(QUOTES).append(COLON).append(QUOTES).append(fpu.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.PACKAGE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(packageType.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JAVAFX_BUNDLED).append(QUOTES).append(COLON).append(javafxBundled).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DIRECTLY_DOWNLOADABLE).append(QUOTES).append(COLON).append(directlyDownloadable).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FILENAME).append(QUOTES).append(COLON).append(QUOTES).append(filename).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.LINKS).append(QUOTES).append(COLON).append(CURLY_BRACKET_OPEN).append(NEW_LINE)
-                                                  .append(QUOTES).append(PkgField.DOWNLOAD).append(QUOTES).append(COLON).append(QUOTES).append(BASE_URL).append(SLASH).append("v").append(API_VERSION).append("/").append(ENDPOINT_IDS).append("/").append(getId()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.REDIRECT).append(QUOTES).append(COLON).append(QUOTES).append(BASE_URL).append(SLASH).append("v").append(API_VERSION).append("/").append(ENDPOINT_IDS).append("/").append(getId()).append("/redirect").append(QUOTES)
-                                                  .append(CURLY_BRACKET_CLOSE).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FREE_USE_IN_PROD).append(QUOTES).append(COLON).append(freeUseInProduction).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TCK_TESTED).append(QUOTES).append(COLON).append(QUOTES).append(tckTested.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TCK_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(tckCertUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.AQAVIT_CERTIFIED).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertified.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.AQAVIT_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.SIZE).append(QUOTES).append(COLON).append(size).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FEATURE).append(QUOTES).append(COLON).append(features.stream().map(feature -> feature.toString()).collect(Collectors.joining(COMMA, SQUARE_BRACKET_OPEN, SQUARE_BRACKET_CLOSE)))
-                                                  .append(CURLY_BRACKET_CLOSE)
-                                                  .toString().replaceAll("\\\\", "");
-                    case MINIMIZED:
-                        return new StringBuilder().append(CURLY_BRACKET_OPEN)
-                                                  .append(QUOTES).append(PkgField.ID).append(QUOTES).append(COLON).append(QUOTES).append(getId()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.ARCHIVE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(archiveType.getUiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DISTRIBUTION).append(QUOTES).append(COLON).append(QUOTES).append(distribution.getDistro().getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JDK_VERSION).append(QUOTES).append(COLON).append(jdkVersion.getAsInt()).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.MAJOR_VERSION).append(QUOTES).append(COLON).append(versionNumber.getFeature().getAsInt()).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JAVA_VERSION).append(QUOTES).append(COLON).append(QUOTES).append(semver).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.RELEASE_STATUS).append(QUOTES).append(COLON).append(QUOTES).append(releaseStatus.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.OPERATING_SYSTEM).append(QUOTES).append(COLON).append(QUOTES).append(operatingSystem.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.ARCHITECTURE).append(QUOTES).append(COLON).append(QUOTES).append(architecture.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.PACKAGE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(packageType.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JAVAFX_BUNDLED).append(QUOTES).append(COLON).append(javafxBundled).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DIRECTLY_DOWNLOADABLE).append(QUOTES).append(COLON).append(directlyDownloadable).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FILENAME).append(QUOTES).append(COLON).append(QUOTES).append(filename).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FREE_USE_IN_PROD).append(QUOTES).append(COLON).append(freeUseInProduction).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TCK_TESTED).append(QUOTES).append(COLON).append(QUOTES).append(tckTested.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TCK_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(tckCertUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.AQAVIT_CERTIFIED).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertified.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.AQAVIT_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertUri).append(QUOTES)
-                                                  .append(CURLY_BRACKET_CLOSE)
-                                                  .toString().replaceAll("\\\\", "");
-                    case REDUCED_COMPRESSED:
+                                                  .toString();
                     default:
-                        return new StringBuilder().append(CURLY_BRACKET_OPEN)
-                                                  .append(QUOTES).append(PkgField.ID).append(QUOTES).append(COLON).append(QUOTES).append(getId()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.ARCHIVE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(archiveType.getUiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DISTRIBUTION).append(QUOTES).append(COLON).append(QUOTES).append(distribution.getDistro().getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.MAJOR_VERSION).append(QUOTES).append(COLON).append(versionNumber.getFeature().getAsInt()).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JAVA_VERSION).append(QUOTES).append(COLON).append(QUOTES).append(semver).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DISTRIBUTION_VERSION).append(QUOTES).append(COLON).append(QUOTES).append(distributionVersion.toString(OutputFormat.REDUCED_COMPRESSED, false, false)).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JDK_VERSION).append(QUOTES).append(COLON).append(jdkVersion.getAsInt()).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.LATEST_BUILD_AVAILABLE).append(QUOTES).append(COLON).append(null == latestBuildAvailable ? false : latestBuildAvailable).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.RELEASE_STATUS).append(QUOTES).append(COLON).append(QUOTES).append(releaseStatus.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TERM_OF_SUPPORT).append(QUOTES).append(COLON).append(QUOTES).append(termOfSupport.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.OPERATING_SYSTEM).append(QUOTES).append(COLON).append(QUOTES).append(operatingSystem.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.LIB_C_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(libCType.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.ARCHITECTURE).append(QUOTES).append(COLON).append(QUOTES).append(architecture.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FPU).append(QUOTES).append(COLON).append(QUOTES).append(fpu.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.PACKAGE_TYPE).append(QUOTES).append(COLON).append(QUOTES).append(packageType.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.JAVAFX_BUNDLED).append(QUOTES).append(COLON).append(javafxBundled).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.DIRECTLY_DOWNLOADABLE).append(QUOTES).append(COLON).append(directlyDownloadable).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FILENAME).append(QUOTES).append(COLON).append(QUOTES).append(filename).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.LINKS).append(QUOTES).append(COLON).append(CURLY_BRACKET_OPEN).append(NEW_LINE)
-                                                  .append(QUOTES).append(PkgField.DOWNLOAD).append(QUOTES).append(COLON).append(QUOTES).append(BASE_URL).append(SLASH).append("v").append(API_VERSION).append("/").append(ENDPOINT_IDS).append("/").append(getId()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.REDIRECT).append(QUOTES).append(COLON).append(QUOTES).append(BASE_URL).append(SLASH).append("v").append(API_VERSION).append("/").append(ENDPOINT_IDS).append("/").append(getId()).append("/redirect").append(QUOTES)
-                                                  .append(CURLY_BRACKET_CLOSE).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FREE_USE_IN_PROD).append(QUOTES).append(COLON).append(freeUseInProduction).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TCK_TESTED).append(QUOTES).append(COLON).append(QUOTES).append(tckTested.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.TCK_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(tckCertUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.AQAVIT_CERTIFIED).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertified.getApiString()).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.AQAVIT_CERT_URI).append(QUOTES).append(COLON).append(QUOTES).append(aqavitCertUri).append(QUOTES).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.SIZE).append(QUOTES).append(COLON).append(size).append(COMMA)
-                                                  .append(QUOTES).append(PkgField.FEATURE).append(QUOTES).append(COLON).append(features.stream().map(feature -> feature.toString()).collect(Collectors.joining(COMMA, SQUARE_BRACKET_OPEN, SQUARE_BRACKET_CLOSE)))
-                                                  .append(CURLY_BRACKET_CLOSE)
-                                                  .toString().replaceAll("\\\\", "");
+                        return new PkgJsonWriter().write(this, outputFormat, API_VERSION).toString();
                 }
             }
         }
@@ -918,13 +702,14 @@ public class Pkg {
         if (pkg.getMajorVersion().getAsInt()  != getMajorVersion().getAsInt())  { diff.add(PkgField.MAJOR_VERSION); }
         if (pkg.getTermOfSupport()            != getTermOfSupport())            { diff.add(PkgField.TERM_OF_SUPPORT); }
         if (pkg.getFPU()                      != getFPU())                      { diff.add(PkgField.FPU); }
-        if (pkg.getFeatures().size()          != getFeatures().size())          { diff.add(PkgField.FEATURE); }
+        if (!pkg.getFeatures().equals(getFeatures()))                           { diff.add(PkgField.FEATURE); }
         if (pkg.getFreeUseInProduction()      != getFreeUseInProduction())      { diff.add(PkgField.FREE_USE_IN_PROD); }
         if (!pkg.getSignatureUri().equals(getSignatureUri()))                   { diff.add(PkgField.SIGNATURE_URI); }
         if (pkg.getSize()                     != getSize())                     { diff.add(PkgField.SIZE); }
         if (!pkg.getSemver().equals(getSemver()))                               { diff.add(PkgField.SEMVER); }
         if (pkg.getReleaseStatus()            != getReleaseStatus())            { diff.add(PkgField.RELEASE_STATUS); }
         if (!pkg.getDownloadSiteUri().equals(getDownloadSiteUri()))             { diff.add(PkgField.DOWNLOAD_SITE_URI); }
+        if (!pkg.isLatestBuildAvailable().equals(isLatestBuildAvailable()))     { diff.add(PkgField.LATEST_BUILD_AVAILABLE); }
 
         return diff;
     }
@@ -947,6 +732,35 @@ public class Pkg {
                !getId().equals(pkg.getId());
     }
 
+    /**
+     * Returns a key that is equal for all packages that only differ in their update version.
+     * Two packages with different ids are equalsExceptUpdate() if their keys are equal.
+     * @return a key that is equal for all packages that only differ in their update version
+     */
+    public List<Object> getKeyExceptUpdate() {
+        List<Object> key = this.keyExceptUpdate;
+        if (null == key) {
+            key                  = Collections.unmodifiableList(Arrays.asList(distribution, getFeatureVersion(), getInterimVersion(), architecture, operatingSystem, libCType, packageType, releaseStatus, archiveType, termOfSupport, javafxBundled, directlyDownloadable));
+            this.keyExceptUpdate = key;
+        }
+        return key;
+    }
+
+    /**
+     * Returns a key that is equal for all packages that only differ in javafx bundled and their java version.
+     * Two packages with different ids are equalsExceptJavaFXAndPackageType() if their keys are equal, their
+     * java versions compare to 0 and only one of them has javafx bundled.
+     * @return a key that is equal for all packages that only differ in javafx bundled and their java version
+     */
+    public List<Object> getKeyExceptJavaFXAndPackageType() {
+        List<Object> key = this.keyExceptJavaFXAndPackageType;
+        if (null == key) {
+            key                                = Collections.unmodifiableList(Arrays.asList(distribution, architecture, operatingSystem, libCType, packageType, releaseStatus, termOfSupport, directlyDownloadable));
+            this.keyExceptJavaFXAndPackageType = key;
+        }
+        return key;
+    }
+
     public boolean equalsExceptJavaFXAndPackageType(final Pkg pkg) {
         if (this.equals(pkg)) { return false; }
         if (null == pkg) { return false; }
@@ -984,10 +798,70 @@ public class Pkg {
     }
 
     @Override public int hashCode() {
-        return Objects.hash(distribution, versionNumber, architecture, bitness, operatingSystem, packageType, releaseStatus, archiveType, termOfSupport, javafxBundled, directlyDownloadable, filename, directDownloadUri);
+        int hash = this.hash;
+        if (0 == hash) {
+            hash      = Objects.hash(distribution, versionNumber, architecture, bitness, operatingSystem, packageType, releaseStatus, archiveType, termOfSupport, javafxBundled, directlyDownloadable, filename, directDownloadUri);
+            this.hash = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Resets the memoized id, hash code, grouping keys and version key, must be called by
+     * every setter that modifies a field which is part of them.
+     */
+    private void resetIdentity() {
+        this.id                            = null;
+        this.hash                          = 0;
+        this.keyExceptUpdate               = null;
+        this.keyExceptJavaFXAndPackageType = null;
+        this.versionKey                    = Long.MIN_VALUE;
     }
 
     @Override public String toString() {
         return toString(OutputFormat.REDUCED_COMPRESSED, API_VERSION_V2);
     }
+
+
+    private static FieldValues jsonValues(final String jsonText) {
+        if (null == jsonText || jsonText.isEmpty()) { throw new IllegalArgumentException("Json text cannot be null or empty"); }
+        final JsonObject json = new Gson().fromJson(jsonText, JsonObject.class);
+        return new FieldValues() {
+            @Override public boolean has(final PkgField field) { return json.has(field.fieldName()); }
+            @Override public String getString(final PkgField field) { return json.get(field.fieldName()).getAsString(); }
+            @Override public boolean getBoolean(final PkgField field) { return json.get(field.fieldName()).getAsBoolean(); }
+            @Override public int getInt(final PkgField field) { return json.get(field.fieldName()).getAsInt(); }
+            @Override public long getLong(final PkgField field) { return json.get(field.fieldName()).getAsLong(); }
+            @Override public List<String> getFeatureNames() {
+                final JsonArray    featureArray = json.getAsJsonArray(PkgField.FEATURE.fieldName());
+                final List<String> names        = new ArrayList<>(featureArray.size());
+                for (int i = 0 ; i < featureArray.size() ; i++) {
+                    names.add(featureArray.get(i).isJsonObject() ? featureArray.get(i).getAsJsonObject().get("name").getAsString() : featureArray.get(i).getAsString());
+                }
+                return names;
+            }
+        };
+    }
+
+
+    /**
+     * Read access to the stored field values of a package (json text or bson document)
+     */
+    interface FieldValues {
+        boolean has(PkgField field);
+
+        String getString(PkgField field);
+
+        boolean getBoolean(PkgField field);
+
+        int getInt(PkgField field);
+
+        long getLong(PkgField field);
+
+        /**
+         * Returns the names of the features, features can be stored as objects (with a name field) or as strings
+         * @return the names of the features
+         */
+        List<String> getFeatureNames();
+    }
 }
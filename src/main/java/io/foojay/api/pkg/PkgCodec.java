@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.pkg;
+
+import eu.hansolo.jdktools.util.OutputFormat;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Bson codec that maps packages directly from and to the documents of the packages collection.
+ * The documents have the same layout as the FULL_COMPRESSED json of a package (see PkgJsonWriter),
+ * but packages are read and written without creating and parsing json text in between.
+ * Packages that cannot be created from a document will be logged and decoded as null.
+ */
+public class PkgCodec implements Codec<Pkg> {
+    private static final Logger LOGGER       = LoggerFactory.getLogger(PkgCodec.class);
+    private static final String FIELD_OID    = "_id";
+    private static final String FEATURE_NAME = "name";
+    private static final String FEATURE_UI   = "ui_string";
+    private static final String FEATURE_API  = "api_string";
+
+
+    @Override public Pkg decode(final BsonReader reader, final DecoderContext decoderContext) {
+        final Map<String, Object> values = new HashMap<>();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            final String name = reader.readName();
+            if (FIELD_OID.equals(name)) {
+                reader.skipValue();
+            } else if (PkgField.FEATURE.fieldName().equals(name) && BsonType.ARRAY == reader.getCurrentBsonType()) {
+                values.put(name, readFeatureNames(reader));
+            } else {
+                final Object value = readValue(reader);
+                if (null != value) { values.put(name, value); }
+            }
+        }
+        reader.readEndDocument();
+
+        try {
+            return new Pkg(new MapValues(values));
+        } catch (Exception e) {
+            LOGGER.error("Error creating pkg from document with id {}. {}", values.get(PkgField.ID.fieldName()), e.getMessage());
+            return null;
+        }
+    }
+
+    @Override public void encode(final BsonWriter writer, final Pkg pkg, final EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        for (PkgField field : PkgJsonWriter.FULL_FIELDS) {
+            writer.writeName(field.fieldName());
+            switch(field) {
+                case ID                     -> writeString(writer, pkg.getId());
+                case ARCHIVE_TYPE           -> writeString(writer, pkg.getArchiveType().getUiString());
+                case DISTRIBUTION           -> writeString(writer, pkg.getDistribution().getDistro().getApiString());
+                case MAJOR_VERSION          -> writeNumber(writer, pkg.getVersionNumber().getFeature().getAsInt());
+                case JAVA_VERSION           -> writeString(writer, null == pkg.getSemver() ? null : pkg.getSemver().toString());
+                case DISTRIBUTION_VERSION   -> writeString(writer, pkg.getDistributionVersion().toString(OutputFormat.REDUCED_COMPRESSED, false, false));
+                case JDK_VERSION            -> writeNumber(writer, pkg.getJdkVersion().getAsInt());
+                case LATEST_BUILD_AVAILABLE -> writeBoolean(writer, pkg.isLatestBuildAvailable());
+                case RELEASE_STATUS         -> writeString(writer, pkg.getReleaseStatus().getApiString());
+                case TERM_OF_SUPPORT        -> writeString(writer, pkg.getTermOfSupport().getApiString());
+                case OPERATING_SYSTEM       -> writeString(writer, pkg.getOperatingSystem().getApiString());
+                case LIB_C_TYPE             -> writeString(writer, pkg.getLibCType().getApiString());
+                case ARCHITECTURE           -> writeString(writer, pkg.getArchitecture().getApiString());
+                case FPU                    -> writeString(writer, pkg.getFPU().getApiString());
+                case PACKAGE_TYPE           -> writeString(writer, pkg.getPackageType().getApiString());
+                case JAVAFX_BUNDLED         -> writeBoolean(writer, pkg.isJavaFXBundled());
+                case DIRECTLY_DOWNLOADABLE  -> writeBoolean(writer, pkg.isDirectlyDownloadable());
+                case FILENAME               -> writeString(writer, pkg.getFilename());
+                case DIRECT_DOWNLOAD_URI    -> writeString(writer, pkg.getDirectDownloadUri());
+                case DOWNLOAD_SITE_URI      -> writeString(writer, pkg.getDownloadSiteUri());
+                case SIGNATURE_URI          -> writeString(writer, pkg.getSignatureUri());
+                case CHECKSUM_URI           -> writeString(writer, pkg.getChecksumUri());
+                case CHECKSUM               -> writeString(writer, pkg.getChecksum());
+                case CHECKSUM_TYPE          -> writeString(writer, pkg.getChecksumType().getApiString());
+                case FREE_USE_IN_PROD       -> writeBoolean(writer, pkg.getFreeUseInProduction());
+                case TCK_TESTED             -> writeString(writer, pkg.getTckTested().getApiString());
+                case TCK_CERT_URI           -> writeString(writer, pkg.getTckCertUri());
+                case AQAVIT_CERTIFIED       -> writeString(writer, pkg.getAqavitCertified().getApiString());
+                case AQAVIT_CERT_URI        -> writeString(writer, pkg.getAqavitCertUri());
+                case VALIDATED_AT           -> writeNumber(writer, pkg.getValidatedAt());
+                case URL_VALID              -> writeBoolean(writer, pkg.isUrlValid());
+                case SIZE                   -> writeNumber(writer, pkg.getSize());
+                case FEATURE                -> writeFeatures(writer, pkg);
+                default                     -> throw new IllegalArgumentException("Field " + field + " is not part of the package document");
+            }
+        }
+        writer.writeEndDocument();
+    }
+
+    @Override public Class<Pkg> getEncoderClass() { return Pkg.class; }
+
+
+    private static Object readValue(final BsonReader reader) {
+        return switch(reader.getCurrentBsonType()) {
+            case STRING  -> reader.readString();
+            case BOOLEAN -> reader.readBoolean();
+            case INT32   -> reader.readInt32();
+            case INT64   -> reader.readInt64();
+            case DOUBLE  -> reader.readDouble();
+            default      -> {
+                reader.skipValue();
+                yield null;
+            }
+        };
+    }
+
+    private static List<String> readFeatureNames(final BsonReader reader) {
+        final List<String> featureNames = new ArrayList<>();
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            if (BsonType.STRING == reader.getCurrentBsonType()) {
+                featureNames.add(reader.readString());
+            } else if (BsonType.DOCUMENT == reader.getCurrentBsonType()) {
+                reader.readStartDocument();
+                while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                    if (FEATURE_NAME.equals(reader.readName()) && BsonType.STRING == reader.getCurrentBsonType()) {
+                        featureNames.add(reader.readString());
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.readEndDocument();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.readEndArray();
+        return featureNames;
+    }
+
+    private static void writeString(final BsonWriter writer, final String value) {
+        // Keeps the behaviour of the json writer that writes null values as "null"
+        writer.writeString(null == value ? "null" : value);
+    }
+
+    private static void writeBoolean(final BsonWriter writer, final Boolean value) {
+        if (null == value) {
+            writer.writeNull();
+        } else {
+            writer.writeBoolean(value);
+        }
+    }
+
+    // Numbers are stored with the smallest type that fits, the same way Document.parse() stored them before
+    private static void writeNumber(final BsonWriter writer, final long value) {
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            writer.writeInt32((int) value);
+        } else {
+            writer.writeInt64(value);
+        }
+    }
+
+    private static void writeFeatures(final BsonWriter writer, final Pkg pkg) {
+        writer.writeStartArray();
+        for (Feature feature : pkg.getFeatures()) {
+            writer.writeStartDocument();
+            writer.writeString(FEATURE_NAME, feature.name());
+            writer.writeString(FEATURE_UI, feature.getUiString());
+            writer.writeString(FEATURE_API, feature.getApiString());
+            writer.writeEndDocument();
+        }
+        writer.writeEndArray();
+    }
+
+
+    private record MapValues(Map<String, Object> values) implements Pkg.FieldValues {
+        @Override public boolean has(final PkgField field) { return values.containsKey(field.fieldName()); }
+
+        @Override public String getString(final PkgField field) { return get(field).toString(); }
+
+        @Override public boolean getBoolean(final PkgField field) {
+            final Object value = get(field);
+            return value instanceof Boolean ? (Boolean) value : Boolean.parseBoolean(value.toString());
+        }
+
+        @Override public int getInt(final PkgField field) {
+            final Object value = get(field);
+            return value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString());
+        }
+
+        @Override public long getLong(final PkgField field) {
+            final Object value = get(field);
+            return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(value.toString());
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override public List<String> getFeatureNames() {
+            final Object value = values.get(PkgField.FEATURE.fieldName());
+            return value instanceof List ? (List<String>) value : List.of();
+        }
+
+        private Object get(final PkgField field) {
+            final Object value = values.get(field.fieldName());
+            if (null == value) { throw new IllegalArgumentException("Document does not contain field " + field.fieldName()); }
+            return value;
+        }
+    }
+}
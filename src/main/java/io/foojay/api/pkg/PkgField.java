@@ -68,14 +68,22 @@ public enum PkgField {
     FEATURE("feature");
 
     private final String fieldName;
+    private final String jsonKey;
 
 
     PkgField(final String fieldName) {
         this.fieldName = fieldName;
+        this.jsonKey   = "\"" + fieldName + "\":";
     }
 
 
     public final String fieldName() { return fieldName; }
 
+    /**
+     * Returns the quoted field name followed by a colon (e.g. "id":) to be used as key in compressed json
+     * @return the quoted field name followed by a colon
+     */
+    public final String jsonKey() { return jsonKey; }
+
     @Override public String toString() { return fieldName; }
 }
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.pkg;
+
+import eu.hansolo.jdktools.util.OutputFormat;
+
+import static io.foojay.api.util.Constants.API_VERSION_V1;
+import static io.foojay.api.util.Constants.API_VERSION_V2;
+import static io.foojay.api.util.Constants.BASE_URL;
+import static io.foojay.api.util.Constants.ENDPOINT_EPHEMERAL_IDS;
+import static io.foojay.api.util.Constants.ENDPOINT_IDS;
+import static io.foojay.api.util.Constants.SLASH;
+
+
+/**
+ * Writes the compressed json representations of a package (FULL_COMPRESSED, REDUCED_COMPRESSED,
+ * REDUCED_ENRICHED_COMPRESSED and MINIMIZED) into a caller supplied buffer. String values are
+ * escaped while they are appended and the field names are taken from the pre-encoded PkgField.jsonKey(),
+ * so no temporary Strings are created per field. A writer is not thread safe but can be reused
+ * for any number of packages by calling reset() in between.
+ */
+public final class PkgJsonWriter {
+    private static final String     FEATURE_NAME       = "{\"name\":\"";
+    private static final String     FEATURE_UI_STRING  = "\",\"ui_string\":\"";
+    private static final String     FEATURE_API_STRING = "\",\"api_string\":\"";
+    private static final String     FEATURE_END        = "\"}";
+    private static final String     REDIRECT           = "/redirect";
+    private static final char[]     HEX                = "0123456789abcdef".toCharArray();
+            static final PkgField[] FULL_FIELDS        = {
+        PkgField.ID, PkgField.ARCHIVE_TYPE, PkgField.DISTRIBUTION, PkgField.MAJOR_VERSION, PkgField.JAVA_VERSION, PkgField.DISTRIBUTION_VERSION, PkgField.JDK_VERSION,
+        PkgField.LATEST_BUILD_AVAILABLE, PkgField.RELEASE_STATUS, PkgField.TERM_OF_SUPPORT, PkgField.OPERATING_SYSTEM, PkgField.LIB_C_TYPE, PkgField.ARCHITECTURE, PkgField.FPU,
+        PkgField.PACKAGE_TYPE, PkgField.JAVAFX_BUNDLED, PkgField.DIRECTLY_DOWNLOADABLE, PkgField.FILENAME, PkgField.DIRECT_DOWNLOAD_URI, PkgField.DOWNLOAD_SITE_URI,
+        PkgField.SIGNATURE_URI, PkgField.CHECKSUM_URI, PkgField.CHECKSUM, PkgField.CHECKSUM_TYPE, PkgField.FREE_USE_IN_PROD, PkgField.TCK_TESTED, PkgField.TCK_CERT_URI,
+        PkgField.AQAVIT_CERTIFIED, PkgField.AQAVIT_CERT_URI, PkgField.VALIDATED_AT, PkgField.URL_VALID, PkgField.SIZE, PkgField.FEATURE
+    };
+    private static final PkgField[] REDUCED_FIELDS_V2  = {
+        PkgField.ID, PkgField.ARCHIVE_TYPE, PkgField.DISTRIBUTION, PkgField.MAJOR_VERSION, PkgField.JAVA_VERSION, PkgField.DISTRIBUTION_VERSION, PkgField.JDK_VERSION,
+        PkgField.LATEST_BUILD_AVAILABLE, PkgField.RELEASE_STATUS, PkgField.TERM_OF_SUPPORT, PkgField.OPERATING_SYSTEM, PkgField.LIB_C_TYPE, PkgField.ARCHITECTURE, PkgField.FPU,
+        PkgField.PACKAGE_TYPE, PkgField.JAVAFX_BUNDLED, PkgField.DIRECTLY_DOWNLOADABLE, PkgField.FILENAME, PkgField.EPHEMERAL_ID, PkgField.LINKS, PkgField.FREE_USE_IN_PROD,
+        PkgField.TCK_TESTED, PkgField.TCK_CERT_URI, PkgField.AQAVIT_CERTIFIED, PkgField.AQAVIT_CERT_URI, PkgField.SIZE, PkgField.FEATURE
+    };
+    private static final PkgField[] REDUCED_FIELDS_V3  = {
+        PkgField.ID, PkgField.ARCHIVE_TYPE, PkgField.DISTRIBUTION, PkgField.MAJOR_VERSION, PkgField.JAVA_VERSION, PkgField.DISTRIBUTION_VERSION, PkgField.JDK_VERSION,
+        PkgField.LATEST_BUILD_AVAILABLE, PkgField.RELEASE_STATUS, PkgField.TERM_OF_SUPPORT, PkgField.OPERATING_SYSTEM, PkgField.LIB_C_TYPE, PkgField.ARCHITECTURE, PkgField.FPU,
+        PkgField.PACKAGE_TYPE, PkgField.JAVAFX_BUNDLED, PkgField.DIRECTLY_DOWNLOADABLE, PkgField.FILENAME, PkgField.LINKS, PkgField.FREE_USE_IN_PROD,
+        PkgField.TCK_TESTED, PkgField.TCK_CERT_URI, PkgField.AQAVIT_CERTIFIED, PkgField.AQAVIT_CERT_URI, PkgField.SIZE, PkgField.FEATURE
+    };
+    private static final PkgField[] ENRICHED_FIELDS_V2 = {
+        PkgField.ID, PkgField.ARCHIVE_TYPE, PkgField.DISTRIBUTION, PkgField.MAJOR_VERSION, PkgField.JAVA_VERSION, PkgField.DISTRIBUTION_VERSION, PkgField.JDK_VERSION,
+        PkgField.FEATURE_VERSION, PkgField.INTERIM_VERSION, PkgField.UPDATE_VERSION, PkgField.PATCH_VERSION, PkgField.BUILD_VERSION,
+        PkgField.LATEST_BUILD_AVAILABLE, PkgField.RELEASE_STATUS, PkgField.TERM_OF_SUPPORT, PkgField.OPERATING_SYSTEM, PkgField.LIB_C_TYPE, PkgField.ARCHITECTURE, PkgField.FPU,
+        PkgField.PACKAGE_TYPE, PkgField.JAVAFX_BUNDLED, PkgField.DIRECTLY_DOWNLOADABLE, PkgField.FILENAME, PkgField.EPHEMERAL_ID, PkgField.LINKS, PkgField.FREE_USE_IN_PROD,
+        PkgField.TCK_TESTED, PkgField.TCK_CERT_URI, PkgField.AQAVIT_CERTIFIED, PkgField.AQAVIT_CERT_URI, PkgField.SIZE, PkgField.FEATURE
+    };
+    private static final PkgField[] ENRICHED_FIELDS_V3 = {
+        PkgField.ID, PkgField.ARCHIVE_TYPE, PkgField.DISTRIBUTION, PkgField.MAJOR_VERSION, PkgField.JAVA_VERSION, PkgField.DISTRIBUTION_VERSION, PkgField.JDK_VERSION,
+        PkgField.FEATURE_VERSION, PkgField.INTERIM_VERSION, PkgField.UPDATE_VERSION, PkgField.PATCH_VERSION, PkgField.BUILD_VERSION,
+        PkgField.LATEST_BUILD_AVAILABLE, PkgField.RELEASE_STATUS, PkgField.TERM_OF_SUPPORT, PkgField.OPERATING_SYSTEM, PkgField.LIB_C_TYPE, PkgField.ARCHITECTURE, PkgField.FPU,
+        PkgField.PACKAGE_TYPE, PkgField.JAVAFX_BUNDLED, PkgField.DIRECTLY_DOWNLOADABLE, PkgField.FILENAME, PkgField.LINKS, PkgField.FREE_USE_IN_PROD,
+        PkgField.TCK_TESTED, PkgField.TCK_CERT_URI, PkgField.AQAVIT_CERTIFIED, PkgField.AQAVIT_CERT_URI, PkgField.SIZE, PkgField.FEATURE
+    };
+    private static final PkgField[] MINIMIZED_FIELDS   = {
+        PkgField.ID, PkgField.ARCHIVE_TYPE, PkgField.DISTRIBUTION, PkgField.JDK_VERSION, PkgField.MAJOR_VERSION, PkgField.JAVA_VERSION, PkgField.RELEASE_STATUS,
+        PkgField.OPERATING_SYSTEM, PkgField.ARCHITECTURE, PkgField.PACKAGE_TYPE, PkgField.JAVAFX_BUNDLED, PkgField.DIRECTLY_DOWNLOADABLE, PkgField.FILENAME,
+        PkgField.FREE_USE_IN_PROD, PkgField.TCK_TESTED, PkgField.TCK_CERT_URI, PkgField.AQAVIT_CERTIFIED, PkgField.AQAVIT_CERT_URI
+    };
+    private        final StringBuilder buffer;
+
+
+    public PkgJsonWriter() {
+        this(new StringBuilder(2048));
+    }
+    public PkgJsonWriter(final StringBuilder buffer) {
+        this.buffer = buffer;
+    }
+
+
+    public StringBuilder getBuffer() { return buffer; }
+
+    public PkgJsonWriter reset() {
+        buffer.setLength(0);
+        return this;
+    }
+
+    /**
+     * Returns true if the given output format can be written by this writer, the pretty printed
+     * formats (FULL, REDUCED and REDUCED_ENRICHED) are not supported
+     * @param outputFormat
+     * @return true if the given output format can be written by this writer
+     */
+    public static boolean supports(final OutputFormat outputFormat) {
+        return switch(outputFormat) {
+            case FULL, REDUCED, REDUCED_ENRICHED -> false;
+            default                              -> true;
+        };
+    }
+
+    /**
+     * Appends the json representation of the given package in the given output format to the buffer.
+     * The json is identical to the one of Pkg.toString(OutputFormat, String) apart from the escaping of string values.
+     * @param pkg          Package to write
+     * @param outputFormat FULL_COMPRESSED, REDUCED_COMPRESSED, REDUCED_ENRICHED_COMPRESSED or MINIMIZED
+     * @param apiVersion   Api version (MINIMIZED is only available in api version 3, older versions use REDUCED_COMPRESSED instead)
+     * @return this writer
+     */
+    public PkgJsonWriter write(final Pkg pkg, final OutputFormat outputFormat, final String apiVersion) {
+        final boolean    legacy = API_VERSION_V1.equals(apiVersion) || API_VERSION_V2.equals(apiVersion);
+        final PkgField[] fields = switch(outputFormat) {
+            case FULL_COMPRESSED             -> FULL_FIELDS;
+            case REDUCED_ENRICHED_COMPRESSED -> legacy ? ENRICHED_FIELDS_V2 : ENRICHED_FIELDS_V3;
+            case MINIMIZED                   -> legacy ? REDUCED_FIELDS_V2  : MINIMIZED_FIELDS;
+            default                          -> legacy ? REDUCED_FIELDS_V2  : REDUCED_FIELDS_V3;
+        };
+        return write(pkg, fields, apiVersion);
+    }
+
+    /**
+     * Appends the json object with the given fields of the given package to the buffer
+     * @param pkg        Package to write
+     * @param fields     Fields to write in the order they should be written
+     * @param apiVersion Api version (V1 and V2 links point to the ephemeral ids endpoint)
+     * @return this writer
+     */
+    PkgJsonWriter write(final Pkg pkg, final PkgField[] fields, final String apiVersion) {
+        final boolean legacy   = API_VERSION_V1.equals(apiVersion) || API_VERSION_V2.equals(apiVersion);
+        final String  endpoint = legacy ? ENDPOINT_EPHEMERAL_IDS : ENDPOINT_IDS;
+
+        buffer.append('{');
+        for (int i = 0 ; i < fields.length ; i++) {
+            if (i > 0) { buffer.append(','); }
+            buffer.append(fields[i].jsonKey());
+            writeValue(pkg, fields[i], apiVersion, endpoint);
+        }
+        buffer.append('}');
+        return this;
+    }
+
+    @Override public String toString() { return buffer.toString(); }
+
+    /**
+     * Returns the given text escaped for the use in a json string, the text itself is returned
+     * if it does not contain any character that needs to be escaped
+     * @param text Text to escape
+     * @return the given text escaped for the use in a json string
+     */
+    public static String escape(final String text) {
+        if (null == text) { return null; }
+        for (int i = 0, length = text.length() ; i < length ; i++) {
+            final char c = text.charAt(i);
+            if (c < 0x20 || c == '"' || c == '\\') {
+                final StringBuilder escaped = new StringBuilder(length + 16).append(text, 0, i);
+                appendEscaped(escaped, text.subSequence(i, length));
+                return escaped.toString();
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Appends the given text to the given buffer and escapes all characters that are not allowed in a json string
+     * @param buffer Buffer to append the escaped text to
+     * @param text   Text to escape, null will be appended as null
+     */
+    public static void appendEscaped(final StringBuilder buffer, final CharSequence text) {
+        if (null == text) {
+            buffer.append((String) null);
+            return;
+        }
+        final int length = text.length();
+        for (int i = 0 ; i < length ; i++) {
+            final char c = text.charAt(i);
+            switch(c) {
+                case '"'  -> buffer.append('\\').append('"');
+                case '\\' -> buffer.append('\\').append('\\');
+                case '\n' -> buffer.append('\\').append('n');
+                case '\r' -> buffer.append('\\').append('r');
+                case '\t' -> buffer.append('\\').append('t');
+                case '\b' -> buffer.append('\\').append('b');
+                case '\f' -> buffer.append('\\').append('f');
+                default   -> {
+                    if (c < 0x20) {
+                        buffer.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        buffer.append(c);
+                    }
+                }
+            }
+        }
+    }
+
+    private void writeValue(final Pkg pkg, final PkgField field, final String apiVersion, final String endpoint) {
+        switch(field) {
+            case ID                     -> writeString(pkg.getId());
+            case EPHEMERAL_ID           -> writeString(pkg.getId());
+            case ARCHIVE_TYPE           -> writeString(pkg.getArchiveType().getUiString());
+            case DISTRIBUTION           -> writeString(pkg.getDistribution().getDistro().getApiString());
+            case MAJOR_VERSION          -> buffer.append(pkg.getVersionNumber().getFeature().getAsInt());
+            case JAVA_VERSION           -> writeString(null == pkg.getSemver() ? null : pkg.getSemver().toString());
+            case DISTRIBUTION_VERSION   -> writeString(pkg.getDistributionVersion().toString(OutputFormat.REDUCED_COMPRESSED, false, false));
+            case JDK_VERSION            -> buffer.append(pkg.getJdkVersion().getAsInt());
+            case FEATURE_VERSION        -> buffer.append(pkg.getVersionNumber().getFeature().orElse(0));
+            case INTERIM_VERSION        -> buffer.append(pkg.getVersionNumber().getInterim().orElse(0));
+            case UPDATE_VERSION         -> buffer.append(pkg.getVersionNumber().getUpdate().orElse(0));
+            case PATCH_VERSION          -> buffer.append(pkg.getVersionNumber().getPatch().orElse(0));
+            case BUILD_VERSION          -> buffer.append(pkg.getVersionNumber().getBuild().orElse(0));
+            case LATEST_BUILD_AVAILABLE -> buffer.append(pkg.isLatestBuildAvailable().booleanValue());
+            case RELEASE_STATUS         -> writeString(pkg.getReleaseStatus().getApiString());
+            case TERM_OF_SUPPORT        -> writeString(pkg.getTermOfSupport().getApiString());
+            case OPERATING_SYSTEM       -> writeString(pkg.getOperatingSystem().getApiString());
+            case LIB_C_TYPE             -> writeString(pkg.getLibCType().getApiString());
+            case ARCHITECTURE           -> writeString(pkg.getArchitecture().getApiString());
+            case FPU                    -> writeString(pkg.getFPU().getApiString());
+            case PACKAGE_TYPE           -> writeString(pkg.getPackageType().getApiString());
+            case JAVAFX_BUNDLED         -> buffer.append(pkg.isJavaFXBundled());
+            case DIRECTLY_DOWNLOADABLE  -> buffer.append(pkg.isDirectlyDownloadable());
+            case FILENAME               -> writeString(pkg.getFilename());
+            case DIRECT_DOWNLOAD_URI    -> writeString(pkg.getDirectDownloadUri());
+            case DOWNLOAD_SITE_URI      -> writeString(pkg.getDownloadSiteUri());
+            case SIGNATURE_URI          -> writeString(pkg.getSignatureUri());
+            case CHECKSUM_URI           -> writeString(pkg.getChecksumUri());
+            case CHECKSUM               -> writeString(pkg.getChecksum());
+            case CHECKSUM_TYPE          -> writeString(pkg.getChecksumType().getApiString());
+            case FREE_USE_IN_PROD       -> buffer.append(pkg.getFreeUseInProduction());
+            case TCK_TESTED             -> writeString(pkg.getTckTested().getApiString());
+            case TCK_CERT_URI           -> writeString(pkg.getTckCertUri());
+            case AQAVIT_CERTIFIED       -> writeString(pkg.getAqavitCertified().getApiString());
+            case AQAVIT_CERT_URI        -> writeString(pkg.getAqavitCertUri());
+            case VALIDATED_AT           -> buffer.append(pkg.getValidatedAt());
+            case URL_VALID              -> buffer.append(pkg.isUrlValid());
+            case SIZE                   -> buffer.append(pkg.getSize());
+            case LINKS                  -> writeLinks(pkg, apiVersion, endpoint);
+            case FEATURE                -> writeFeatures(pkg);
+            default                     -> throw new IllegalArgumentException("Field " + field + " is not part of the compressed json");
+        }
+    }
+
+    private void writeString(final String value) {
+        if (null == value) {
+            // Keeps the former behaviour of appending null inside the quotes
+            buffer.append("\"null\"");
+            return;
+        }
+        buffer.append('"');
+        appendEscaped(buffer, value);
+        buffer.append('"');
+    }
+
+    private void writeLinks(final Pkg pkg, final String apiVersion, final String endpoint) {
+        buffer.append('{').append('\n')
+              .append(PkgField.DOWNLOAD.jsonKey()).append('"');
+        writeLink(pkg, apiVersion, endpoint);
+        buffer.append('"').append(',')
+              .append(PkgField.REDIRECT.jsonKey()).append('"');
+        writeLink(pkg, apiVersion, endpoint);
+        buffer.append(REDIRECT).append('"').append('}');
+    }
+
+    private void writeLink(final Pkg pkg, final String apiVersion, final String endpoint) {
+        appendEscaped(buffer, BASE_URL);
+        buffer.append(SLASH).append('v');
+        appendEscaped(buffer, apiVersion);
+        buffer.append(SLASH).append(endpoint).append(SLASH).append(pkg.getId());
+    }
+
+    private void writeFeatures(final Pkg pkg) {
+        buffer.append('[');
+        boolean first = true;
+        for (Feature feature : pkg.getFeatures()) {
+            if (!first) { buffer.append(','); }
+            buffer.append(FEATURE_NAME).append(feature.name())
+                  .append(FEATURE_UI_STRING).append(feature.getUiString())
+                  .append(FEATURE_API_STRING).append(feature.getApiString())
+                  .append(FEATURE_END);
+            first = false;
+        }
+        buffer.append(']');
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.pkg;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static io.foojay.api.util.Constants.API_VERSION_V3;
+import static io.foojay.api.util.Constants.COMMA;
+
+
+/**
+ * Subset of the fields of a package that should be part of the json of a query result (e.g. fields=id,distribution,java_version).
+ * The id is always part of a projection, fields that are unknown or cannot be projected will be ignored and the fields are
+ * always written in the order of PkgField. Projections are immutable and will be created once per set of fields, so the
+ * field layout does not have to be computed again for every request.
+ */
+public final class PkgProjection {
+    private static final Set<PkgField>                     PROJECTABLE_FIELDS     = Collections.unmodifiableSet(EnumSet.of(
+        PkgField.ID, PkgField.ARCHIVE_TYPE, PkgField.DISTRIBUTION, PkgField.MAJOR_VERSION, PkgField.JAVA_VERSION, PkgField.DISTRIBUTION_VERSION, PkgField.JDK_VERSION,
+        PkgField.FEATURE_VERSION, PkgField.INTERIM_VERSION, PkgField.UPDATE_VERSION, PkgField.PATCH_VERSION, PkgField.BUILD_VERSION,
+        PkgField.LATEST_BUILD_AVAILABLE, PkgField.RELEASE_STATUS, PkgField.TERM_OF_SUPPORT, PkgField.OPERATING_SYSTEM, PkgField.LIB_C_TYPE, PkgField.ARCHITECTURE, PkgField.FPU,
+        PkgField.PACKAGE_TYPE, PkgField.JAVAFX_BUNDLED, PkgField.DIRECTLY_DOWNLOADABLE, PkgField.FILENAME, PkgField.DIRECT_DOWNLOAD_URI, PkgField.DOWNLOAD_SITE_URI,
+        PkgField.SIGNATURE_URI, PkgField.CHECKSUM_URI, PkgField.CHECKSUM, PkgField.CHECKSUM_TYPE, PkgField.LINKS, PkgField.FREE_USE_IN_PROD, PkgField.TCK_TESTED, PkgField.TCK_CERT_URI,
+        PkgField.AQAVIT_CERTIFIED, PkgField.AQAVIT_CERT_URI, PkgField.VALIDATED_AT, PkgField.URL_VALID, PkgField.SIZE, PkgField.FEATURE));
+    private static final Map<String, PkgField>             FIELDS_BY_NAME         = PROJECTABLE_FIELDS.stream().collect(Collectors.toUnmodifiableMap(PkgField::fieldName, Function.identity()));
+    private static final int                               MAX_CACHED_PROJECTIONS = 256;
+    private static final Map<Set<PkgField>, PkgProjection> PROJECTIONS            = new ConcurrentHashMap<>();
+    private        final PkgField[]                        fields;
+
+
+    private PkgProjection(final Set<PkgField> fields) {
+        this.fields = fields.toArray(new PkgField[0]);
+    }
+
+
+    /**
+     * Returns the projection for the given comma separated field names or null if no field names are given
+     * @param fieldNames Comma separated field names (e.g. id,distribution,java_version)
+     * @return the projection for the given field names or null if no field names are given
+     */
+    public static PkgProjection of(final String fieldNames) {
+        if (null == fieldNames || fieldNames.isBlank()) { return null; }
+        return of(Arrays.asList(fieldNames.split(COMMA)));
+    }
+    /**
+     * Returns the projection for the given field names or null if no field names are given
+     * @param fieldNames Field names (e.g. id, distribution, java_version)
+     * @return the projection for the given field names or null if no field names are given
+     */
+    public static PkgProjection of(final Collection<String> fieldNames) {
+        if (null == fieldNames || fieldNames.isEmpty()) { return null; }
+        final Set<PkgField> fields = EnumSet.of(PkgField.ID);
+        for (String fieldName : fieldNames) {
+            if (null == fieldName) { continue; }
+            final PkgField field = FIELDS_BY_NAME.get(fieldName.trim().toLowerCase());
+            if (null != field) { fields.add(field); }
+        }
+        final PkgProjection projection = PROJECTIONS.get(fields);
+        if (null != projection) { return projection; }
+        // Clients can request any combination of fields, so only a limited number of projections will be kept.
+        // The bound check and the insert happen under one lock, cache hits above do not need it.
+        synchronized (PROJECTIONS) {
+            final PkgProjection cachedProjection = PROJECTIONS.get(fields);
+            if (null != cachedProjection) { return cachedProjection; }
+            final PkgProjection newProjection = new PkgProjection(fields);
+            if (PROJECTIONS.size() < MAX_CACHED_PROJECTIONS) { PROJECTIONS.put(fields, newProjection); }
+            return newProjection;
+        }
+    }
+
+    public static Set<PkgField> getProjectableFields() { return PROJECTABLE_FIELDS; }
+
+    public Set<PkgField> getFields() {
+        final Set<PkgField> fieldSet = EnumSet.noneOf(PkgField.class);
+        Collections.addAll(fieldSet, fields);
+        return fieldSet;
+    }
+
+    /**
+     * Appends the V3 json of the projected fields of the given package to the given writer
+     * @param writer Writer to append the json to
+     * @param pkg    Package to write
+     * @return the given writer
+     */
+    public PkgJsonWriter write(final PkgJsonWriter writer, final Pkg pkg) {
+        return writer.write(pkg, fields, API_VERSION_V3);
+    }
+
+    public String toJson(final Pkg pkg) { return write(new PkgJsonWriter(new StringBuilder(fields.length * 32)), pkg).toString(); }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import eu.hansolo.jdktools.ReleaseStatus;
+import eu.hansolo.jdktools.scopes.BuildScope;
+import io.foojay.api.pkg.Distro;
+import io.foojay.api.pkg.Pkg;
+import io.micronaut.core.io.Writable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.zip.GZIPOutputStream;
+
+import static io.foojay.api.util.Constants.COLON;
+import static io.foojay.api.util.Constants.COMMA;
+import static io.foojay.api.util.Constants.CURLY_BRACKET_CLOSE;
+import static io.foojay.api.util.Constants.CURLY_BRACKET_OPEN;
+import static io.foojay.api.util.Constants.MESSAGE;
+import static io.foojay.api.util.Constants.NEW_LINE;
+import static io.foojay.api.util.Constants.QUOTES;
+import static io.foojay.api.util.Constants.RESULT;
+import static io.foojay.api.util.Constants.SQUARE_BRACKET_CLOSE;
+import static io.foojay.api.util.Constants.SQUARE_BRACKET_OPEN;
+
+
+/**
+ * Writes the all packages message ({"result":[...],"message":""}) directly to the given stream.
+ * The envelope and the cached UTF-8 json of each package are written one after the other, so the
+ * memory needed per request does not depend on the number of packages and the cached json does
+ * not have to be encoded again. A controller can return an instance of this class to stream the
+ * response instead of building it as a String.
+ * Writers created by ndjson() write one package per line without an envelope (newline delimited json),
+ * so clients can process the packages one by one, the stream will be flushed every FLUSH_INTERVAL packages.
+ */
+public final class AllPkgsWriter implements Writable {
+    private static final byte[]                 PREFIX         = (CURLY_BRACKET_OPEN + QUOTES + RESULT + QUOTES + COLON + SQUARE_BRACKET_OPEN).getBytes(StandardCharsets.UTF_8);
+    private static final byte[]                 SUFFIX         = (SQUARE_BRACKET_CLOSE + COMMA + QUOTES + MESSAGE + QUOTES + COLON + QUOTES + QUOTES + CURLY_BRACKET_CLOSE).getBytes(StandardCharsets.UTF_8);
+    private static final byte[]                 SEPARATOR      = COMMA.getBytes(StandardCharsets.UTF_8);
+    private static final byte[]                 LINE_END       = NEW_LINE.getBytes(StandardCharsets.UTF_8);
+    public  static final int                    FLUSH_INTERVAL = 1000;
+    private        final List<Pkg>              pkgs;
+    private        final JsonBytesCache<String> jsonCache;
+    private        final Predicate<Pkg>         filter;
+    private        final boolean                ndjson;
+
+
+    /**
+     * @param pkgs         Packages in the order they should be written (e.g. sorted by PkgSnapshot.sort())
+     * @param jsonCache    Cache that contains the json of the packages
+     * @param downloadable If true only distributions that are directly downloadable will be written
+     * @param include_ea   If true early access packages will be written too
+     * @param scope        Only packages of distributions of this build scope will be written (if BUILD_OF_OPEN_JDK or BUILD_OF_GRAALVM)
+     */
+    public AllPkgsWriter(final List<Pkg> pkgs, final JsonBytesCache<String> jsonCache, final Boolean downloadable, final Boolean include_ea, final BuildScope scope) {
+        this(pkgs, jsonCache, downloadable, include_ea, scope, false);
+    }
+    private AllPkgsWriter(final List<Pkg> pkgs, final JsonBytesCache<String> jsonCache, final Boolean downloadable, final Boolean include_ea, final BuildScope scope, final boolean ndjson) {
+        this.pkgs      = pkgs;
+        this.jsonCache = jsonCache;
+        this.filter    = filter(downloadable, include_ea, scope);
+        this.ndjson    = ndjson;
+    }
+
+
+    /**
+     * Returns a writer that writes the cached json of each package in a line of its own (newline delimited json)
+     * @param pkgs         Packages in the order they should be written (e.g. sorted by PkgSnapshot.sort())
+     * @param jsonCache    Cache that contains the json of the packages
+     * @param downloadable If true only distributions that are directly downloadable will be written
+     * @param include_ea   If true early access packages will be written too
+     * @param scope        Only packages of distributions of this build scope will be written (if BUILD_OF_OPEN_JDK or BUILD_OF_GRAALVM)
+     * @return a writer that writes the packages as newline delimited json
+     */
+    public static AllPkgsWriter ndjson(final List<Pkg> pkgs, final JsonBytesCache<String> jsonCache, final Boolean downloadable, final Boolean include_ea, final BuildScope scope) {
+        return new AllPkgsWriter(pkgs, jsonCache, downloadable, include_ea, scope, true);
+    }
+
+
+    /**
+     * Returns a filter that accepts the packages that are part of the all packages message
+     * @param downloadable If true only distributions that are directly downloadable will be accepted
+     * @param include_ea   If true early access packages will be accepted too
+     * @param scope        Only packages of distributions of this build scope will be accepted (if BUILD_OF_OPEN_JDK or BUILD_OF_GRAALVM)
+     * @return a filter that accepts the packages that are part of the all packages message
+     */
+    public static Predicate<Pkg> filter(final Boolean downloadable, final Boolean include_ea, final BuildScope scope) {
+        final Set<Distro> distros      = Set.copyOf(null == downloadable || !downloadable ? Distro.getPublicDistros() : Distro.getPublicDistrosDirectlyDownloadable());
+        final Set<Distro> scopeDistros = (BuildScope.BUILD_OF_OPEN_JDK == scope || BuildScope.BUILD_OF_GRAALVM == scope) ? Set.copyOf(Constants.REVERSE_SCOPE_LOOKUP.get(scope)) : null;
+        final boolean     gaOnly       = null == include_ea || !include_ea;
+        return pkg -> {
+            if (null == pkg) { return false; }
+            final Distro distro = pkg.getDistribution().getDistro();
+            if (null != scopeDistros && !scopeDistros.contains(distro)) { return false; }
+            if (!distros.contains(distro)) { return false; }
+            return gaOnly ? ReleaseStatus.GA == pkg.getReleaseStatus() : null != pkg.getReleaseStatus();
+        };
+    }
+
+    @Override public void writeTo(final OutputStream out, final Charset charset) throws IOException {
+        if (null != charset && !StandardCharsets.UTF_8.equals(charset)) {
+            Writable.super.writeTo(out, charset);
+            return;
+        }
+        write(out::write, out::flush);
+        out.flush();
+    }
+
+    @Override public void writeTo(final Writer out) throws IOException {
+        write(bytes -> out.write(new String(bytes, StandardCharsets.UTF_8)), out::flush);
+        out.flush();
+    }
+
+    /**
+     * Writes the gzip compressed message to the given stream. The compressed data written so far
+     * will be flushed together with the stream, so clients can decompress the packages as they arrive.
+     * @param out Stream to write the compressed message to, it will not be closed
+     * @throws IOException
+     */
+    public void writeGzipTo(final OutputStream out) throws IOException {
+        final GZIPOutputStream gzip = new GZIPOutputStream(out, 8192, true);
+        write(gzip::write, gzip::flush);
+        gzip.finish();
+        out.flush();
+    }
+
+    public boolean isNdjson() { return ndjson; }
+
+    private void write(final FragmentConsumer consumer, final Flushable flushable) throws IOException {
+        if (!ndjson) { consumer.accept(PREFIX); }
+        boolean first = true;
+        int     count = 0;
+        for (Pkg pkg : pkgs) {
+            if (!filter.test(pkg)) { continue; }
+            final byte[] json = jsonCache.get(pkg.getId());
+            if (null == json) { continue; }
+            if (ndjson) {
+                consumer.accept(json);
+                consumer.accept(LINE_END);
+                if (++count % FLUSH_INTERVAL == 0) { flushable.flush(); }
+            } else {
+                if (!first) { consumer.accept(SEPARATOR); }
+                consumer.accept(json);
+            }
+            first = false;
+        }
+        if (!ndjson) { consumer.accept(SUFFIX); }
+    }
+
+    @Override public String toString() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writeTo(out, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+
+    @FunctionalInterface
+    private interface FragmentConsumer {
+        void accept(byte[] fragment) throws IOException;
+    }
+}
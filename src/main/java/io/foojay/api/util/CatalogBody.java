@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.zip.GZIPOutputStream;
+
+import static io.foojay.api.util.Constants.COMMA;
+
+
+/**
+ * Precomputed response body with its gzip compressed copy and a strong ETag.
+ * The body is computed once and can be served to any number of requests without
+ * serializing or compressing it again. The returned byte arrays must not be modified.
+ */
+public final class CatalogBody {
+    public  static final String    GZIP     = "gzip";
+    private static final String    X_GZIP   = "x-gzip";
+    private static final String    WILDCARD = "*";
+    private        final byte[]    body;
+    private        final byte[]    gzipBody;
+    private        final String    etag;
+    private        final MediaType contentType;
+
+
+    private CatalogBody(final byte[] body, final byte[] gzipBody, final String etag, final MediaType contentType) {
+        this.body        = body;
+        this.gzipBody    = gzipBody;
+        this.etag        = etag;
+        this.contentType = contentType;
+    }
+
+
+    public static CatalogBody of(final byte[] body) {
+        return of(body, MediaType.APPLICATION_JSON_TYPE);
+    }
+    public static CatalogBody of(final byte[] body, final MediaType contentType) {
+        return new CatalogBody(body, gzip(body), createEtag(body), contentType);
+    }
+
+
+    public byte[] getBody() { return body; }
+
+    public byte[] getGzipBody() { return gzipBody; }
+
+    public String getEtag() { return etag; }
+
+    public MediaType getContentType() { return contentType; }
+
+    /**
+     * Returns true if the given If-None-Match header value contains the ETag of this body
+     * @param ifNoneMatch Value of the If-None-Match header
+     * @return true if the given If-None-Match header value contains the ETag of this body
+     */
+    public boolean isNotModified(final String ifNoneMatch) {
+        if (null == ifNoneMatch || ifNoneMatch.isBlank()) { return false; }
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals("*")) { return true; }
+            if (trimmed.startsWith("W/")) { trimmed = trimmed.substring(2); }
+            if (trimmed.equals(etag)) { return true; }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the response for the given request. A request with a matching If-None-Match header
+     * gets a 304, a request that accepts gzip gets the compressed body, all others the plain body.
+     * @param request Http request
+     * @return the response for the given request
+     */
+    public MutableHttpResponse<byte[]> toResponse(final HttpRequest<?> request) {
+        return toResponse(request, false);
+    }
+    /**
+     * Returns the response for the given request. A request with a matching If-None-Match header
+     * gets a 304, a request that accepts gzip gets the compressed body, all others the plain body.
+     * @param request      Http request
+     * @param varyByAccept True if this body has been selected by the Accept header of the request (content negotiation)
+     * @return the response for the given request
+     */
+    public MutableHttpResponse<byte[]> toResponse(final HttpRequest<?> request, final boolean varyByAccept) {
+        final HttpHeaders headers = request.getHeaders();
+        final String      vary    = varyByAccept ? HttpHeaders.ACCEPT + COMMA + " " + HttpHeaders.ACCEPT_ENCODING : HttpHeaders.ACCEPT_ENCODING;
+        if (isNotModified(headers.get(HttpHeaders.IF_NONE_MATCH))) {
+            return HttpResponse.<byte[]>notModified().header(HttpHeaders.ETAG, etag).header(HttpHeaders.VARY, vary);
+        }
+        final boolean acceptsGzip = acceptsGzip(headers.getAll(HttpHeaders.ACCEPT_ENCODING));
+        final MutableHttpResponse<byte[]> response = HttpResponse.ok(acceptsGzip ? gzipBody : body)
+                                                                 .contentType(contentType)
+                                                                 .header(HttpHeaders.ETAG, etag)
+                                                                 .header(HttpHeaders.VARY, vary);
+        if (acceptsGzip) { response.header(HttpHeaders.CONTENT_ENCODING, GZIP); }
+        return response;
+    }
+
+    /**
+     * Returns true if the given Accept-Encoding header values accept gzip. Codings with a quality of 0
+     * are refused, a wildcard (*) accepts gzip unless gzip has been listed explicitly.
+     * @param acceptEncodings Values of the Accept-Encoding headers
+     * @return true if the given Accept-Encoding header values accept gzip
+     */
+    public static boolean acceptsGzip(final Collection<String> acceptEncodings) {
+        if (null == acceptEncodings) { return false; }
+        Boolean gzip     = null;
+        boolean wildcard = false;
+        for (String acceptEncoding : acceptEncodings) {
+            for (String coding : acceptEncoding.split(COMMA)) {
+                final String[] parts    = coding.split(";");
+                final String   name     = parts[0].trim().toLowerCase();
+                boolean        accepted = true;
+                for (int i = 1 ; i < parts.length ; i++) {
+                    final String param = parts[i].trim();
+                    if (param.startsWith("q=")) { accepted = Helper.isPositiveQuality(param.substring(2)); }
+                }
+                if (GZIP.equals(name) || X_GZIP.equals(name)) {
+                    gzip = null == gzip ? accepted : gzip || accepted;
+                } else if (WILDCARD.equals(name)) {
+                    wildcard = accepted;
+                }
+            }
+        }
+        return null == gzip ? wildcard : gzip;
+    }
+
+    private static byte[] gzip(final byte[] data) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(32, data.length / 8));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String createEtag(final byte[] data) {
+        try {
+            final byte[]        hash        = MessageDigest.getInstance("SHA-256").digest(data);
+            final StringBuilder etagBuilder = new StringBuilder().append('"');
+            for (int i = 0 ; i < 16 ; i++) { etagBuilder.append(String.format("%02x", hash[i])); }
+            return etagBuilder.append('"').toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
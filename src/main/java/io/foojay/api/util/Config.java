@@ -35,6 +35,7 @@ public enum Config {
     public static final String FOOJAY_API_MONGODB_DATABASE = "FOOJAY_API_MONGODB_DATABASE";
     public static final String FOOJAY_API_MONGODB_USER     = "FOOJAY_API_MONGODB_USER";
     public static final String FOOJAY_API_MONGODB_PASSWORD = "FOOJAY_API_MONGODB_PASSWORD";
+    public static final String FOOJAY_API_MONGODB_BATCH    = "FOOJAY_API_MONGODB_BATCH";    // max number of writes per bulk write
 
     public static final String FOOJAY_MQTT_BROKER          = "FOOJAY_MQTT_BROKER";
     public static final String FOOJAY_MQTT_PORT            = "FOOJAY_MQTT_PORT";
@@ -90,6 +91,22 @@ public enum Config {
         }
     }
 
+    public Integer getFoojayMongoDbBatchSize() {
+        final String batchSizeString = System.getenv(FOOJAY_API_MONGODB_BATCH);
+        if (null == batchSizeString) {
+            LOGGER.warn("No environment variable {} found.", FOOJAY_API_MONGODB_BATCH);
+            return 1000;
+        } else {
+            try {
+                Integer batchSize = Integer.valueOf(batchSizeString);
+                return batchSize > 0 ? batchSize : 1000;
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Environment variable {} contains wrong value.", FOOJAY_API_MONGODB_BATCH);
+                return 1000;
+            }
+        }
+    }
+
     public String getFoojayMongoDbDatabase() {
         final String mongoDbDatabase = System.getenv(FOOJAY_API_MONGODB_DATABASE);
         if (null == mongoDbDatabase) {
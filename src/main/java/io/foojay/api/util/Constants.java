@@ -87,6 +87,8 @@ public class Constants {
     public static final String            API_VERSION_V3                         = "3.0";
 
     public static final String            BASE_URL                               = null == Config.INSTANCE.getFoojayApiBaseUrl() ? "https://api.foojay.io/disco" : Config.INSTANCE.getFoojayApiBaseUrl();
+    public static final String            PKGS_BINARY_MEDIA_TYPE                 = "application/vnd.foojay.pkgs.v1+binary";
+    public static final String            NDJSON_MEDIA_TYPE                      = "application/x-ndjson";
 
     public static final String            MQTT_CLIENT_ID                         = "discoapi-" + Config.INSTANCE.getFoojayApiEnvironment() + "-" + UUID.randomUUID();
     public static final String            MQTT_TOPIC_SEPARATOR                   = "/";
@@ -113,6 +115,8 @@ public class Constants {
     public static final long              UPLOAD_TIMEOUT_IN_MINUTES              = 10;
     public static final long              SYNCHRONIZING_TIMEOUT_IN_MINUTES       = 15;
 
+    public static final int               QUERY_CACHE_SIZE                       = 1_000;
+
     public static final boolean           ALL_PKGS                               = false;
     public static final boolean           ONLY_NEW_PKGS                          = true;
 
@@ -153,6 +157,10 @@ public class Constants {
 
     public static final String            RESULT                                 = "result";
     public static final String            MESSAGE                                = "message";
+    public static final String            GENERATION                             = "generation";
+    public static final String            FULL_RESYNC_REQUIRED                   = "full_resync_required";
+    public static final String            PACKAGES                               = "packages";
+    public static final String            REMOVED_IDS                            = "removed_ids";
 
     public static final String            SENTINEL_PKG_ID                        = "a2a505f4d8956eb730c1ef285b23c269"; //https://cdn.azul.com/zulu/bin/zulu6.2.0.9-ca-jdk6.0.42-linux.x86_64.rpm
 
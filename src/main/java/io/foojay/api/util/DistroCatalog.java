@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import eu.hansolo.jdktools.versioning.Semver;
+import io.foojay.api.pkg.Distro;
+import io.foojay.api.pkg.Pkg;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+
+/**
+ * Sorted versions and number of packages per distribution of a given package cache generation.
+ * A new catalog is derived from the catalog of the previous generation, the versions of a
+ * distribution will only be collected and sorted again if its package instances have changed.
+ */
+public final class DistroCatalog {
+    private static final Comparator<Semver>       DESCENDING = Comparator.comparing(Semver::getVersionNumber).reversed();
+    private        final long                     generation;
+    private        final Map<Distro, DistroEntry> entries;
+
+
+    private DistroCatalog(final long generation, final Map<Distro, DistroEntry> entries) {
+        this.generation = generation;
+        this.entries    = entries;
+    }
+
+
+    public static DistroCatalog empty() { return new DistroCatalog(0, new EnumMap<>(Distro.class)); }
+
+    /**
+     * Returns the catalog for the given generation and packages. The entry of a distribution will be reused
+     * if it contains the same package instances as in the given previous catalog. Packages are immutable
+     * while they are part of a snapshot and a sync replaces the instances of all packages of an updated
+     * distribution, so a corrected version under the same id will always lead to a new entry.
+     * @param generation Generation of the package cache the packages belong to
+     * @param pkgs       All packages of the given generation
+     * @param previous   Catalog of a previous generation or null
+     * @return the catalog for the given generation and packages
+     */
+    public static DistroCatalog of(final long generation, final Collection<? extends Pkg> pkgs, final DistroCatalog previous) {
+        final Map<Distro, List<Pkg>> pkgsPerDistro = new EnumMap<>(Distro.class);
+        for (Pkg pkg : pkgs) {
+            if (null == pkg.getDistribution()) { continue; }
+            pkgsPerDistro.computeIfAbsent(pkg.getDistribution().getDistro(), distro -> new ArrayList<>()).add(pkg);
+        }
+
+        final Map<Distro, DistroEntry> entries = new EnumMap<>(Distro.class);
+        pkgsPerDistro.forEach((distro, pkgsOfDistro) -> {
+            final DistroEntry previousEntry = null == previous ? null : previous.entries.get(distro);
+            if (null != previousEntry && previousEntry.containsSameInstances(pkgsOfDistro)) {
+                entries.put(distro, previousEntry);
+            } else {
+                final Set<Pkg> instances = Collections.newSetFromMap(new IdentityHashMap<>(pkgsOfDistro.size() * 2));
+                instances.addAll(pkgsOfDistro);
+                entries.put(distro, new DistroEntry(Collections.unmodifiableSet(instances), getSortedVersions(pkgsOfDistro)));
+            }
+        });
+        return new DistroCatalog(generation, entries);
+    }
+
+
+    public long getGeneration() { return generation; }
+
+    /**
+     * Returns the versions of all packages of the given distribution, free of duplicates (by Semver.toString())
+     * and sorted by version number in descending order.
+     * @param distro Distribution
+     * @return the sorted versions of all packages of the given distribution
+     */
+    public List<Semver> getVersions(final Distro distro) {
+        final DistroEntry entry = entries.get(distro);
+        return null == entry ? List.of() : entry.versions();
+    }
+
+    public long getNumberOfPkgs(final Distro distro) {
+        final DistroEntry entry = entries.get(distro);
+        return null == entry ? 0 : entry.pkgs().size();
+    }
+
+    private static List<Semver> getSortedVersions(final Collection<Pkg> pkgs) {
+        final Map<String, Semver> semversByName = new TreeMap<>();
+        pkgs.forEach(pkg -> semversByName.putIfAbsent(pkg.getSemver().toString(), pkg.getSemver()));
+        return semversByName.values().stream().sorted(DESCENDING).collect(Collectors.toUnmodifiableList());
+    }
+
+
+    private record DistroEntry(Set<Pkg> pkgs, List<Semver> versions) {
+        // pkgs is an identity set, so equal but replaced packages count as changed
+        boolean containsSameInstances(final List<Pkg> pkgsOfDistro) {
+            if (pkgs.size() != pkgsOfDistro.size()) { return false; }
+            for (Pkg pkg : pkgsOfDistro) {
+                if (!pkgs.contains(pkg)) { return false; }
+            }
+            return true;
+        }
+    }
+}
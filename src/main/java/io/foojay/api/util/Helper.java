@@ -45,9 +45,12 @@ import io.foojay.api.distribution.Zulu;
 import io.foojay.api.pkg.Distro;
 import io.foojay.api.pkg.MajorVersion;
 import io.foojay.api.pkg.Pkg;
+import io.foojay.api.pkg.PkgJsonWriter;
+import io.foojay.api.pkg.PkgProjection;
 import io.foojay.api.scopes.IDEScope;
 import io.foojay.api.scopes.YamlScopes;
 import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.MutableHttpResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yaml.snakeyaml.Yaml;
@@ -86,12 +89,14 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -102,11 +107,15 @@ import static io.foojay.api.util.Constants.COLON;
 import static io.foojay.api.util.Constants.COMMA_NEW_LINE;
 import static io.foojay.api.util.Constants.CURLY_BRACKET_CLOSE;
 import static io.foojay.api.util.Constants.CURLY_BRACKET_OPEN;
+import static io.foojay.api.util.Constants.FULL_RESYNC_REQUIRED;
+import static io.foojay.api.util.Constants.GENERATION;
 import static io.foojay.api.util.Constants.INDENT;
 import static io.foojay.api.util.Constants.INDENTED_QUOTES;
 import static io.foojay.api.util.Constants.MESSAGE;
 import static io.foojay.api.util.Constants.NEW_LINE;
+import static io.foojay.api.util.Constants.PACKAGES;
 import static io.foojay.api.util.Constants.QUOTES;
+import static io.foojay.api.util.Constants.REMOVED_IDS;
 import static io.foojay.api.util.Constants.RESULT;
 import static io.foojay.api.util.Constants.SQUARE_BRACKET_CLOSE;
 import static io.foojay.api.util.Constants.SQUARE_BRACKET_OPEN;
@@ -649,12 +658,11 @@ public class Helper {
 
         msgBuilder.append(CURLY_BRACKET_OPEN)
                   .append(QUOTES).append(RESULT).append(QUOTES).append(COLON)
-                  .append(allPkgs.parallelStream()
+                  .append(CacheManager.INSTANCE.pkgCache.getSnapshot().sort(allPkgs).parallelStream()
                                  .filter(pkg -> null == scopeToCheck ? pkg != null : Constants.REVERSE_SCOPE_LOOKUP.get(scopeToCheck).contains(pkg.getDistribution().getDistro()))
                                  .filter(pkg -> publicDistros.contains(pkg.getDistribution().getDistro()))
                                  .filter(pkg -> gaOnly ? ReleaseStatus.GA == pkg.getReleaseStatus() : null != pkg.getReleaseStatus())
-                                 .sorted(Comparator.comparing(Pkg::getDistributionName).reversed().thenComparing(Comparator.comparing(Pkg::getSemver).reversed()))
-                                 .map(pkg -> CacheManager.INSTANCE.jsonCacheV2.get(pkg.getId()))
+                                 .map(pkg -> CacheManager.INSTANCE.jsonCacheV2.getAsString(pkg.getId()))
                                  .collect(Collectors.joining(COMMA, SQUARE_BRACKET_OPEN, SQUARE_BRACKET_CLOSE))).append(COMMA)
                   .append(QUOTES).append(MESSAGE).append(QUOTES).append(COLON).append(QUOTES).append(QUOTES).append(NEW_LINE)
                   .append(CURLY_BRACKET_CLOSE);
@@ -665,34 +673,13 @@ public class Helper {
         return getAllPackagesMsgV2(allPkgs, downloadable, include_ea, scope, OutputFormat.REDUCED_COMPRESSED);
     }
     public static final String getAllPackagesMsgV2(final Collection<Pkg> allPkgs, final Boolean downloadable, final Boolean include_ea, final BuildScope scope, final OutputFormat outputFormat) {
-        final List<Distro>   publicDistros = null == downloadable || !downloadable ? Distro.getPublicDistros() : Distro.getPublicDistrosDirectlyDownloadable();
-        final boolean        gaOnly        = null == include_ea || !include_ea;
-        final StringBuilder  chunkBuilder  = new StringBuilder();
-        final StringBuilder  msgBuilder    = new StringBuilder();
-        final Scope          scopeToCheck  = (BuildScope.BUILD_OF_OPEN_JDK == scope || BuildScope.BUILD_OF_GRAALVM == scope) ? scope : null;
-        final Partition<Pkg> partition     = new Partition<>(allPkgs, 25000);
-
-        msgBuilder.append(CURLY_BRACKET_OPEN)
-                  .append(QUOTES).append(RESULT).append(QUOTES).append(COLON)
-                  .append(SQUARE_BRACKET_OPEN);
-
-        for (int i = 0 ; i < partition.size() ; i++) {
-            List<Pkg> chunk = partition.get(i);
-            chunkBuilder.append(chunk.parallelStream()
-                                     .filter(pkg -> null == scopeToCheck ? pkg != null : Constants.REVERSE_SCOPE_LOOKUP.get(scopeToCheck).contains(pkg.getDistribution().getDistro()))
-                                     .filter(pkg -> publicDistros.contains(pkg.getDistribution().getDistro()))
-                                     .filter(pkg -> gaOnly ? ReleaseStatus.GA == pkg.getReleaseStatus() : null != pkg.getReleaseStatus())
-                                     .sorted(Comparator.comparing(Pkg::getDistributionName).reversed().thenComparing(Comparator.comparing(Pkg::getSemver).reversed()))
-                                     .map(pkg -> CacheManager.INSTANCE.jsonCacheV2.get(pkg.getId()))
-                                     .collect(Collectors.joining(COMMA)));
-            msgBuilder.append(chunkBuilder).append(COMMA);
-            chunkBuilder.setLength(0);
-        }
-        msgBuilder.setLength(msgBuilder.length() - 1);
-        msgBuilder.append(SQUARE_BRACKET_CLOSE).append(COMMA);
-        msgBuilder.append(QUOTES).append(MESSAGE).append(QUOTES).append(COLON).append(QUOTES).append(QUOTES)
-                  .append(CURLY_BRACKET_CLOSE);
-        return msgBuilder.toString();
+        return getAllPackagesWriterV2(allPkgs, downloadable, include_ea, scope).toString();
+    }
+    public static final AllPkgsWriter getAllPackagesWriterV2(final Collection<Pkg> allPkgs, final Boolean downloadable, final Boolean include_ea, final BuildScope scope) {
+        return new AllPkgsWriter(CacheManager.INSTANCE.pkgCache.getSnapshot().sort(allPkgs), CacheManager.INSTANCE.jsonCacheV2, downloadable, include_ea, scope);
+    }
+    public static final CatalogBody getAllPackagesBodyV2(final Boolean downloadable, final Boolean include_ea, final BuildScope scope) {
+        return CacheManager.INSTANCE.getAllPkgsBody(CacheManager.INSTANCE.jsonCacheV2, downloadable, include_ea, scope);
     }
 
     public static final String getAllPackagesMsgV3_OLD(final Collection<Pkg> allPkgs, final Boolean downloadable, final Boolean include_ea, final BuildScope scope) {
@@ -706,12 +693,11 @@ public class Helper {
 
         msgBuilder.append(CURLY_BRACKET_OPEN)
                   .append(QUOTES).append(RESULT).append(QUOTES).append(COLON)
-                  .append(allPkgs.parallelStream()
+                  .append(CacheManager.INSTANCE.pkgCache.getSnapshot().sort(allPkgs).parallelStream()
                                  .filter(pkg -> null == scopeToCheck ? pkg != null : Constants.REVERSE_SCOPE_LOOKUP.get(scopeToCheck).contains(pkg.getDistribution().getDistro()))
                                  .filter(pkg -> publicDistros.contains(pkg.getDistribution().getDistro()))
                                  .filter(pkg -> gaOnly ? ReleaseStatus.GA == pkg.getReleaseStatus() : null != pkg.getReleaseStatus())
-                                 .sorted(Comparator.comparing(Pkg::getDistributionName).reversed().thenComparing(Comparator.comparing(Pkg::getSemver).reversed()))
-                                 .map(pkg -> CacheManager.INSTANCE.jsonCacheV3.get(pkg.getId()))
+                                 .map(pkg -> CacheManager.INSTANCE.jsonCacheV3.getAsString(pkg.getId()))
                                  .collect(Collectors.joining(COMMA, SQUARE_BRACKET_OPEN, SQUARE_BRACKET_CLOSE))).append(COMMA)
                   .append(QUOTES).append(MESSAGE).append(QUOTES).append(COLON).append(QUOTES).append(QUOTES)
                   .append(CURLY_BRACKET_CLOSE);
@@ -722,34 +708,79 @@ public class Helper {
         return getAllPackagesMsgV3(allPkgs, downloadable, include_ea, scope, OutputFormat.REDUCED_COMPRESSED);
     }
     public static final String getAllPackagesMsgV3(final Collection<Pkg> allPkgs, final Boolean downloadable, final Boolean include_ea, final BuildScope scope, final OutputFormat outputFormat) {
-        final List<Distro>  publicDistros = null == downloadable || !downloadable ? Distro.getPublicDistros() : Distro.getPublicDistrosDirectlyDownloadable();
-        final boolean       gaOnly        = null == include_ea || !include_ea;
-        final StringBuilder chunkBuilder  = new StringBuilder();
-        final StringBuilder msgBuilder    = new StringBuilder();
-        final Scope         scopeToCheck  = (BuildScope.BUILD_OF_OPEN_JDK == scope || BuildScope.BUILD_OF_GRAALVM == scope) ? scope : null;
+        return getAllPackagesWriterV3(allPkgs, downloadable, include_ea, scope).toString();
+    }
+    public static final AllPkgsWriter getAllPackagesWriterV3(final Collection<Pkg> allPkgs, final Boolean downloadable, final Boolean include_ea, final BuildScope scope) {
+        return new AllPkgsWriter(CacheManager.INSTANCE.pkgCache.getSnapshot().sort(allPkgs), CacheManager.INSTANCE.jsonCacheV3, downloadable, include_ea, scope);
+    }
+    public static final CatalogBody getAllPackagesBodyV3(final Boolean downloadable, final Boolean include_ea, final BuildScope scope) {
+        return CacheManager.INSTANCE.getAllPkgsBody(CacheManager.INSTANCE.jsonCacheV3, downloadable, include_ea, scope);
+    }
+    /**
+     * Returns a writer that streams the V3 json of all packages as newline delimited json (one package per line)
+     * straight from the cached json of the packages. The writer can be returned by a controller with the content type
+     * Constants.NDJSON_MEDIA_TYPE, clients that accept gzip can get the compressed stream via writeGzipTo().
+     * @param downloadable If true only distributions that are directly downloadable will be written
+     * @param include_ea   If true early access packages will be written too
+     * @param scope        Only packages of distributions of this build scope will be written (if BUILD_OF_OPEN_JDK or BUILD_OF_GRAALVM)
+     * @return a writer that streams all packages as newline delimited json
+     */
+    public static final AllPkgsWriter getAllPackagesNdjsonWriterV3(final Boolean downloadable, final Boolean include_ea, final BuildScope scope) {
+        return AllPkgsWriter.ndjson(CacheManager.INSTANCE.getJsonCacheSnapshot().getPkgs(), CacheManager.INSTANCE.jsonCacheV3, downloadable, include_ea, scope);
+    }
+    public static final CatalogBody getAllPackagesBodyBinaryV3(final Boolean downloadable, final Boolean include_ea, final BuildScope scope) {
+        return CacheManager.INSTANCE.getAllPkgsBinaryBody(downloadable, include_ea, scope);
+    }
+    /**
+     * Returns the all packages body in the format the client asked for in the Accept header. Clients that accept
+     * the binary media type (Constants.PKGS_BINARY_MEDIA_TYPE) get the binary list, all others the V3 json message.
+     * @param request      Http request of the client
+     * @param downloadable If true only distributions that are directly downloadable will be included
+     * @param include_ea   If true early access packages will be included
+     * @param scope        BUILD_OF_OPEN_JDK, BUILD_OF_GRAALVM or any other scope for all packages
+     * @return the all packages body in the format the client asked for
+     */
+    public static final CatalogBody getAllPackagesBodyV3(final io.micronaut.http.HttpRequest<?> request, final Boolean downloadable, final Boolean include_ea, final BuildScope scope) {
+        return acceptsBinaryPkgs(request) ? getAllPackagesBodyBinaryV3(downloadable, include_ea, scope) : getAllPackagesBodyV3(downloadable, include_ea, scope);
+    }
+
+    /**
+     * Returns the response for the all packages body in the format the client asked for in the Accept header,
+     * the response varies by the Accept header because the body has been selected by it.
+     * @param request      Http request of the client
+     * @param downloadable If true only distributions that are directly downloadable will be included
+     * @param include_ea   If true early access packages will be included
+     * @param scope        BUILD_OF_OPEN_JDK, BUILD_OF_GRAALVM or any other scope for all packages
+     * @return the response for the all packages body in the format the client asked for
+     */
+    public static final MutableHttpResponse<byte[]> getAllPackagesResponseV3(final io.micronaut.http.HttpRequest<?> request, final Boolean downloadable, final Boolean include_ea, final BuildScope scope) {
+        return getAllPackagesBodyV3(request, downloadable, include_ea, scope).toResponse(request, true);
+    }
+
+    public static final boolean acceptsBinaryPkgs(final io.micronaut.http.HttpRequest<?> request) {
+        if (null == request || null == request.getHeaders()) { return false; }
+        for (String accept : request.getHeaders().getAll(HttpHeaders.ACCEPT)) {
+            for (String mediaRange : accept.split(COMMA)) {
+                final String[] parts = mediaRange.split(";");
+                if (!parts[0].trim().equalsIgnoreCase(Constants.PKGS_BINARY_MEDIA_TYPE)) { continue; }
+                // A quality of 0 means the client does not accept the binary format
+                boolean accepted = true;
+                for (int i = 1 ; i < parts.length ; i++) {
+                    final String param = parts[i].trim();
+                    if (param.startsWith("q=")) { accepted = isPositiveQuality(param.substring(2)); }
+                }
+                if (accepted) { return true; }
+            }
+        }
+        return false;
+    }
 
-        msgBuilder.append(CURLY_BRACKET_OPEN)
-                  .append(QUOTES).append(RESULT).append(QUOTES).append(COLON)
-                  .append(SQUARE_BRACKET_OPEN);
-
-        Partition<Pkg> partition = new Partition<>(allPkgs, 25000);
-        for (int i = 0 ; i < partition.size() ; i++) {
-            List<Pkg> chunk = partition.get(i);
-            chunkBuilder.append(chunk.parallelStream()
-                                     .filter(pkg -> null == scopeToCheck ? pkg != null : Constants.REVERSE_SCOPE_LOOKUP.get(scopeToCheck).contains(pkg.getDistribution().getDistro()))
-                                     .filter(pkg -> publicDistros.contains(pkg.getDistribution().getDistro()))
-                                     .filter(pkg -> gaOnly ? ReleaseStatus.GA == pkg.getReleaseStatus() : null != pkg.getReleaseStatus())
-                                     .sorted(Comparator.comparing(Pkg::getDistributionName).reversed().thenComparing(Comparator.comparing(Pkg::getSemver).reversed()))
-                                     .map(pkg -> CacheManager.INSTANCE.jsonCacheV3.get(pkg.getId()))
-                                     .collect(Collectors.joining(COMMA)));
-            msgBuilder.append(chunkBuilder).append(COMMA);
-            chunkBuilder.setLength(0);
+    static boolean isPositiveQuality(final String quality) {
+        try {
+            return Double.parseDouble(quality.trim()) > 0;
+        } catch (NumberFormatException e) {
+            return false;
         }
-        msgBuilder.setLength(msgBuilder.length() - 1);
-        msgBuilder.append(SQUARE_BRACKET_CLOSE).append(COMMA);
-        msgBuilder.append(QUOTES).append(MESSAGE).append(QUOTES).append(COLON).append(QUOTES).append(QUOTES)
-                  .append(CURLY_BRACKET_CLOSE);
-        return msgBuilder.toString();
     }
 
     public static final String getAllPackagesMsgMinimizedV3_OLD(final Collection<Pkg> allPkgs, final Boolean downloadable, final Boolean include_ea, final BuildScope scope) {
@@ -760,12 +791,11 @@ public class Helper {
 
         msgBuilder.append(CURLY_BRACKET_OPEN)
                   .append(QUOTES).append(RESULT).append(QUOTES).append(COLON)
-                  .append(INDENT).append(allPkgs.parallelStream()
+                  .append(INDENT).append(CacheManager.INSTANCE.pkgCache.getSnapshot().sort(allPkgs).parallelStream()
                                                 .filter(pkg -> null == scopeToCheck ? pkg != null : Constants.REVERSE_SCOPE_LOOKUP.get(scopeToCheck).contains(pkg.getDistribution().getDistro()))
                                                 .filter(pkg -> publicDistros.contains(pkg.getDistribution().getDistro()))
                                                 .filter(pkg -> gaOnly ? ReleaseStatus.GA == pkg.getReleaseStatus() : null != pkg.getReleaseStatus())
-                                                .sorted(Comparator.comparing(Pkg::getDistributionName).reversed().thenComparing(Comparator.comparing(Pkg::getSemver).reversed()))
-                                                .map(pkg -> CacheManager.INSTANCE.jsonCacheMinimizedV3.get(pkg.getId()))
+                                                .map(pkg -> CacheManager.INSTANCE.jsonCacheMinimizedV3.getAsString(pkg.getId()))
                                                 .collect(Collectors.joining(COMMA, SQUARE_BRACKET_OPEN, SQUARE_BRACKET_CLOSE))).append(COMMA)
                   .append(QUOTES).append(MESSAGE).append(QUOTES).append(COLON).append(QUOTES).append(QUOTES)
                   .append(CURLY_BRACKET_CLOSE);
@@ -773,32 +803,121 @@ public class Helper {
     }
 
     public static final String getAllPackagesMsgMinimizedV3(final Collection<Pkg> allPkgs, final Boolean downloadable, final Boolean include_ea, final BuildScope scope) {
-        final List<Distro>  publicDistros = null == downloadable || !downloadable ? Distro.getPublicDistros() : Distro.getPublicDistrosDirectlyDownloadable();
-        final boolean       gaOnly        = null == include_ea || !include_ea;
-        final StringBuilder chunkBuilder  = new StringBuilder();
-        final StringBuilder msgBuilder    = new StringBuilder();
-        final Scope         scopeToCheck  = (BuildScope.BUILD_OF_OPEN_JDK == scope || BuildScope.BUILD_OF_GRAALVM == scope) ? scope : null;
+        return getAllPackagesWriterMinimizedV3(allPkgs, downloadable, include_ea, scope).toString();
+    }
+    public static final AllPkgsWriter getAllPackagesWriterMinimizedV3(final Collection<Pkg> allPkgs, final Boolean downloadable, final Boolean include_ea, final BuildScope scope) {
+        return new AllPkgsWriter(CacheManager.INSTANCE.pkgCache.getSnapshot().sort(allPkgs), CacheManager.INSTANCE.jsonCacheMinimizedV3, downloadable, include_ea, scope);
+    }
+    public static final CatalogBody getAllPackagesBodyMinimizedV3(final Boolean downloadable, final Boolean include_ea, final BuildScope scope) {
+        return CacheManager.INSTANCE.getAllPkgsBody(CacheManager.INSTANCE.jsonCacheMinimizedV3, downloadable, include_ea, scope);
+    }
+
+    /**
+     * Returns the V3 message ({"result":[...],"message":""}) with the given packages of a query result.
+     * Without a projection the cached V3 json of the packages will be used, with a projection only the
+     * fields of the projection will be written, e.g. for clients that only need id, distribution,
+     * version, platform and the links of the packages.
+     * @param pkgs       Packages of the query result in the order they should be written
+     * @param projection Fields to write or null for all fields of the V3 json (REDUCED_COMPRESSED)
+     * @return the V3 message with the given packages
+     */
+    public static final String getPkgsMsgV3(final Collection<Pkg> pkgs, final PkgProjection projection) {
+        final PkgJsonWriter jsonWriter = new PkgJsonWriter(new StringBuilder(pkgs.size() * (null == projection ? 1024 : 256) + 32));
+        final StringBuilder msgBuilder = jsonWriter.getBuffer();
+        msgBuilder.append(CURLY_BRACKET_OPEN)
+                  .append(QUOTES).append(RESULT).append(QUOTES).append(COLON);
+        appendPkgs(jsonWriter, pkgs, projection);
+        msgBuilder.append(COMMA)
+                  .append(QUOTES).append(MESSAGE).append(QUOTES).append(COLON).append(QUOTES).append(QUOTES)
+                  .append(CURLY_BRACKET_CLOSE);
+        return msgBuilder.toString();
+    }
 
+    /**
+     * Returns the V3 message ({"result":[[...],[...]],"message":""}) with the results of a batch of queries
+     * (DiscoService.getPkgsFromCache(List)), the result contains one array of packages per query in the order of the queries.
+     * @param results    Results of the queries
+     * @param projection Fields to write or null for all fields of the V3 json (REDUCED_COMPRESSED)
+     * @return the V3 message with the results of the given queries
+     */
+    public static final String getPkgsBatchMsgV3(final List<? extends Collection<Pkg>> results, final PkgProjection projection) {
+        final int           numberOfPkgs = results.stream().mapToInt(Collection::size).sum();
+        final PkgJsonWriter jsonWriter   = new PkgJsonWriter(new StringBuilder(numberOfPkgs * (null == projection ? 1024 : 256) + 32));
+        final StringBuilder msgBuilder   = jsonWriter.getBuffer();
         msgBuilder.append(CURLY_BRACKET_OPEN)
-                  .append(QUOTES).append(RESULT).append(QUOTES).append(COLON)
-                  .append(SQUARE_BRACKET_OPEN);
-
-        Partition<Pkg> partition = new Partition<>(allPkgs, 25000);
-        for (int i = 0 ; i < partition.size() ; i++) {
-            List<Pkg> chunk = partition.get(i);
-            chunkBuilder.append(chunk.parallelStream()
-                                     .filter(pkg -> null == scopeToCheck ? pkg != null : Constants.REVERSE_SCOPE_LOOKUP.get(scopeToCheck).contains(pkg.getDistribution().getDistro()))
-                                     .filter(pkg -> publicDistros.contains(pkg.getDistribution().getDistro()))
-                                     .filter(pkg -> gaOnly ? ReleaseStatus.GA == pkg.getReleaseStatus() : null != pkg.getReleaseStatus())
-                                     .sorted(Comparator.comparing(Pkg::getDistributionName).reversed().thenComparing(Comparator.comparing(Pkg::getSemver).reversed()))
-                                     .map(pkg -> CacheManager.INSTANCE.jsonCacheMinimizedV3.get(pkg.getId()))
-                                     .collect(Collectors.joining(COMMA)));
-            msgBuilder.append(chunkBuilder).append(COMMA);
-            chunkBuilder.setLength(0);
+                  .append(QUOTES).append(RESULT).append(QUOTES).append(COLON).append(SQUARE_BRACKET_OPEN);
+        for (int i = 0 ; i < results.size() ; i++) {
+            if (i > 0) { msgBuilder.append(COMMA); }
+            appendPkgs(jsonWriter, results.get(i), projection);
         }
-        msgBuilder.setLength(msgBuilder.length() - 1);
-        msgBuilder.append(SQUARE_BRACKET_CLOSE).append(COMMA);
-        msgBuilder.append(QUOTES).append(MESSAGE).append(QUOTES).append(COLON).append(QUOTES).append(QUOTES)
+        msgBuilder.append(SQUARE_BRACKET_CLOSE).append(COMMA)
+                  .append(QUOTES).append(MESSAGE).append(QUOTES).append(COLON).append(QUOTES).append(QUOTES)
+                  .append(CURLY_BRACKET_CLOSE);
+        return msgBuilder.toString();
+    }
+
+    private static void appendPkgs(final PkgJsonWriter jsonWriter, final Collection<Pkg> pkgs, final PkgProjection projection) {
+        final StringBuilder buffer = jsonWriter.getBuffer();
+        buffer.append(SQUARE_BRACKET_OPEN);
+        boolean first = true;
+        for (Pkg pkg : pkgs) {
+            if (!first) { buffer.append(COMMA); }
+            if (null != projection) {
+                projection.write(jsonWriter, pkg);
+            } else {
+                final String json = CacheManager.INSTANCE.jsonCacheV3.getAsString(pkg.getId());
+                if (null == json) {
+                    jsonWriter.write(pkg, OutputFormat.REDUCED_COMPRESSED, Constants.API_VERSION_V3);
+                } else {
+                    buffer.append(json);
+                }
+            }
+            first = false;
+        }
+        buffer.append(SQUARE_BRACKET_CLOSE);
+    }
+
+    /**
+     * Returns the packages (V3 json) that have been added or changed and the ids of the packages that have been removed
+     * since the given package cache generation. Packages that do not match the given filter anymore are part of the removed ids.
+     * If the changes since the given generation are not known anymore, the result only contains the current generation and
+     * full_resync_required is true. In this case all packages have to be loaded again.
+     * @param sinceGeneration Generation of the last result the client has received
+     * @param downloadable    If true only distributions that are directly downloadable will be returned
+     * @param include_ea      If true early access packages will be returned too
+     * @param scope           Only packages of distributions of this build scope will be returned (if BUILD_OF_OPEN_JDK or BUILD_OF_GRAALVM)
+     * @return the changes since the given generation as json
+     */
+    public static final String getPkgChangesMsgV3(final long sinceGeneration, final Boolean downloadable, final Boolean include_ea, final BuildScope scope) {
+        final PkgChangeLog.Changes     changes  = CacheManager.INSTANCE.pkgChangeLog.getChangesSince(sinceGeneration);
+        final PkgSnapshot<String, Pkg> snapshot = CacheManager.INSTANCE.getJsonCacheSnapshot();
+        final Predicate<Pkg>           filter   = AllPkgsWriter.filter(downloadable, include_ea, scope);
+        final List<Pkg>                pkgs     = new ArrayList<>();
+        final List<String>             removed  = new ArrayList<>(changes.removed());
+        for (String id : changes.upserted()) {
+            final Pkg pkg = snapshot.getPkgMap().get(id);
+            if (filter.test(pkg) && CacheManager.INSTANCE.jsonCacheV3.containsKey(id)) {
+                pkgs.add(pkg);
+            } else {
+                removed.add(id);
+            }
+        }
+
+        final StringBuilder msgBuilder = new StringBuilder();
+        msgBuilder.append(CURLY_BRACKET_OPEN)
+                  .append(QUOTES).append(RESULT).append(QUOTES).append(COLON).append(CURLY_BRACKET_OPEN)
+                  .append(QUOTES).append(GENERATION).append(QUOTES).append(COLON).append(changes.generation()).append(COMMA)
+                  .append(QUOTES).append(FULL_RESYNC_REQUIRED).append(QUOTES).append(COLON).append(changes.fullResyncRequired()).append(COMMA)
+                  .append(QUOTES).append(PACKAGES).append(QUOTES).append(COLON)
+                  .append(snapshot.sort(pkgs).stream()
+                                  .map(pkg -> CacheManager.INSTANCE.jsonCacheV3.getAsString(pkg.getId()))
+                                  .filter(Objects::nonNull)
+                                  .collect(Collectors.joining(COMMA, SQUARE_BRACKET_OPEN, SQUARE_BRACKET_CLOSE))).append(COMMA)
+                  .append(QUOTES).append(REMOVED_IDS).append(QUOTES).append(COLON)
+                  .append(removed.stream().map(id -> QUOTES + id + QUOTES).collect(Collectors.joining(COMMA, SQUARE_BRACKET_OPEN, SQUARE_BRACKET_CLOSE)))
+                  .append(CURLY_BRACKET_CLOSE).append(COMMA)
+                  .append(QUOTES).append(MESSAGE).append(QUOTES).append(COLON).append(QUOTES)
+                  .append(changes.fullResyncRequired() ? "Changes since generation " + sinceGeneration + " are not available, please load all packages" : "").append(QUOTES)
                   .append(CURLY_BRACKET_CLOSE);
         return msgBuilder.toString();
     }
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Json cache that stores the json of each package as UTF-8 encoded bytes. The bytes are
+ * encoded once when a package is added, so responses can write them to the output stream
+ * as they are without encoding them again per request.
+ * The returned byte arrays are shared and must not be modified.
+ * All methods delegate to the ConcurrentHashMap without additional locking, bulk
+ * operations are not atomic.
+ */
+public class JsonBytesCache<T extends String> implements Cache<T, byte[]> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonBytesCache.class);
+
+    private final ConcurrentHashMap<T, byte[]> cache = new ConcurrentHashMap<>(16, 0.9f, 1);
+
+
+    @Override public void add(final T key, final byte[] json) {
+        if (null == key) { return; }
+        if (null == json) {
+            LOGGER.debug("Package cannot be null -> removed key {}", key);
+            cache.remove(key);
+        } else {
+            cache.put(key, json);
+        }
+    }
+
+    @Override public byte[] get(final T key) {
+        return cache.get(key);
+    }
+
+    /**
+     * Returns the decoded json for the given key or null if the key is not cached
+     * @param key
+     * @return the decoded json for the given key or null if the key is not cached
+     */
+    public String getAsString(final T key) {
+        final byte[] json = cache.get(key);
+        return null == json ? null : new String(json, StandardCharsets.UTF_8);
+    }
+
+    @Override public void remove(final T key) {
+        cache.remove(key);
+    }
+    @Override public void remove(final List<T> keysToRemove) { keysToRemove.forEach(key -> cache.remove(key)); }
+
+    @Override public void addAll(final Map<T,byte[]> entries) {
+        cache.putAll(entries);
+    }
+
+    @Override public void clear() {
+        cache.clear();
+        LOGGER.debug("JSON bytes cache cleared");
+    }
+
+    @Override public long size() {
+        return cache.size();
+    }
+
+    @Override public boolean isEmpty() { return cache.isEmpty(); }
+
+    /**
+     * Encodes the given json as UTF-8 and stores it for the given key
+     * @param key
+     * @param json
+     */
+    public void put(final T key, final String json) {
+        if (null == key || null == json) { return; }
+        cache.put(key, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Encodes the given json as UTF-8 and stores it for the given key. The json is encoded
+     * directly from the given characters (e.g. a reused StringBuilder) without creating a String first.
+     * @param key
+     * @param json
+     */
+    public void put(final T key, final CharSequence json) {
+        if (null == key || null == json) { return; }
+        cache.put(key, encode(json));
+    }
+
+    public boolean containsKey(final T key) { return cache.containsKey(key); }
+
+    public Collection<T> getKeys() { return cache.keySet(); }
+
+    private static byte[] encode(final CharSequence text) {
+        final int    length = text.length();
+        final byte[] bytes  = new byte[length];
+        for (int i = 0 ; i < length ; i++) {
+            final char c = text.charAt(i);
+            // Non ASCII json is rare, it will be encoded by String.getBytes()
+            if (c >= 0x80) { return text.toString().getBytes(StandardCharsets.UTF_8); }
+            bytes[i] = (byte) c;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import eu.hansolo.jdktools.util.OutputFormat;
+import io.foojay.api.pkg.Feature;
+import io.foojay.api.pkg.Pkg;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.foojay.api.util.Constants.API_VERSION_V3;
+import static io.foojay.api.util.Constants.BASE_URL;
+import static io.foojay.api.util.Constants.ENDPOINT_IDS;
+import static io.foojay.api.util.Constants.SLASH;
+
+
+/**
+ * Writes a list of packages in a compact binary format for machine clients. It contains the same
+ * fields as the V3 json of a package but the field names are not repeated and all values that
+ * occur in many packages (enum values, versions, url prefixes) are written once into a dictionary
+ * and referenced by their index.
+ *
+ * Varints are unsigned LEB128 (7 bits per byte, least significant group first), signed numbers are
+ * zigzag encoded, strings are written as varint length followed by the UTF-8 bytes.
+ * <pre>
+ * magic               4 bytes 'F' 'J' 'P' 'K'
+ * format version      1 byte (1)
+ * generation          varint (package cache generation the list belongs to)
+ * pkg_info_uri prefix string (the pkg_info_uri of a package is prefix + id, pkg_download_redirect is prefix + id + "/redirect")
+ * dictionary size     varint
+ * dictionary entries  string * dictionary size
+ * number of packages  varint
+ * packages            one record per package:
+ *   id                     varint 0 followed by 16 bytes for hex ids of 32 characters, otherwise varint (length + 1) followed by the UTF-8 bytes
+ *   archive_type           dictionary index
+ *   distribution           dictionary index
+ *   major_version          varint
+ *   java_version           dictionary index
+ *   distribution_version   dictionary index
+ *   jdk_version            varint
+ *   flags                  1 byte (bit 0 latest_build_available, bit 1 javafx_bundled, bit 2 directly_downloadable, bit 3 free_use_in_production)
+ *   release_status         dictionary index
+ *   term_of_support        dictionary index
+ *   operating_system       dictionary index
+ *   lib_c_type             dictionary index
+ *   architecture           dictionary index
+ *   fpu                    dictionary index
+ *   package_type           dictionary index
+ *   filename               string
+ *   tck_tested             dictionary index
+ *   tck_cert_uri           dictionary index of the prefix (up to and including the last '/') followed by the rest as string
+ *   aqavit_certified       dictionary index
+ *   aqavit_cert_uri        dictionary index of the prefix (up to and including the last '/') followed by the rest as string
+ *   size                   zigzag varint
+ *   feature                varint number of features followed by one dictionary index (feature name) per feature
+ * </pre>
+ */
+public final class PkgBinaryWriter {
+    public  static final byte[]                MAGIC          = { 'F', 'J', 'P', 'K' };
+    public  static final int                   FORMAT_VERSION = 1;
+    private static final int                   FLAG_LATEST    = 1;
+    private static final int                   FLAG_JAVAFX    = 1 << 1;
+    private static final int                   FLAG_DIRECT    = 1 << 2;
+    private static final int                   FLAG_FREE_USE  = 1 << 3;
+    private        final Map<String, Integer>  dictionaryIndex;
+    private        final List<String>          dictionary;
+    private        final ByteArrayOutputStream records;
+
+
+    private PkgBinaryWriter() {
+        this.dictionaryIndex = new HashMap<>();
+        this.dictionary      = new ArrayList<>();
+        this.records         = new ByteArrayOutputStream(64 * 1024);
+    }
+
+
+    /**
+     * Returns the given packages in the binary format
+     * @param pkgs       Packages in the order they should be written
+     * @param generation Package cache generation the packages belong to
+     * @return the given packages in the binary format
+     */
+    public static byte[] write(final List<? extends Pkg> pkgs, final long generation) {
+        final PkgBinaryWriter writer = new PkgBinaryWriter();
+        pkgs.forEach(writer::writePkg);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(writer.records.size() + writer.dictionary.size() * 16 + 64);
+        out.writeBytes(MAGIC);
+        out.write(FORMAT_VERSION);
+        writeVarint(out, generation);
+        writeString(out, BASE_URL + SLASH + "v" + API_VERSION_V3 + SLASH + ENDPOINT_IDS + SLASH);
+        writeVarint(out, writer.dictionary.size());
+        writer.dictionary.forEach(entry -> writeString(out, entry));
+        writeVarint(out, pkgs.size());
+        out.writeBytes(writer.records.toByteArray());
+        return out.toByteArray();
+    }
+
+    private void writePkg(final Pkg pkg) {
+        writeId(pkg.getId());
+        writeSymbol(pkg.getArchiveType().getUiString());
+        writeSymbol(pkg.getDistribution().getDistro().getApiString());
+        writeVarint(records, pkg.getVersionNumber().getFeature().getAsInt());
+        writeSymbol(String.valueOf(pkg.getSemver()));
+        writeSymbol(pkg.getDistributionVersion().toString(OutputFormat.REDUCED_COMPRESSED, false, false));
+        writeVarint(records, pkg.getJdkVersion().getAsInt());
+        int flags = 0;
+        if (Boolean.TRUE.equals(pkg.isLatestBuildAvailable())) { flags |= FLAG_LATEST; }
+        if (Boolean.TRUE.equals(pkg.isJavaFXBundled()))        { flags |= FLAG_JAVAFX; }
+        if (Boolean.TRUE.equals(pkg.isDirectlyDownloadable())) { flags |= FLAG_DIRECT; }
+        if (Boolean.TRUE.equals(pkg.getFreeUseInProduction())) { flags |= FLAG_FREE_USE; }
+        records.write(flags);
+        writeSymbol(pkg.getReleaseStatus().getApiString());
+        writeSymbol(pkg.getTermOfSupport().getApiString());
+        writeSymbol(pkg.getOperatingSystem().getApiString());
+        writeSymbol(pkg.getLibCType().getApiString());
+        writeSymbol(pkg.getArchitecture().getApiString());
+        writeSymbol(pkg.getFPU().getApiString());
+        writeSymbol(pkg.getPackageType().getApiString());
+        writeString(records, pkg.getFilename());
+        writeSymbol(pkg.getTckTested().getApiString());
+        writeUri(pkg.getTckCertUri());
+        writeSymbol(pkg.getAqavitCertified().getApiString());
+        writeUri(pkg.getAqavitCertUri());
+        writeVarint(records, (pkg.getSize() << 1) ^ (pkg.getSize() >> 63));
+        writeVarint(records, pkg.getFeatures().size());
+        for (Feature feature : pkg.getFeatures()) { writeSymbol(feature.name()); }
+    }
+
+    private void writeId(final String id) {
+        if (isLowerCaseHex(id, 32)) {
+            records.write(0);
+            for (int i = 0 ; i < 32 ; i += 2) { records.write((Character.digit(id.charAt(i), 16) << 4) | Character.digit(id.charAt(i + 1), 16)); }
+        } else {
+            final byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+            writeVarint(records, bytes.length + 1);
+            records.writeBytes(bytes);
+        }
+    }
+
+    private void writeUri(final String uri) {
+        final String text  = null == uri ? "" : uri;
+        final int    slash = text.lastIndexOf('/');
+        writeSymbol(text.substring(0, slash + 1));
+        writeString(records, text.substring(slash + 1));
+    }
+
+    private void writeSymbol(final String symbol) {
+        final String text  = null == symbol ? "" : symbol;
+        Integer      index = dictionaryIndex.get(text);
+        if (null == index) {
+            index = dictionary.size();
+            dictionary.add(text);
+            dictionaryIndex.put(text, index);
+        }
+        writeVarint(records, index);
+    }
+
+    // Only lower case hex ids can be restored from the packed bytes
+    private static boolean isLowerCaseHex(final String text, final int length) {
+        if (null == text || text.length() != length) { return false; }
+        for (int i = 0 ; i < length ; i++) {
+            final char c = text.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) { return false; }
+        }
+        return true;
+    }
+
+    private static void writeString(final ByteArrayOutputStream out, final String text) {
+        final byte[] bytes = (null == text ? "" : text).getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static void writeVarint(final ByteArrayOutputStream out, final long value) {
+        long v = value;
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+}
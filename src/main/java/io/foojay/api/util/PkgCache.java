@@ -23,7 +23,6 @@ import io.foojay.api.pkg.Pkg;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -31,56 +30,71 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-
-
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+
+/**
+ * The package cache holds an immutable snapshot of all packages. Readers always
+ * get a consistent snapshot without copying and every modification publishes a
+ * new snapshot with an incremented generation in one atomic swap.
+ * Because every modification copies the package map, the single entry methods
+ * (add(), remove(), ...) are meant for occasional changes only. Bulk changes
+ * should be done in one modification with setAll() or replaceAll() instead of
+ * calling add() or remove() in a loop.
+ */
 public class PkgCache<T extends String, U extends Pkg> implements Cache<T, U> {
     private static final Logger LOGGER = LoggerFactory.getLogger(PkgCache.class);
 
-    private final ConcurrentHashMap<T, U> cache = new ConcurrentHashMap<>(16, 0.9f, 1);
+    private final AtomicReference<PkgSnapshot<T, U>> snapshot = new AtomicReference<>(PkgSnapshot.empty());
 
 
     @Override public void add(final T key, final U pkg) {
         if (null == key) { return; }
         if (null == pkg) {
             LOGGER.debug("Package cannot be null -> removed key {}", key);
-            cache.remove(key);
+            remove(key);
         } else {
-            cache.put(key, pkg);
+            modify(cache -> cache.put(key, pkg));
         }
     }
 
     @Override public U get(final T key) {
-        return cache.get(key);
+        return null == key ? null : snapshot.get().getPkgMap().get(key);
     }
 
     @Override public void remove(final T key) {
-        cache.remove(key);
+        if (null == key) { return; }
+        modify(cache -> cache.remove(key));
     }
-    @Override public void remove(final List<T> keysToRemove) { keysToRemove.forEach(key -> cache.remove(key)); }
+    @Override public void remove(final List<T> keysToRemove) { modify(cache -> keysToRemove.forEach(key -> cache.remove(key))); }
 
-    @Override public synchronized void addAll(final Map<T,U> entries) {
-        cache.putAll(entries);
+    @Override public void addAll(final Map<T,U> entries) {
+        modify(cache -> cache.putAll(entries));
     }
 
-    @Override public synchronized void clear() {
-        cache.clear();
+    @Override public void clear() {
+        setAll(Map.of());
         LOGGER.debug("Package cache cleared");
     }
 
-    @Override public synchronized long size() {
-        return cache.size();
+    @Override public long size() {
+        return snapshot.get().size();
     }
 
-    @Override public synchronized boolean isEmpty() { return cache.isEmpty(); }
+    @Override public boolean isEmpty() { return snapshot.get().isEmpty(); }
 
     /**
-     * Replaces all entries in the cache with the ones in the given patch
+     * Replaces all entries in the cache with the ones in the given patch by
+     * publishing a new snapshot. Readers will either see the old or the new
+     * snapshot but never an empty or partly filled cache.
      * @param patch
      */
-    public void setAll(final Map<T,U> patch) {
-        cache.clear();
-        cache.putAll(patch);
-        LOGGER.debug("Package cache cleared and set with new data");
+    public synchronized void setAll(final Map<T,U> patch) {
+        final PkgSnapshot<T, U> newSnapshot = new PkgSnapshot<>(snapshot.get().getGeneration() + 1, patch);
+        snapshot.set(newSnapshot);
+        LOGGER.debug("Package cache set with new data (generation {})", newSnapshot.getGeneration());
     }
 
     /**
@@ -88,7 +102,7 @@ public class PkgCache<T extends String, U extends Pkg> implements Cache<T, U> {
      * existing entries.
      * @param patch Map that contains existing and new entries
      */
-    public void synchronize(final Map<T, U> patch) { patch.forEach(cache::putIfAbsent); }
+    public void synchronize(final Map<T, U> patch) { modify(cache -> patch.forEach(cache::putIfAbsent)); }
 
     /**
      * Updates the cache with the values from the given patch map including updates
@@ -98,15 +112,11 @@ public class PkgCache<T extends String, U extends Pkg> implements Cache<T, U> {
      * @param removeIfNotInPatch
      */
     public void update(final Map<T, U> patch, final boolean removeIfNotInPatch) {
+        modify(cache -> {
             patch.forEach((key, value) -> cache.merge(key, value, (v1, v2) -> v1.equals(v2) ? v1 : v2));
-            if (removeIfNotInPatch) {
-                if (cache.size() > patch.size()) {
-                    Map<T, U> toRemoveFromTarget = new HashMap<>();
-                    cache.entrySet().stream().filter(entry -> !patch.containsKey(entry.getKey())).forEach(entry -> toRemoveFromTarget.put(entry.getKey(), entry.getValue()));
-                    toRemoveFromTarget.keySet().forEach(key -> cache.remove(key));
-                }
-            }
-        }
+            if (removeIfNotInPatch && cache.size() > patch.size()) { cache.keySet().removeIf(key -> !patch.containsKey(key)); }
+        });
+    }
 
     /**
      * Replaces all entries in the cache with values from the given patch. In addition
@@ -115,29 +125,52 @@ public class PkgCache<T extends String, U extends Pkg> implements Cache<T, U> {
      * @param removeIfNotInPatch
      */
     public void replace(final Map<T, U> patch, final boolean removeIfNotInPatch) {
+        modify(cache -> {
             patch.forEach((key, value) -> cache.replace(key, value));
-            if (removeIfNotInPatch) {
-                if (cache.size() > patch.size()) {
-                    Map<T, U> toRemoveFromTarget = new HashMap<>();
-                    cache.entrySet().stream().filter(entry -> !patch.containsKey(entry.getKey())).forEach(entry -> toRemoveFromTarget.put(entry.getKey(), entry.getValue()));
-                    toRemoveFromTarget.keySet().forEach(key -> cache.remove(key));
-                }
-            }
-        }
+            if (removeIfNotInPatch && cache.size() > patch.size()) { cache.keySet().removeIf(key -> !patch.containsKey(key)); }
+        });
+    }
 
-    public boolean containsKey(final T key) { return cache.containsKey(key); }
+    /**
+     * Removes all entries that match the given filter and adds the entries of the given patch
+     * in one modification, so readers will never see the cache without the removed entries
+     * and before the patch has been added (e.g. to replace all packages of a distribution).
+     * @param toRemove Filter for the entries that should be removed
+     * @param patch    Entries that should be added
+     */
+    public void replaceAll(final Predicate<? super U> toRemove, final Map<T, U> patch) {
+        modify(cache -> {
+            cache.values().removeIf(toRemove);
+            cache.putAll(patch);
+        });
+    }
 
-    public Set<Entry<T,U>> getEntrySet() { return cache.entrySet(); }
+    public boolean containsKey(final T key) { return null != key && snapshot.get().getPkgMap().containsKey(key); }
 
-    public Collection<T> getKeys() { return cache.keySet(); }
+    public Set<Entry<T,U>> getEntrySet() { return snapshot.get().getPkgMap().entrySet(); }
 
-    public Collection<U> getPkgs() { return new ArrayList<>(cache.values()); }
+    public Collection<T> getKeys() { return snapshot.get().getPkgMap().keySet(); }
+
+    /**
+     * Returns the unmodifiable list of packages of the current snapshot
+     * @return the unmodifiable list of packages of the current snapshot
+     */
+    public List<U> getPkgs() { return snapshot.get().getPkgs(); }
+
+    /**
+     * Returns the current snapshot of the cache. The snapshot is immutable and stays
+     * consistent even if the cache will be updated while it is in use.
+     * @return the current snapshot of the cache
+     */
+    public PkgSnapshot<T, U> getSnapshot() { return snapshot.get(); }
+
+    public long getGeneration() { return snapshot.get().getGeneration(); }
 
     /**
      * Returns a shallow copy of the cache
      * @return a shallow copy of the cache
      */
-    public ConcurrentHashMap<T,U> getCopy() { return new ConcurrentHashMap<>(cache); }
+    public ConcurrentHashMap<T,U> getCopy() { return new ConcurrentHashMap<>(snapshot.get().getPkgMap()); }
 
     /**
      * Returns a deep copy of the cache
@@ -145,11 +178,17 @@ public class PkgCache<T extends String, U extends Pkg> implements Cache<T, U> {
      */
     public ConcurrentHashMap<String, Pkg> getDeepCopy() {
         ConcurrentHashMap<String, Pkg> deepCopy = new ConcurrentHashMap<>(16, 0.6f, 1);
-        for (Entry<T,U> entry : cache.entrySet()) {
-            Pkg pkg = new Pkg(entry.getValue());
-            deepCopy.put(pkg.getId(), pkg);
+        for (U pkg : snapshot.get().getPkgs()) {
+            Pkg copy = new Pkg(pkg);
+            deepCopy.put(copy.getId(), copy);
         }
         return deepCopy;
     }
-}
 
+    private synchronized void modify(final Consumer<Map<T, U>> modification) {
+        final PkgSnapshot<T, U> current = snapshot.get();
+        final Map<T, U>         cache   = new HashMap<>(current.getPkgMap());
+        modification.accept(cache);
+        snapshot.set(new PkgSnapshot<>(current.getGeneration() + 1, cache));
+    }
+}
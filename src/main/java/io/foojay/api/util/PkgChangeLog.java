@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+
+/**
+ * Bounded ring of the package changes of the last package cache generations.
+ * Each entry contains the ids of the packages that have been added, changed or removed
+ * between two generations. Clients that know the generation of their copy of the packages
+ * can ask for the changes since that generation instead of loading all packages again.
+ * If the generation is not known anymore (too old or not a recorded generation) the client
+ * has to do a full resync.
+ */
+public final class PkgChangeLog {
+    public  static final int          DEFAULT_CAPACITY = 128;
+    private        final int          capacity;
+    private        final Deque<Entry> entries;
+    private              long         generation;
+
+
+    public PkgChangeLog() {
+        this(DEFAULT_CAPACITY);
+    }
+    public PkgChangeLog(final int capacity) {
+        if (capacity < 1) { throw new IllegalArgumentException("Capacity must be at least 1"); }
+        this.capacity   = capacity;
+        this.entries    = new ArrayDeque<>(capacity);
+        this.generation = -1;
+    }
+
+
+    /**
+     * Records the changes between the given generations. If the given from generation is not
+     * the current generation of the log, all recorded changes will be dropped because the
+     * chain of generations is broken.
+     * @param fromGeneration Generation the changes are based on
+     * @param toGeneration   Generation that contains the changes
+     * @param added          Ids of the packages that have been added
+     * @param changed        Ids of the packages that have been changed
+     * @param removed        Ids of the packages that have been removed
+     */
+    public synchronized void record(final long fromGeneration, final long toGeneration, final Collection<String> added, final Collection<String> changed, final Collection<String> removed) {
+        if (toGeneration <= fromGeneration) { throw new IllegalArgumentException("toGeneration must be greater than fromGeneration"); }
+        if (fromGeneration != generation) { entries.clear(); }
+        entries.addLast(new Entry(fromGeneration, toGeneration, Set.copyOf(added), Set.copyOf(changed), Set.copyOf(removed)));
+        if (entries.size() > capacity) { entries.removeFirst(); }
+        generation = toGeneration;
+    }
+
+    /**
+     * Drops all recorded changes and sets the current generation, clients with an older
+     * generation have to do a full resync
+     * @param generation Current generation
+     */
+    public synchronized void reset(final long generation) {
+        entries.clear();
+        this.generation = generation;
+    }
+
+    public synchronized long getGeneration() { return generation; }
+
+    public synchronized int size() { return entries.size(); }
+
+    /**
+     * Returns the changes between the given generation and the current generation.
+     * Packages that have been added or changed and were removed afterwards are only part of the removed ids,
+     * packages that have been removed and were added again afterwards are only part of the upserted ids.
+     * @param sinceGeneration Generation of the client
+     * @return the changes since the given generation or a result that requires a full resync
+     */
+    public synchronized Changes getChangesSince(final long sinceGeneration) {
+        if (sinceGeneration == generation) { return new Changes(generation, false, Set.of(), Set.of()); }
+
+        final Iterator<Entry> iterator = entries.iterator();
+        Entry entry = null;
+        while (iterator.hasNext()) {
+            final Entry candidate = iterator.next();
+            if (candidate.fromGeneration() == sinceGeneration) {
+                entry = candidate;
+                break;
+            }
+        }
+        if (null == entry) { return new Changes(generation, true, Set.of(), Set.of()); }
+
+        final Set<String> upserted = new LinkedHashSet<>();
+        final Set<String> removed  = new LinkedHashSet<>();
+        while (null != entry) {
+            for (String id : entry.added())   { upserted.add(id); removed.remove(id); }
+            for (String id : entry.changed()) { upserted.add(id); removed.remove(id); }
+            for (String id : entry.removed()) { upserted.remove(id); removed.add(id); }
+            entry = iterator.hasNext() ? iterator.next() : null;
+        }
+        return new Changes(generation, false, Collections.unmodifiableSet(upserted), Collections.unmodifiableSet(removed));
+    }
+
+
+    /**
+     * Changes since a given generation
+     * @param generation         Current generation, clients should ask for the changes since this generation next time
+     * @param fullResyncRequired True if the changes are not known anymore and all packages have to be loaded again
+     * @param upserted           Ids of the packages that have been added or changed
+     * @param removed            Ids of the packages that have been removed
+     */
+    public record Changes(long generation, boolean fullResyncRequired, Set<String> upserted, Set<String> removed) {}
+
+    private record Entry(long fromGeneration, long toGeneration, Set<String> added, Set<String> changed, Set<String> removed) {}
+}
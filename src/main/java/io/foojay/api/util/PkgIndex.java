@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import eu.hansolo.jdktools.Architecture;
+import eu.hansolo.jdktools.ArchiveType;
+import eu.hansolo.jdktools.Bitness;
+import eu.hansolo.jdktools.FPU;
+import eu.hansolo.jdktools.LibCType;
+import eu.hansolo.jdktools.OperatingSystem;
+import eu.hansolo.jdktools.PackageType;
+import eu.hansolo.jdktools.ReleaseStatus;
+import eu.hansolo.jdktools.TermOfSupport;
+import io.foojay.api.distribution.Distribution;
+import io.foojay.api.pkg.Feature;
+import io.foojay.api.pkg.Pkg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+
+/**
+ * Immutable bitmap index over the enum valued dimensions of a set of packages.
+ * Every package gets an ordinal and for each value of a dimension a BitSet
+ * marks the ordinals of the packages that have this value. A query is then
+ * just a couple of BitSet operations and only the matching packages will be
+ * materialized.
+ * The ordinal of a package is its position in the collection the index was built from,
+ * selections are returned in that order.
+ * Each snapshot of the package cache comes with its own index.
+ */
+public final class PkgIndex {
+    private final Pkg[]                       pkgs;
+    private final Map<Pkg, Integer>           ordinals;
+    private final long[]                      versionKeys;
+    private final int[]                       versionOrdinals;
+    private final BitSet                      versionsWithoutKey;
+    private final BitSet                      all;
+    private final Dimension<Distribution>     distributions;
+    private final Dimension<Architecture>     architectures;
+    private final Dimension<OperatingSystem>  operatingSystems;
+    private final Dimension<LibCType>         libCTypes;
+    private final Dimension<ArchiveType>      archiveTypes;
+    private final Dimension<PackageType>      packageTypes;
+    private final Dimension<ReleaseStatus>    releaseStatus;
+    private final Dimension<TermOfSupport>    termsOfSupport;
+    private final Dimension<FPU>              fpus;
+    private final Dimension<Bitness>          bitnesses;
+    private final Dimension<Boolean>          javafxBundled;
+    private final Dimension<Boolean>          directlyDownloadable;
+    private final Dimension<Feature>          features;
+
+
+    public PkgIndex(final Collection<? extends Pkg> pkgs) {
+        this.pkgs                 = pkgs.toArray(new Pkg[0]);
+        this.ordinals             = new IdentityHashMap<>(this.pkgs.length);
+        for (int i = 0 ; i < this.pkgs.length ; i++) { this.ordinals.put(this.pkgs[i], i); }
+        this.versionsWithoutKey   = new BitSet(this.pkgs.length);
+        for (int i = 0 ; i < this.pkgs.length ; i++) {
+            if (VersionKey.NONE == this.pkgs[i].getVersionKey()) { this.versionsWithoutKey.set(i); }
+        }
+        this.versionOrdinals      = IntStream.range(0, this.pkgs.length)
+                                             .filter(i -> !versionsWithoutKey.get(i))
+                                             .boxed()
+                                             .sorted(Comparator.comparingLong(i -> this.pkgs[i].getVersionKey()))
+                                             .mapToInt(Integer::intValue)
+                                             .toArray();
+        this.versionKeys          = Arrays.stream(this.versionOrdinals).mapToLong(i -> this.pkgs[i].getVersionKey()).toArray();
+        this.all                  = new BitSet(this.pkgs.length);
+        this.all.set(0, this.pkgs.length);
+        this.distributions        = new Dimension<>(this.pkgs, Pkg::getDistribution);
+        this.architectures        = new Dimension<>(this.pkgs, Pkg::getArchitecture);
+        this.operatingSystems     = new Dimension<>(this.pkgs, Pkg::getOperatingSystem);
+        this.libCTypes            = new Dimension<>(this.pkgs, Pkg::getLibCType);
+        this.archiveTypes         = new Dimension<>(this.pkgs, Pkg::getArchiveType);
+        this.packageTypes         = new Dimension<>(this.pkgs, Pkg::getPackageType);
+        this.releaseStatus        = new Dimension<>(this.pkgs, Pkg::getReleaseStatus);
+        this.termsOfSupport       = new Dimension<>(this.pkgs, Pkg::getTermOfSupport);
+        this.fpus                 = new Dimension<>(this.pkgs, Pkg::getFPU);
+        this.bitnesses            = new Dimension<>(this.pkgs, Pkg::getBitness);
+        this.javafxBundled        = new Dimension<>(this.pkgs, Pkg::isJavaFXBundled);
+        this.directlyDownloadable = new Dimension<>(this.pkgs, Pkg::isDirectlyDownloadable);
+        this.features             = Dimension.ofMultipleValues(this.pkgs, Pkg::getFeatures);
+    }
+
+
+    public int size() { return pkgs.length; }
+
+    public boolean isEmpty() { return 0 == pkgs.length; }
+
+    /**
+     * Returns the position of the given package in this index or -1 if it is not part of it
+     * @param pkg
+     * @return the position of the given package in this index or -1 if it is not part of it
+     */
+    public int getOrdinal(final Pkg pkg) { return ordinals.getOrDefault(pkg, -1); }
+
+    /**
+     * Returns the given packages in the order of this index without comparing them.
+     * If one of the packages is not part of this index (or contained more than once),
+     * the packages will be sorted by the given comparator instead.
+     * @param pkgs       Packages to sort
+     * @param comparator Comparator that will be used if the packages are not all part of this index
+     * @return the given packages in the order of this index
+     */
+    public List<Pkg> sort(final Collection<? extends Pkg> pkgs, final Comparator<Pkg> comparator) {
+        final BitSet selection = new BitSet(this.pkgs.length);
+        for (Pkg pkg : pkgs) {
+            final int ordinal = getOrdinal(pkg);
+            if (ordinal < 0 || selection.get(ordinal)) {
+                final List<Pkg> sorted = new ArrayList<>(pkgs);
+                sorted.sort(comparator);
+                return sorted;
+            }
+            selection.set(ordinal);
+        }
+        return materialize(selection);
+    }
+
+    /**
+     * Returns all packages that match the given criteria in the order they have been indexed.
+     * The semantics of the parameters follow the filters in DiscoService:
+     * A collection that is null does not restrict the result, an empty collection only
+     * excludes packages where the dimension is null and a non empty collection selects
+     * all packages that have one of the given values (for features at least one of them).
+     * A package type or bitness of NONE selects everything except NONE, a javafx bundled
+     * or directly downloadable flag of null selects all packages where the flag is not null.
+     * @return list of packages that match the given criteria
+     */
+    public List<Pkg> select(final Collection<Distribution> distributions, final Collection<Architecture> architectures, final Collection<ArchiveType> archiveTypes, final Collection<OperatingSystem> operatingSystems,
+                            final Collection<LibCType> libCTypes, final Collection<TermOfSupport> termsOfSupport, final PackageType packageType, final Collection<ReleaseStatus> releaseStatus,
+                            final Bitness bitness, final Collection<FPU> fpus, final Boolean javafxBundled, final Boolean directlyDownloadable, final Collection<Feature> features) {
+        return select(all, distributions, architectures, archiveTypes, operatingSystems, libCTypes, termsOfSupport, packageType, releaseStatus, bitness, fpus, javafxBundled, directlyDownloadable, features);
+    }
+    /**
+     * Same as select() but only takes the packages with the given ordinals into account (e.g. the result of getVersionRange()).
+     * @return list of packages with the given ordinals that match the given criteria
+     */
+    public List<Pkg> select(final BitSet candidates, final Collection<Distribution> distributions, final Collection<Architecture> architectures, final Collection<ArchiveType> archiveTypes, final Collection<OperatingSystem> operatingSystems,
+                            final Collection<LibCType> libCTypes, final Collection<TermOfSupport> termsOfSupport, final PackageType packageType, final Collection<ReleaseStatus> releaseStatus,
+                            final Bitness bitness, final Collection<FPU> fpus, final Boolean javafxBundled, final Boolean directlyDownloadable, final Collection<Feature> features) {
+        final BitSet selection = (BitSet) candidates.clone();
+        this.distributions.and(selection, distributions);
+        this.architectures.and(selection, architectures);
+        this.archiveTypes.and(selection, archiveTypes);
+        this.operatingSystems.and(selection, operatingSystems);
+        this.libCTypes.and(selection, libCTypes);
+        this.termsOfSupport.and(selection, termsOfSupport);
+        this.releaseStatus.and(selection, releaseStatus);
+        this.fpus.and(selection, fpus);
+        this.features.and(selection, features);
+
+        if (PackageType.NONE == packageType) { this.packageTypes.andNot(selection, packageType); } else { this.packageTypes.andEqual(selection, packageType); }
+        if (Bitness.NONE     == bitness)     { this.bitnesses.andNot(selection, bitness);        } else { this.bitnesses.andEqual(selection, bitness);        }
+
+        if (null == javafxBundled)        { this.javafxBundled.andNotNull(selection);        } else { this.javafxBundled.andEqual(selection, javafxBundled);               }
+        if (null == directlyDownloadable) { this.directlyDownloadable.andNotNull(selection); } else { this.directlyDownloadable.andEqual(selection, directlyDownloadable); }
+
+        return materialize(selection);
+    }
+
+    /**
+     * Returns the ordinals of all packages with a version between the given version keys by using
+     * binary search on the sorted version keys. Packages with a version that does not fit into a
+     * VersionKey are always part of the result and have to be checked by the caller.
+     * If one of the given keys is VersionKey.NONE, all packages will be returned.
+     * @param minKey       Lower bound of the version range
+     * @param minInclusive True if the lower bound is part of the range
+     * @param maxKey       Upper bound of the version range
+     * @param maxInclusive True if the upper bound is part of the range
+     * @return the ordinals of all packages with a version between the given version keys
+     */
+    public BitSet getVersionRange(final long minKey, final boolean minInclusive, final long maxKey, final boolean maxInclusive) {
+        if (VersionKey.NONE == minKey || VersionKey.NONE == maxKey) { return (BitSet) all.clone(); }
+        final BitSet range = (BitSet) versionsWithoutKey.clone();
+        final int    from  = minInclusive ? lowerBound(minKey) : upperBound(minKey);
+        final int    to    = maxInclusive ? upperBound(maxKey) : lowerBound(maxKey);
+        for (int i = from ; i < to ; i++) { range.set(versionOrdinals[i]); }
+        return range;
+    }
+
+    // Index of the first version key that is >= the given key
+    private int lowerBound(final long key) {
+        int low  = 0;
+        int high = versionKeys.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (versionKeys[mid] < key) { low = mid + 1; } else { high = mid; }
+        }
+        return low;
+    }
+
+    // Index of the first version key that is > the given key
+    private int upperBound(final long key) {
+        int low  = 0;
+        int high = versionKeys.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (versionKeys[mid] <= key) { low = mid + 1; } else { high = mid; }
+        }
+        return low;
+    }
+
+    private List<Pkg> materialize(final BitSet selection) {
+        final List<Pkg> result = new ArrayList<>(selection.cardinality());
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) { result.add(pkgs[i]); }
+        return result;
+    }
+
+
+    private static final class Dimension<T> {
+        private static final BitSet         NONE_SET = new BitSet(0);
+        private        final Map<T, BitSet> bitmaps  = new HashMap<>();
+        private        final BitSet         present;
+        private        final BitSet         nulls;
+
+
+        private Dimension(final Pkg[] pkgs, final Function<Pkg, T> valueOf) {
+            this.present = new BitSet(pkgs.length);
+            this.nulls   = new BitSet(pkgs.length);
+            for (int i = 0 ; i < pkgs.length ; i++) {
+                final T value = valueOf.apply(pkgs[i]);
+                if (null == value) {
+                    nulls.set(i);
+                } else {
+                    bitmaps.computeIfAbsent(value, v -> new BitSet(pkgs.length)).set(i);
+                    present.set(i);
+                }
+            }
+        }
+        private Dimension(final int size) {
+            this.present = new BitSet(size);
+            this.nulls   = new BitSet(size);
+        }
+
+
+        private static <T> Dimension<T> ofMultipleValues(final Pkg[] pkgs, final Function<Pkg, Collection<T>> valuesOf) {
+            final Dimension<T> dimension = new Dimension<>(pkgs.length);
+            for (int i = 0 ; i < pkgs.length ; i++) {
+                final Collection<T> values = valuesOf.apply(pkgs[i]);
+                if (null == values) {
+                    dimension.nulls.set(i);
+                } else {
+                    for (T value : values) { dimension.bitmaps.computeIfAbsent(value, v -> new BitSet(pkgs.length)).set(i); }
+                    dimension.present.set(i);
+                }
+            }
+            return dimension;
+        }
+
+
+        private void and(final BitSet selection, final Collection<T> values) {
+            if (null == values) { return; }
+            if (values.isEmpty()) {
+                selection.and(present);
+            } else {
+                final BitSet union = new BitSet(selection.size());
+                for (T value : values) { union.or(bitmaps.getOrDefault(value, NONE_SET)); }
+                selection.and(union);
+            }
+        }
+
+        private void andEqual(final BitSet selection, final T value) { selection.and(null == value ? nulls : bitmaps.getOrDefault(value, NONE_SET)); }
+
+        private void andNot(final BitSet selection, final T value) { selection.andNot(bitmaps.getOrDefault(value, NONE_SET)); }
+
+        private void andNotNull(final BitSet selection) { selection.and(present); }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import eu.hansolo.jdktools.Architecture;
+import eu.hansolo.jdktools.ArchiveType;
+import eu.hansolo.jdktools.Bitness;
+import eu.hansolo.jdktools.FPU;
+import eu.hansolo.jdktools.Latest;
+import eu.hansolo.jdktools.LibCType;
+import eu.hansolo.jdktools.Match;
+import eu.hansolo.jdktools.OperatingSystem;
+import eu.hansolo.jdktools.PackageType;
+import eu.hansolo.jdktools.ReleaseStatus;
+import eu.hansolo.jdktools.TermOfSupport;
+import eu.hansolo.jdktools.Verification;
+import eu.hansolo.jdktools.scopes.Scope;
+import eu.hansolo.jdktools.util.Comparison;
+import eu.hansolo.jdktools.util.OutputFormat;
+import eu.hansolo.jdktools.versioning.VersionNumber;
+import io.foojay.api.distribution.Distribution;
+import io.foojay.api.pkg.Distro;
+import io.foojay.api.pkg.Feature;
+import io.foojay.api.pkg.MajorVersion;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+
+/**
+ * Canonical form of the parameters of a package query in DiscoService that can be used as a cache key.
+ * Lists are sorted and free of duplicates, versions are represented by their full string and parameters
+ * that do not have an effect on the result are normalized (e.g. with_javafx_if_available is only taken
+ * into account if javafx_bundled is not set and latest is only taken into account for Comparison.EQUAL).
+ * A list that is null stays null because it has a different meaning than an empty list.
+ */
+public record PkgQuery(boolean versionRange, String fromVersion, String toVersion, Comparison comparison, Integer jdkVersion, List<Distro> distributions, List<Architecture> architectures,
+                       List<FPU> fpus, List<ArchiveType> archiveTypes, PackageType packageType, List<OperatingSystem> operatingSystems, List<LibCType> libCTypes, List<ReleaseStatus> releaseStatus,
+                       List<TermOfSupport> termsOfSupport, Bitness bitness, Boolean javafxBundled, boolean withFxIfAvailable, Boolean directlyDownloadable, Latest latest, List<Feature> features,
+                       Boolean signatureAvailable, Boolean freeToUseInProduction, Verification tckTested, Verification aqavitCertified, List<Scope> distroScopes, Match match, List<Scope> pkgScopes) {
+    private static final Comparator<Scope> SCOPE_COMPARATOR = Comparator.comparing((Scope scope) -> scope.getClass().getName()).thenComparing(Scope::getApiString);
+
+
+    public static PkgQuery ofRange(final VersionNumber fromVersionNumber, final VersionNumber toVersionNumber, final MajorVersion jdkVersion, final List<Distribution> distributions, final List<Architecture> architectures, final List<FPU> fpus, final List<ArchiveType> archiveTypes,
+                                   final PackageType packageType, final List<OperatingSystem> operatingSystems, final List<LibCType> libCTypes, final List<ReleaseStatus> releaseStatus, final List<TermOfSupport> termsOfSupport,
+                                   final Bitness bitness, final Boolean javafxBundled, final Boolean withFxIfAvailable, final Boolean directlyDownloadable, final List<Feature> features, final Boolean signatureAvailable,
+                                   final Boolean freeToUseInProduction, final Verification tckTested, final Verification aqavitCertified, final List<Scope> distroScopes, final Match match, final List<Scope> pkgScopes) {
+        return new PkgQuery(true, toString(fromVersionNumber), toString(toVersionNumber), null, toInteger(jdkVersion), toDistros(distributions), canonical(architectures),
+                            canonical(fpus), canonical(archiveTypes), packageType, canonical(operatingSystems), canonical(libCTypes), canonical(releaseStatus),
+                            canonical(termsOfSupport), bitness, javafxBundled, null == javafxBundled && Boolean.TRUE.equals(withFxIfAvailable), directlyDownloadable, null, canonical(features),
+                            signatureAvailable, freeToUseInProduction, tckTested, aqavitCertified, canonical(distroScopes, SCOPE_COMPARATOR), match, toScopes(pkgScopes));
+    }
+
+    public static PkgQuery of(final VersionNumber versionNumber, final VersionNumber toVersionNumber, final Comparison comparison, final MajorVersion jdkVersion, final List<Distribution> distributions, final List<Architecture> architectures, final List<FPU> fpus, final List<ArchiveType> archiveTypes,
+                              final PackageType packageType, final List<OperatingSystem> operatingSystems, final List<LibCType> libCTypes, final List<ReleaseStatus> releaseStatus, final List<TermOfSupport> termsOfSupport,
+                              final Bitness bitness, final Boolean javafxBundled, final Boolean withFxIfAvailable, final Boolean directlyDownloadable, final Latest latest, final List<Feature> features, final Boolean signatureAvailable,
+                              final Boolean freeToUseInProduction, final Verification tckTested, final Verification aqavitCertified, final List<Scope> distroScopes, final Match match, final List<Scope> pkgScopes) {
+        return new PkgQuery(false, toString(versionNumber), toString(toVersionNumber), comparison, toInteger(jdkVersion), toDistros(distributions), canonical(architectures),
+                            canonical(fpus), canonical(archiveTypes), packageType, canonical(operatingSystems), canonical(libCTypes), canonical(releaseStatus),
+                            canonical(termsOfSupport), bitness, javafxBundled, null == javafxBundled && Boolean.TRUE.equals(withFxIfAvailable), directlyDownloadable, Comparison.EQUAL == comparison ? latest : null, canonical(features),
+                            signatureAvailable, freeToUseInProduction, tckTested, aqavitCertified, canonical(distroScopes, SCOPE_COMPARATOR), match, toScopes(pkgScopes));
+    }
+
+
+    private static String toString(final VersionNumber versionNumber) {
+        return null == versionNumber ? null : versionNumber.toString(OutputFormat.FULL_COMPRESSED, true, true);
+    }
+
+    private static Integer toInteger(final MajorVersion majorVersion) {
+        return null == majorVersion ? null : majorVersion.getAsInt();
+    }
+
+    private static List<Distro> toDistros(final List<Distribution> distributions) {
+        return null == distributions ? null : canonical(distributions.stream().map(distribution -> null == distribution ? null : distribution.getDistro()).toList());
+    }
+
+    private static List<Scope> toScopes(final List<Scope> scopes) {
+        return null == scopes ? List.of() : canonical(scopes, SCOPE_COMPARATOR);
+    }
+
+    private static <T extends Comparable<? super T>> List<T> canonical(final Collection<T> values) {
+        return canonical(values, Comparator.naturalOrder());
+    }
+    private static <T> List<T> canonical(final Collection<T> values, final Comparator<? super T> comparator) {
+        return null == values ? null : values.stream().distinct().sorted(Comparator.nullsFirst(comparator)).toList();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import io.foojay.api.pkg.Pkg;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+
+/**
+ * Immutable state of the package cache at a given generation.
+ * A snapshot will never be modified after it was published by the PkgCache,
+ * so readers can use it without copying or locking.
+ * The packages are sorted by Pkg.DEFAULT_ORDER and indexed on first access, so
+ * everything that is selected by the index will already be in the right order and
+ * intermediate snapshots that are never read do not pay for sorting and indexing.
+ */
+public final class PkgSnapshot<T extends String, U extends Pkg> {
+    private final    long           generation;
+    private final    Map<T, U>      pkgMap;
+    private volatile List<U>        pkgs;
+    private volatile PkgIndex       index;
+    private volatile VersionCatalog versionCatalog;
+
+
+    PkgSnapshot(final long generation, final Map<T, U> pkgMap) {
+        this.generation = generation;
+        this.pkgMap     = Map.copyOf(pkgMap);
+    }
+
+
+    public static <T extends String, U extends Pkg> PkgSnapshot<T, U> empty() { return new PkgSnapshot<>(0, Map.of()); }
+
+
+    public long getGeneration() { return generation; }
+
+    public Map<T, U> getPkgMap() { return pkgMap; }
+
+    /**
+     * Returns the packages of this snapshot sorted by Pkg.DEFAULT_ORDER, they will be sorted on first access.
+     * @return the unmodifiable list of packages of this snapshot sorted by Pkg.DEFAULT_ORDER
+     */
+    public List<U> getPkgs() {
+        List<U> sortedPkgs = pkgs;
+        if (null == sortedPkgs) {
+            synchronized (this) {
+                sortedPkgs = pkgs;
+                if (null == sortedPkgs) {
+                    sortedPkgs = pkgMap.values().stream().sorted(Pkg.DEFAULT_ORDER).collect(Collectors.toUnmodifiableList());
+                    pkgs       = sortedPkgs;
+                }
+            }
+        }
+        return sortedPkgs;
+    }
+
+    /**
+     * Returns the index of this snapshot, it will be built on first access.
+     * @return the index of this snapshot
+     */
+    public PkgIndex getIndex() {
+        PkgIndex pkgIndex = index;
+        if (null == pkgIndex) {
+            synchronized (this) {
+                pkgIndex = index;
+                if (null == pkgIndex) {
+                    pkgIndex = new PkgIndex(getPkgs());
+                    index    = pkgIndex;
+                }
+            }
+        }
+        return pkgIndex;
+    }
+
+    /**
+     * Returns the version catalog of this snapshot, it will be built on first access.
+     * @return the version catalog of this snapshot
+     */
+    public VersionCatalog getVersionCatalog() {
+        VersionCatalog catalog = versionCatalog;
+        if (null == catalog) {
+            synchronized (this) {
+                catalog = versionCatalog;
+                if (null == catalog) {
+                    catalog        = new VersionCatalog(getPkgs());
+                    versionCatalog = catalog;
+                }
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Returns the given packages sorted by Pkg.DEFAULT_ORDER, packages of this snapshot
+     * will be sorted by their ordinal without any version comparison.
+     * @param pkgs
+     * @return the given packages sorted by Pkg.DEFAULT_ORDER
+     */
+    public List<Pkg> sort(final Collection<? extends Pkg> pkgs) { return getIndex().sort(pkgs, Pkg.DEFAULT_ORDER); }
+
+    public int size() { return pkgMap.size(); }
+
+    public boolean isEmpty() { return pkgMap.isEmpty(); }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Bounded LRU cache for query results that belong to a generation of the package cache.
+ * As soon as a result of a newer generation is requested or stored, all entries of the
+ * older generation will be dropped, results of an outdated generation will never be stored.
+ * Hits, misses and evictions will be counted in the given meter registry.
+ */
+public class QueryCache<K, V> {
+    private final int              maxSize;
+    private final Map<K, V>        cache;
+    private final Counter          hits;
+    private final Counter          misses;
+    private final Counter          evictions;
+    private       long             generation;
+
+
+    public QueryCache(final String name, final int maxSize) {
+        this(name, maxSize, Metrics.globalRegistry);
+    }
+    public QueryCache(final String name, final int maxSize, final MeterRegistry registry) {
+        if (maxSize < 1) { throw new IllegalArgumentException("maxSize must be larger than 0"); }
+        this.maxSize    = maxSize;
+        this.cache      = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                if (size() <= QueryCache.this.maxSize) { return false; }
+                evictions.increment();
+                return true;
+            }
+        };
+        this.hits       = registry.counter("cache.gets", "cache", name, "result", "hit");
+        this.misses     = registry.counter("cache.gets", "cache", name, "result", "miss");
+        this.evictions  = registry.counter("cache.evictions", "cache", name);
+        this.generation = 0;
+        registry.gauge("cache.size", Tags.of("cache", name), this, QueryCache::size);
+    }
+
+
+    /**
+     * Returns the cached value for the given key or null if the key is not cached
+     * for the given generation.
+     * @param generation Generation of the package cache the value must belong to
+     * @param key        Key of the value
+     * @return the cached value for the given key or null if the key is not cached
+     */
+    public synchronized V get(final long generation, final K key) {
+        updateGeneration(generation);
+        final V value = this.generation == generation ? cache.get(key) : null;
+        if (null == value) { misses.increment(); } else { hits.increment(); }
+        return value;
+    }
+
+    /**
+     * Stores the given value for the given key if the given generation is not outdated.
+     * @param generation Generation of the package cache the value was computed from
+     * @param key        Key of the value
+     * @param value      Value to store
+     */
+    public synchronized void put(final long generation, final K key, final V value) {
+        if (null == key || null == value) { return; }
+        updateGeneration(generation);
+        if (this.generation != generation) { return; }
+        cache.put(key, value);
+    }
+
+    public synchronized void invalidate() { cache.clear(); }
+
+    public synchronized int size() { return cache.size(); }
+
+    public int getMaxSize() { return maxSize; }
+
+    public synchronized long getGeneration() { return generation; }
+
+    private void updateGeneration(final long generation) {
+        if (generation <= this.generation) { return; }
+        cache.clear();
+        this.generation = generation;
+    }
+}
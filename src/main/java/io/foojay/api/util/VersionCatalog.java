@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import eu.hansolo.jdktools.Match;
+import eu.hansolo.jdktools.ReleaseStatus;
+import eu.hansolo.jdktools.scopes.BuildScope;
+import eu.hansolo.jdktools.scopes.Scope;
+import eu.hansolo.jdktools.versioning.Semver;
+import io.foojay.api.pkg.Distro;
+import io.foojay.api.pkg.Pkg;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+
+/**
+ * Versions of all packages of a PkgSnapshot grouped by major version, build scope and release status.
+ * The catalog is built once per snapshot, so the version lookups of MajorVersion do not need to scan
+ * the whole package cache anymore.
+ * All lists are free of duplicates (by Semver.toString()) and sorted by version number in descending order,
+ * equal version numbers are sorted by Semver.toString().
+ * ReleaseStatus.NONE stands for the versions including early access builds.
+ * Lookups by scopes are merged once per catalog and memoized, a new snapshot comes with a new catalog.
+ */
+public final class VersionCatalog {
+    private static final Comparator<Semver>                                          DESCENDING = Comparator.comparing(Semver::getVersionNumber).reversed();
+    private        final Map<Integer, Map<Distro, Map<ReleaseStatus, List<Semver>>>> versionsPerDistro;
+    private        final Map<Key, List<Semver>>                                      versions;
+    private        final Map<ScopesKey, List<Semver>>                                versionsByScopes;
+
+
+    public VersionCatalog(final Collection<? extends Pkg> pkgs) {
+        final Map<Integer, Map<Distro, Map<ReleaseStatus, Map<String, Semver>>>> semvers = new HashMap<>();
+        for (Pkg pkg : pkgs) {
+            if (null == pkg.getDistribution() || pkg.getVersionNumber().getFeature().isEmpty()) { continue; }
+            final ReleaseStatus releaseStatus = pkg.getReleaseStatus();
+            if (ReleaseStatus.GA != releaseStatus && ReleaseStatus.EA != releaseStatus) { continue; }
+            final Semver semver = pkg.getSemver();
+            semvers.computeIfAbsent(pkg.getVersionNumber().getFeature().getAsInt(), majorVersion -> new HashMap<>())
+                   .computeIfAbsent(pkg.getDistribution().getDistro(), distro -> new HashMap<>())
+                   .computeIfAbsent(releaseStatus, status -> new LinkedHashMap<>())
+                   .putIfAbsent(semver.toString(), semver);
+        }
+
+        this.versionsPerDistro = new HashMap<>();
+        semvers.forEach((majorVersion, semversPerDistro) -> semversPerDistro.forEach((distro, semversPerStatus) -> semversPerStatus.forEach((releaseStatus, semversByName) ->
+            versionsPerDistro.computeIfAbsent(majorVersion, mv -> new HashMap<>())
+                             .computeIfAbsent(distro, d -> new HashMap<>())
+                             .put(releaseStatus, List.copyOf(semversByName.values())))));
+
+        this.versionsByScopes = new ConcurrentHashMap<>();
+        this.versions         = new HashMap<>();
+        for (Integer majorVersion : versionsPerDistro.keySet()) {
+            for (BuildScope scope : List.of(BuildScope.BUILD_OF_OPEN_JDK, BuildScope.BUILD_OF_GRAALVM)) {
+                final List<Distro> distros = distrosOf(scope);
+                versions.put(new Key(majorVersion, scope, ReleaseStatus.GA),   collect(majorVersion, distros, List.of(ReleaseStatus.GA)));
+                versions.put(new Key(majorVersion, scope, ReleaseStatus.EA),   collect(majorVersion, distros, List.of(ReleaseStatus.EA)));
+                versions.put(new Key(majorVersion, scope, ReleaseStatus.NONE), collect(majorVersion, distros, List.of(ReleaseStatus.GA, ReleaseStatus.EA)));
+            }
+        }
+    }
+
+
+    /**
+     * Returns the versions of the given major version that are available in distributions of the given build scope.
+     * @param majorVersion  Major version of the versions
+     * @param scope         Build scope of the distributions (everything else than BUILD_OF_OPEN_JDK is treated as BUILD_OF_GRAALVM)
+     * @param releaseStatus GA, EA or NONE for the versions including early access builds
+     * @return the versions sorted in descending order
+     */
+    public List<Semver> getVersions(final int majorVersion, final BuildScope scope, final ReleaseStatus releaseStatus) {
+        final BuildScope buildScope = BuildScope.BUILD_OF_OPEN_JDK == scope ? BuildScope.BUILD_OF_OPEN_JDK : BuildScope.BUILD_OF_GRAALVM;
+        return versions.getOrDefault(new Key(majorVersion, buildScope, releaseStatus), List.of());
+    }
+
+    /**
+     * Returns the versions of the given major version that are available in distributions that
+     * match the given scopes. The pre-grouped versions of the matching distributions are merged on the first
+     * request only, subsequent requests for the same scopes and match return the memoized list.
+     * @param majorVersion  Major version of the versions
+     * @param scopes        Scopes the distributions have to match
+     * @param match         ALL if a distribution has to match all scopes, otherwise ANY is used
+     * @param releaseStatus GA, EA or NONE for the versions including early access builds
+     * @return the versions sorted in descending order
+     */
+    public List<Semver> getVersions(final int majorVersion, final List<Scope> scopes, final Match match, final ReleaseStatus releaseStatus) {
+        final Match scopeMatch = (null == match || Match.NONE == match || Match.NOT_FOUND == match) ? Match.ANY : match;
+        return versionsByScopes.computeIfAbsent(new ScopesKey(majorVersion, Set.copyOf(scopes), scopeMatch, releaseStatus), this::collect);
+    }
+
+    private List<Semver> collect(final ScopesKey key) {
+        final List<Distro> distros = versionsPerDistro.getOrDefault(key.majorVersion(), Map.of())
+                                                      .keySet()
+                                                      .stream()
+                                                      .filter(distro -> {
+                                                          final List<Scope> distroScopes = Constants.SCOPE_LOOKUP.getOrDefault(distro, List.of());
+                                                          return Match.ANY == key.match() ? distroScopes.stream().anyMatch(key.scopes()::contains) : distroScopes.containsAll(key.scopes());
+                                                      })
+                                                      .collect(Collectors.toList());
+        return collect(key.majorVersion(), distros, ReleaseStatus.NONE == key.releaseStatus() ? List.of(ReleaseStatus.GA, ReleaseStatus.EA) : List.of(key.releaseStatus()));
+    }
+
+    private List<Semver> collect(final int majorVersion, final Collection<Distro> distros, final Collection<ReleaseStatus> releaseStatus) {
+        final Map<Distro, Map<ReleaseStatus, List<Semver>>> semversPerDistro = versionsPerDistro.getOrDefault(majorVersion, Map.of());
+        final Map<String, Semver>                           semversByName    = new TreeMap<>();
+        for (Distro distro : distros) {
+            final Map<ReleaseStatus, List<Semver>> semversPerStatus = semversPerDistro.get(distro);
+            if (null == semversPerStatus) { continue; }
+            releaseStatus.forEach(status -> semversPerStatus.getOrDefault(status, List.of()).forEach(semver -> semversByName.putIfAbsent(semver.toString(), semver)));
+        }
+        return semversByName.values().stream().sorted(DESCENDING).collect(Collectors.toUnmodifiableList());
+    }
+
+    private static List<Distro> distrosOf(final BuildScope scope) {
+        return BuildScope.BUILD_OF_OPEN_JDK == scope ? Distro.getDistributionsBasedOnOpenJDK() : Distro.getDistributionsBasedOnGraalVm();
+    }
+
+
+    private record Key(int majorVersion, BuildScope scope, ReleaseStatus releaseStatus) {}
+
+    private record ScopesKey(int majorVersion, Set<Scope> scopes, Match match, ReleaseStatus releaseStatus) {}
+}
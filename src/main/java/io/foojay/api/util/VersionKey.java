@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import eu.hansolo.jdktools.ReleaseStatus;
+import eu.hansolo.jdktools.versioning.VersionNumber;
+
+import java.util.OptionalInt;
+
+
+/**
+ * Packs a VersionNumber into a positive long that sorts like VersionNumber.compareTo(),
+ * so version comparisons become primitive comparisons.
+ * Layout from the most to the least significant bit:
+ * feature (10 bits), interim (8), update (10), patch (8), fifth (6), sixth (6),
+ * not early access (1), has build (1), build (13).
+ * Missing numbers are encoded as 0. Versions that do not fit into this layout
+ * are encoded as NONE and have to be compared by VersionNumber.compareTo().
+ */
+public final class VersionKey {
+    public  static final long NONE          = -1;
+    private static final int  BUILD_SHIFT   = 0;
+    private static final int  BUILD_BITS    = 13;
+    private static final int  HAS_BUILD_BIT = 13;
+    private static final int  GA_BIT        = 14;
+    private static final int  SIXTH_SHIFT   = 15;
+    private static final int  SIXTH_BITS    = 6;
+    private static final int  FIFTH_SHIFT   = 21;
+    private static final int  FIFTH_BITS    = 6;
+    private static final int  PATCH_SHIFT   = 27;
+    private static final int  PATCH_BITS    = 8;
+    private static final int  UPDATE_SHIFT  = 35;
+    private static final int  UPDATE_BITS   = 10;
+    private static final int  INTERIM_SHIFT = 45;
+    private static final int  INTERIM_BITS  = 8;
+    private static final int  FEATURE_SHIFT = 53;
+    private static final int  FEATURE_BITS  = 10;
+
+
+    private VersionKey() {}
+
+
+    public static long of(final VersionNumber versionNumber) {
+        if (null == versionNumber || versionNumber.getFeature().isEmpty()) { return NONE; }
+        final int feature = versionNumber.getFeature().getAsInt();
+        final int interim = valueOf(versionNumber.getInterim());
+        final int update  = valueOf(versionNumber.getUpdate());
+        final int patch   = valueOf(versionNumber.getPatch());
+        final int fifth   = valueOf(versionNumber.getFifth());
+        final int sixth   = valueOf(versionNumber.getSixth());
+        final int build   = valueOf(versionNumber.getBuild());
+        if (!fits(feature, FEATURE_BITS) || !fits(interim, INTERIM_BITS) || !fits(update, UPDATE_BITS) || !fits(patch, PATCH_BITS) ||
+            !fits(fifth, FIFTH_BITS) || !fits(sixth, SIXTH_BITS) || !fits(build, BUILD_BITS)) {
+            return NONE;
+        }
+        final boolean earlyAccess = versionNumber.getReleaseStatus().filter(releaseStatus -> ReleaseStatus.EA == releaseStatus).isPresent();
+        final long    gaBit       = earlyAccess ? 0 : 1L << GA_BIT;
+        final long    hasBuildBit = versionNumber.getBuild().isPresent() ? 1L << HAS_BUILD_BIT : 0;
+        return ((long) feature << FEATURE_SHIFT) |
+               ((long) interim << INTERIM_SHIFT) |
+               ((long) update  << UPDATE_SHIFT)  |
+               ((long) patch   << PATCH_SHIFT)   |
+               ((long) fifth   << FIFTH_SHIFT)   |
+               ((long) sixth   << SIXTH_SHIFT)   |
+               gaBit                             |
+               hasBuildBit                       |
+               ((long) build   << BUILD_SHIFT);
+    }
+
+    /**
+     * Returns true if the first depth numbers (1 = feature, 2 = feature.interim, 3 = feature.interim.update,
+     * 4 = feature.interim.update.patch) of the given key are equal to the ones of the given prefix key.
+     * @param key       Version key to check
+     * @param prefixKey Version key that contains the prefix
+     * @param depth     Number of version numbers that have to be equal (1 - 4)
+     * @return true if the first depth numbers of the given key are equal to the ones of the given prefix key
+     */
+    public static boolean hasPrefix(final long key, final long prefixKey, final int depth) {
+        if (NONE == key || NONE == prefixKey) { return false; }
+        final int shift;
+        switch (depth) {
+            case 1  -> shift = FEATURE_SHIFT;
+            case 2  -> shift = INTERIM_SHIFT;
+            case 3  -> shift = UPDATE_SHIFT;
+            default -> shift = PATCH_SHIFT;
+        }
+        return (key >>> shift) == (prefixKey >>> shift);
+    }
+
+    private static int valueOf(final OptionalInt value) { return value.isPresent() ? value.getAsInt() : 0; }
+
+    private static boolean fits(final int value, final int bits) { return value >= 0 && value < (1 << bits); }
+}
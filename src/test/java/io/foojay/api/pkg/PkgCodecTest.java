@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.pkg;
+
+import eu.hansolo.jdktools.LibCType;
+import eu.hansolo.jdktools.util.OutputFormat;
+import eu.hansolo.jdktools.versioning.VersionNumber;
+import io.foojay.api.util.Constants;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonObjectId;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.junit.jupiter.api.Test;
+
+
+public class PkgCodecTest {
+
+    private static Pkg createPkg() {
+        Pkg pkg = new Pkg();
+        pkg.setDistribution(Distro.ZULU.get());
+        pkg.setVersionNumber(new VersionNumber(17, 0, 2));
+        pkg.setLibCType(LibCType.GLIBC);
+        pkg.setDirectDownloadUri("https://cdn.azul.com/zulu/bin/zulu17.32.13-ca-jdk17.0.2-linux_x64.tar.gz");
+        pkg.setFileName("zulu17.32.13-ca-jdk17.0.2-linux_x64.tar.gz");
+        pkg.setSize(190_000_000L);
+        pkg.getFeatures().add(Feature.LOOM);
+        return pkg;
+    }
+
+    private static BsonDocument encode(final Pkg pkg) {
+        final BsonDocument document = new BsonDocument();
+        new PkgCodec().encode(new BsonDocumentWriter(document), pkg, EncoderContext.builder().build());
+        return document;
+    }
+
+    @Test
+    public void encodeLikeParsedJson() {
+        final Pkg pkg = createPkg();
+        assert encode(pkg).equals(BsonDocument.parse(pkg.toString(OutputFormat.FULL_COMPRESSED, Constants.API_VERSION_V3)));
+    }
+
+    @Test
+    public void roundTrip() {
+        final Pkg          pkg      = createPkg();
+        final BsonDocument document = encode(pkg);
+        document.put("_id", new BsonObjectId());
+
+        final Pkg decoded = new PkgCodec().decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+        assert null != decoded;
+        assert pkg.getId().equals(decoded.getId());
+        assert decoded.getFeatures().contains(Feature.LOOM);
+        assert decoded.toString(OutputFormat.FULL_COMPRESSED, Constants.API_VERSION_V3).equals(new Pkg(document.toJson()).toString(OutputFormat.FULL_COMPRESSED, Constants.API_VERSION_V3));
+    }
+
+    @Test
+    public void invalidDocument() {
+        final BsonDocument document = encode(createPkg());
+        document.remove(PkgField.DISTRIBUTION.fieldName());
+        assert null == new PkgCodec().decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.pkg;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import eu.hansolo.jdktools.Architecture;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+
+public class PkgProjectionTest {
+
+    @Test
+    public void projectFields() {
+        assert null == PkgProjection.of((String) null);
+        assert null == PkgProjection.of(" ");
+
+        final PkgProjection projection = PkgProjection.of("java_version, distribution,architecture,unknown");
+        assert projection.getFields().equals(Set.of(PkgField.ID, PkgField.JAVA_VERSION, PkgField.DISTRIBUTION, PkgField.ARCHITECTURE));
+        assert projection == PkgProjection.of(List.of("ARCHITECTURE", "distribution", "id", "java_version"));
+        assert PkgProjection.of("id,id").getFields().equals(Set.of(PkgField.ID));
+        assert projection == PkgProjection.of("architecture,architecture,java_version,distribution");
+
+        final Pkg pkg = new Pkg();
+        pkg.setDistribution(Distro.ZULU.get());
+        pkg.setArchitecture(Architecture.AARCH64);
+        pkg.setDirectDownloadUri("https://cdn.azul.com/zulu/bin/zulu17.32.13-ca-jdk17.0.2-linux_aarch64.tar.gz");
+        pkg.setFileName("zulu17.32.13-ca-jdk17.0.2-linux_aarch64.tar.gz");
+
+        final JsonObject json = new Gson().fromJson(projection.toJson(pkg), JsonObject.class);
+        assert json.keySet().equals(Set.of(PkgField.ID.fieldName(), PkgField.JAVA_VERSION.fieldName(), PkgField.DISTRIBUTION.fieldName(), PkgField.ARCHITECTURE.fieldName()));
+        assert pkg.getId().equals(json.get(PkgField.ID.fieldName()).getAsString());
+        assert Architecture.AARCH64.getApiString().equals(json.get(PkgField.ARCHITECTURE.fieldName()).getAsString());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.pkg;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import eu.hansolo.jdktools.Architecture;
+import eu.hansolo.jdktools.LibCType;
+import eu.hansolo.jdktools.util.OutputFormat;
+import eu.hansolo.jdktools.versioning.VersionNumber;
+import io.foojay.api.util.Constants;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+
+public class PkgTest {
+
+    @Test
+    public void memoizedIdentity() {
+        Pkg pkg = new Pkg();
+        pkg.setDistribution(Distro.ZULU.get());
+        pkg.setDirectDownloadUri("https://cdn.azul.com/zulu/bin/zulu17.32.13-ca-jdk17.0.2-linux_x64.tar.gz");
+        pkg.setFileName("zulu17.32.13-ca-jdk17.0.2-linux_x64.tar.gz");
+
+        final String       id              = pkg.getId();
+        final int          hashCode        = pkg.hashCode();
+        final List<Object> keyExceptUpdate = pkg.getKeyExceptUpdate();
+        assert id.equals(pkg.getId());
+        assert hashCode == pkg.hashCode();
+        assert keyExceptUpdate == pkg.getKeyExceptUpdate();
+
+        pkg.setDirectDownloadUri("https://cdn.azul.com/zulu/bin/zulu17.32.13-ca-jdk17.0.2-linux_aarch64.tar.gz");
+        assert !id.equals(pkg.getId());
+        assert hashCode != pkg.hashCode();
+
+        pkg.setArchitecture(Architecture.AARCH64);
+        assert !keyExceptUpdate.equals(pkg.getKeyExceptUpdate());
+        assert pkg.getKeyExceptUpdate().contains(Architecture.AARCH64);
+        assert pkg.getKeyExceptJavaFXAndPackageType().contains(Architecture.AARCH64);
+    }
+
+    @Test
+    public void escapedJson() {
+        Pkg pkg = new Pkg();
+        pkg.setDistribution(Distro.ZULU.get());
+        pkg.setVersionNumber(new VersionNumber(17, 0, 2));
+        pkg.setLibCType(LibCType.GLIBC);
+        pkg.setDirectDownloadUri("https://cdn.azul.com/zulu/bin/zulu17.32.13-ca-jdk17.0.2-linux_x64.tar.gz");
+        pkg.setFileName("zulu\\17 \"ca\".tar.gz");
+
+        for (OutputFormat outputFormat : List.of(OutputFormat.FULL_COMPRESSED, OutputFormat.REDUCED_COMPRESSED, OutputFormat.REDUCED_ENRICHED_COMPRESSED, OutputFormat.MINIMIZED)) {
+            for (String apiVersion : List.of(Constants.API_VERSION_V2, Constants.API_VERSION_V3)) {
+                final String     json       = pkg.toString(outputFormat, apiVersion);
+                final JsonObject jsonObject = new Gson().fromJson(json, JsonObject.class);
+                assert pkg.getFilename().equals(jsonObject.get(PkgField.FILENAME.fieldName()).getAsString());
+                assert pkg.getId().equals(jsonObject.get(PkgField.ID.fieldName()).getAsString());
+                assert json.equals(new PkgJsonWriter().write(pkg, outputFormat, apiVersion).toString());
+            }
+        }
+
+        final PkgJsonWriter jsonWriter = new PkgJsonWriter();
+        jsonWriter.write(pkg, OutputFormat.MINIMIZED, Constants.API_VERSION_V3);
+        assert jsonWriter.reset().getBuffer().length() == 0;
+        assert "a\\\\b\\\"c\\n".equals(PkgJsonWriter.escape("a\\b\"c\n"));
+        assert "abc" == PkgJsonWriter.escape("abc");
+    }
+}
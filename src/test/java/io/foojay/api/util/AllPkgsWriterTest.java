@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import eu.hansolo.jdktools.ReleaseStatus;
+import eu.hansolo.jdktools.scopes.BuildScope;
+import io.foojay.api.pkg.Distro;
+import io.foojay.api.pkg.Pkg;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+
+public class AllPkgsWriterTest {
+
+    @Test
+    public void writeAllPkgs() throws IOException {
+        final Pkg ga = createPkg("zulu17.32.13-ca-jdk17.0.2-linux_x64.tar.gz", ReleaseStatus.GA);
+        final Pkg ea = createPkg("zulu18.0.47-ea-jdk18.0.0-ea.32-linux_x64.tar.gz", ReleaseStatus.EA);
+
+        final JsonBytesCache<String> jsonCache = new JsonBytesCache<>();
+        jsonCache.put(ga.getId(), "{\"id\":\"ga\"}");
+        jsonCache.put(ea.getId(), "{\"id\":\"ea\"}");
+
+        assert new AllPkgsWriter(List.of(ga, ea), jsonCache, false, false, BuildScope.BUILD_OF_OPEN_JDK).toString().equals("{\"result\":[{\"id\":\"ga\"}],\"message\":\"\"}");
+        assert new AllPkgsWriter(List.of(ga, ea), jsonCache, false, true, BuildScope.BUILD_OF_OPEN_JDK).toString().equals("{\"result\":[{\"id\":\"ga\"},{\"id\":\"ea\"}],\"message\":\"\"}");
+        assert new AllPkgsWriter(List.of(ga, ea), jsonCache, false, true, BuildScope.BUILD_OF_GRAALVM).toString().equals("{\"result\":[],\"message\":\"\"}");
+        assert new AllPkgsWriter(List.of(), jsonCache, false, true, null).toString().equals("{\"result\":[],\"message\":\"\"}");
+
+        final StringWriter writer = new StringWriter();
+        new AllPkgsWriter(List.of(ga, ea), jsonCache, false, false, null).writeTo(writer);
+        assert writer.toString().equals("{\"result\":[{\"id\":\"ga\"}],\"message\":\"\"}");
+    }
+
+    @Test
+    public void writeNdjson() throws IOException {
+        final Pkg ga = createPkg("zulu17.32.13-ca-jdk17.0.2-linux_x64.tar.gz", ReleaseStatus.GA);
+        final Pkg ea = createPkg("zulu18.0.47-ea-jdk18.0.0-ea.32-linux_x64.tar.gz", ReleaseStatus.EA);
+
+        final JsonBytesCache<String> jsonCache = new JsonBytesCache<>();
+        jsonCache.put(ga.getId(), "{\"id\":\"ga\"}");
+        jsonCache.put(ea.getId(), "{\"id\":\"ea\"}");
+
+        final AllPkgsWriter writer = AllPkgsWriter.ndjson(List.of(ga, ea), jsonCache, false, true, null);
+        assert writer.isNdjson();
+        assert writer.toString().equals("{\"id\":\"ga\"}\n{\"id\":\"ea\"}\n");
+        assert AllPkgsWriter.ndjson(List.of(ga, ea), jsonCache, false, true, BuildScope.BUILD_OF_GRAALVM).toString().isEmpty();
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeGzipTo(out);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assert new String(in.readAllBytes(), StandardCharsets.UTF_8).equals(writer.toString());
+        }
+    }
+
+    private static Pkg createPkg(final String filename, final ReleaseStatus releaseStatus) {
+        final Pkg pkg = new Pkg();
+        pkg.setDistribution(Distro.ZULU.get());
+        pkg.setFileName(filename);
+        pkg.setDirectDownloadUri("https://cdn.azul.com/zulu/bin/" + filename);
+        pkg.setReleaseStatus(releaseStatus);
+        return pkg;
+    }
+}
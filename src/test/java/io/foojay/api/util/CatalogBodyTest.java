@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+
+public class CatalogBodyTest {
+
+    @Test
+    public void etagAndCompression() throws IOException {
+        final byte[]      json  = "{\"result\":[],\"message\":\"\"}".getBytes(StandardCharsets.UTF_8);
+        final CatalogBody body1 = CatalogBody.of(json);
+        final CatalogBody body2 = CatalogBody.of(json.clone());
+        final CatalogBody body3 = CatalogBody.of("{\"result\":[{}],\"message\":\"\"}".getBytes(StandardCharsets.UTF_8));
+
+        assert body1.getEtag().equals(body2.getEtag());
+        assert !body1.getEtag().equals(body3.getEtag());
+        assert body1.getEtag().startsWith("\"") && body1.getEtag().endsWith("\"");
+
+        assert body1.isNotModified(body1.getEtag());
+        assert body1.isNotModified("\"abc\", W/" + body1.getEtag());
+        assert body1.isNotModified("*");
+        assert !body1.isNotModified(body3.getEtag());
+        assert !body1.isNotModified(null);
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body1.getGzipBody()))) {
+            assert Arrays.equals(json, gzip.readAllBytes());
+        }
+    }
+
+    @Test
+    public void acceptEncoding() {
+        assert CatalogBody.acceptsGzip(List.of("gzip, deflate, br"));
+        assert CatalogBody.acceptsGzip(List.of("deflate", "GZIP;q=0.5"));
+        assert CatalogBody.acceptsGzip(List.of("*"));
+        assert !CatalogBody.acceptsGzip(List.of("gzip;q=0"));
+        assert !CatalogBody.acceptsGzip(List.of("gzip; q=0.0, deflate"));
+        assert !CatalogBody.acceptsGzip(List.of("*, gzip;q=0"));
+        assert !CatalogBody.acceptsGzip(List.of("identity"));
+        assert !CatalogBody.acceptsGzip(List.of());
+    }
+}
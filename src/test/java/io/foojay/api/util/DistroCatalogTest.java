@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import eu.hansolo.jdktools.versioning.VersionNumber;
+import io.foojay.api.pkg.Distro;
+import io.foojay.api.pkg.Pkg;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+
+public class DistroCatalogTest {
+
+    @Test
+    public void incrementalUpdate() {
+        final Pkg zulu1   = createPkg(Distro.ZULU, "zulu17.32.13-ca-jdk17.0.2-linux_x64.tar.gz");
+        final Pkg zulu2   = createPkg(Distro.ZULU, "zulu17.32.13-ca-jdk17.0.2-linux_aarch64.tar.gz");
+        final Pkg temurin = createPkg(Distro.TEMURIN, "OpenJDK17U-jdk_x64_linux_hotspot_17.0.2_8.tar.gz");
+
+        final DistroCatalog catalog1 = DistroCatalog.of(1, List.of(zulu1, temurin), DistroCatalog.empty());
+        assert catalog1.getGeneration() == 1;
+        assert catalog1.getNumberOfPkgs(Distro.ZULU)     == 1;
+        assert catalog1.getNumberOfPkgs(Distro.TEMURIN)  == 1;
+        assert catalog1.getNumberOfPkgs(Distro.CORRETTO) == 0;
+        assert catalog1.getVersions(Distro.CORRETTO).isEmpty();
+
+        // Only the versions of distributions with changed packages will be collected again
+        final DistroCatalog catalog2 = DistroCatalog.of(2, List.of(zulu1, zulu2, temurin), catalog1);
+        assert catalog2.getNumberOfPkgs(Distro.ZULU) == 2;
+        assert catalog2.getVersions(Distro.TEMURIN) == catalog1.getVersions(Distro.TEMURIN);
+        assert catalog2.getVersions(Distro.ZULU)    != catalog1.getVersions(Distro.ZULU);
+
+        final DistroCatalog catalog3 = DistroCatalog.of(3, List.of(zulu1, zulu2), catalog2);
+        assert catalog3.getNumberOfPkgs(Distro.TEMURIN) == 0;
+        assert catalog3.getVersions(Distro.ZULU) == catalog2.getVersions(Distro.ZULU);
+
+        // A corrected version under the same download uri keeps the id but replaces the instance
+        final Pkg zulu1Corrected = createPkg(Distro.ZULU, "zulu17.32.13-ca-jdk17.0.2-linux_x64.tar.gz");
+        zulu1Corrected.setVersionNumber(new VersionNumber(17, 0, 3));
+        assert zulu1Corrected.getId().equals(zulu1.getId());
+        final DistroCatalog catalog4 = DistroCatalog.of(4, List.of(zulu1Corrected, zulu2), catalog3);
+        assert catalog4.getVersions(Distro.ZULU) != catalog3.getVersions(Distro.ZULU);
+        assert catalog4.getVersions(Distro.ZULU).stream().anyMatch(semver -> semver.toString().equals(zulu1Corrected.getSemver().toString()));
+    }
+
+    private static Pkg createPkg(final Distro distro, final String filename) {
+        final Pkg pkg = new Pkg();
+        pkg.setDistribution(distro.get());
+        pkg.setFileName(filename);
+        pkg.setDirectDownloadUri("https://example.com/" + filename);
+        return pkg;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import eu.hansolo.jdktools.LibCType;
+import eu.hansolo.jdktools.ReleaseStatus;
+import eu.hansolo.jdktools.util.OutputFormat;
+import eu.hansolo.jdktools.versioning.VersionNumber;
+import io.foojay.api.pkg.Distro;
+import io.foojay.api.pkg.Pkg;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+public class PkgBinaryWriterTest {
+
+    @Test
+    public void writePkgs() throws IOException {
+        final Pkg pkg1 = createPkg("zulu17.32.13-ca-jdk17.0.2-linux_x64.tar.gz");
+        final Pkg pkg2 = createPkg("zulu17.32.13-ca-jdk17.0.2-linux_aarch64.tar.gz");
+
+        final byte[]          binary = PkgBinaryWriter.write(List.of(pkg1, pkg2), 42);
+        final DataInputStream in     = new DataInputStream(new ByteArrayInputStream(binary));
+        final byte[]          magic  = new byte[4];
+        in.readFully(magic);
+        assert Arrays.equals(PkgBinaryWriter.MAGIC, magic);
+        assert PkgBinaryWriter.FORMAT_VERSION == in.read();
+        assert 42 == readVarint(in);
+        assert readString(in).endsWith("/ids/");
+
+        final int          dictionarySize = (int) readVarint(in);
+        final List<String> dictionary     = new ArrayList<>();
+        for (int i = 0 ; i < dictionarySize ; i++) { dictionary.add(readString(in)); }
+        assert dictionary.contains(Distro.ZULU.getApiString());
+        assert dictionary.contains("https://cdn.azul.com/zulu/bin/");
+        assert dictionary.size() == dictionary.stream().distinct().count();
+        assert 2 == readVarint(in);
+
+        final int jsonLength = (pkg1.toString(OutputFormat.REDUCED_COMPRESSED, Constants.API_VERSION_V3) + pkg2.toString(OutputFormat.REDUCED_COMPRESSED, Constants.API_VERSION_V3)).getBytes(StandardCharsets.UTF_8).length;
+        assert binary.length < jsonLength / 2;
+    }
+
+    private static long readVarint(final DataInputStream in) throws IOException {
+        long value = 0;
+        int  shift = 0;
+        int  b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[(int) readVarint(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Pkg createPkg(final String filename) {
+        final Pkg pkg = new Pkg();
+        pkg.setDistribution(Distro.ZULU.get());
+        pkg.setVersionNumber(new VersionNumber(17, 0, 2));
+        pkg.setLibCType(LibCType.GLIBC);
+        pkg.setFileName(filename);
+        pkg.setDirectDownloadUri("https://cdn.azul.com/zulu/bin/" + filename);
+        pkg.setReleaseStatus(ReleaseStatus.GA);
+        pkg.setTckCertUri("https://cdn.azul.com/zulu/bin/tck-" + filename + ".pdf");
+        return pkg;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+
+public class PkgChangeLogTest {
+
+    @Test
+    public void changesSinceGeneration() {
+        final PkgChangeLog changeLog = new PkgChangeLog(3);
+        changeLog.reset(1);
+        changeLog.record(1, 2, List.of("a"), List.of("b"), List.of("c"));
+        changeLog.record(2, 4, List.of("d"), List.of(), List.of("a"));
+        changeLog.record(4, 5, List.of("c"), List.of("b"), List.of());
+
+        final PkgChangeLog.Changes changes = changeLog.getChangesSince(1);
+        assert !changes.fullResyncRequired();
+        assert 5 == changes.generation();
+        assert Set.of("b", "c", "d").equals(changes.upserted());
+        assert Set.of("a").equals(changes.removed());
+
+        assert Set.of("b", "c").equals(changeLog.getChangesSince(4).upserted());
+        assert changeLog.getChangesSince(5).upserted().isEmpty();
+        assert !changeLog.getChangesSince(5).fullResyncRequired();
+
+        // Unknown generations require a full resync
+        assert changeLog.getChangesSince(3).fullResyncRequired();
+        assert changeLog.getChangesSince(0).fullResyncRequired();
+    }
+
+    @Test
+    public void boundedRing() {
+        final PkgChangeLog changeLog = new PkgChangeLog(2);
+        changeLog.reset(1);
+        changeLog.record(1, 2, List.of("a"), List.of(), List.of());
+        changeLog.record(2, 3, List.of("b"), List.of(), List.of());
+        changeLog.record(3, 4, List.of("c"), List.of(), List.of());
+        assert 2 == changeLog.size();
+        assert changeLog.getChangesSince(1).fullResyncRequired();
+        assert Set.of("b", "c").equals(changeLog.getChangesSince(2).upserted());
+
+        // A gap in the generations drops all recorded changes
+        changeLog.record(7, 8, List.of("d"), List.of(), List.of());
+        assert 1 == changeLog.size();
+        assert changeLog.getChangesSince(3).fullResyncRequired();
+        assert Set.of("d").equals(changeLog.getChangesSince(7).upserted());
+    }
+}
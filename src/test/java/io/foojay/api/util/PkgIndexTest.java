@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import eu.hansolo.jdktools.Architecture;
+import eu.hansolo.jdktools.ArchiveType;
+import eu.hansolo.jdktools.Bitness;
+import eu.hansolo.jdktools.OperatingSystem;
+import eu.hansolo.jdktools.PackageType;
+import io.foojay.api.pkg.Distro;
+import io.foojay.api.pkg.Feature;
+import io.foojay.api.pkg.Pkg;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+
+public class PkgIndexTest {
+
+    private static Pkg createPkg(final Distro distro, final Architecture architecture, final OperatingSystem operatingSystem, final PackageType packageType, final ArchiveType archiveType, final Boolean javafxBundled, final List<Feature> features) {
+        Pkg pkg = new Pkg();
+        pkg.setDistribution(distro.get());
+        pkg.setArchitecture(architecture);
+        pkg.setBitness(architecture.getBitness());
+        pkg.setOperatingSystem(operatingSystem);
+        pkg.setPackageType(packageType);
+        pkg.setArchiveType(archiveType);
+        pkg.setJavaFXBundled(javafxBundled);
+        pkg.setFeatures(features);
+        return pkg;
+    }
+
+    @Test
+    public void selectPkgs() {
+        final Pkg zuluJdkLinux    = createPkg(Distro.ZULU, Architecture.X64, OperatingSystem.LINUX, PackageType.JDK, ArchiveType.TAR_GZ, false, List.of());
+        final Pkg zuluJreLinux    = createPkg(Distro.ZULU, Architecture.X64, OperatingSystem.LINUX, PackageType.JRE, ArchiveType.TAR_GZ, false, List.of());
+        final Pkg zuluFxJdkMacOS  = createPkg(Distro.ZULU, Architecture.AARCH64, OperatingSystem.MACOS, PackageType.JDK, ArchiveType.DMG, true, List.of());
+        final Pkg temurinJdkWin   = createPkg(Distro.TEMURIN, Architecture.X64, OperatingSystem.WINDOWS, PackageType.JDK, ArchiveType.MSI, false, List.of());
+        final Pkg temurinLoomJdk  = createPkg(Distro.TEMURIN, Architecture.X64, OperatingSystem.LINUX, PackageType.JDK, ArchiveType.TAR_GZ, false, List.of(Feature.LOOM));
+        final PkgIndex pkgIndex   = new PkgIndex(List.of(zuluJdkLinux, zuluJreLinux, zuluFxJdkMacOS, temurinJdkWin, temurinLoomJdk));
+
+        assert pkgIndex.size() == 5;
+
+        List<Pkg> all = pkgIndex.select(List.of(), List.of(), List.of(), List.of(), null, null, PackageType.NONE, null, Bitness.NONE, null, null, null, List.of());
+        assert all.size() == 5;
+
+        List<Pkg> zulu = pkgIndex.select(List.of(Distro.ZULU.get()), List.of(), List.of(), List.of(), null, null, PackageType.NONE, null, Bitness.NONE, null, null, null, List.of());
+        assert zulu.size() == 3;
+        assert zulu.contains(zuluJdkLinux) && zulu.contains(zuluJreLinux) && zulu.contains(zuluFxJdkMacOS);
+
+        List<Pkg> x64Jdks = pkgIndex.select(List.of(), List.of(Architecture.X64), List.of(), List.of(), null, null, PackageType.JDK, null, Bitness.NONE, null, null, null, List.of());
+        assert x64Jdks.size() == 3;
+        assert !x64Jdks.contains(zuluJreLinux);
+
+        List<Pkg> linuxOrMacOS = pkgIndex.select(List.of(), List.of(), List.of(), List.of(OperatingSystem.LINUX, OperatingSystem.MACOS), null, null, PackageType.NONE, null, Bitness.NONE, null, null, null, List.of());
+        assert linuxOrMacOS.size() == 4;
+        assert !linuxOrMacOS.contains(temurinJdkWin);
+
+        List<Pkg> fx = pkgIndex.select(List.of(), List.of(), List.of(), List.of(), null, null, PackageType.NONE, null, Bitness.NONE, null, Boolean.TRUE, null, List.of());
+        assert fx.size() == 1 && fx.contains(zuluFxJdkMacOS);
+
+        List<Pkg> loom = pkgIndex.select(List.of(), List.of(), List.of(), List.of(), null, null, PackageType.NONE, null, Bitness.NONE, null, null, null, List.of(Feature.LOOM, Feature.PANAMA));
+        assert loom.size() == 1 && loom.contains(temurinLoomJdk);
+
+        List<Pkg> none = pkgIndex.select(List.of(Distro.TEMURIN.get()), List.of(Architecture.AARCH64), List.of(), List.of(), null, null, PackageType.NONE, null, Bitness.NONE, null, null, null, List.of());
+        assert none.isEmpty();
+    }
+
+    @Test
+    public void sortPkgs() {
+        final Pkg      zuluJdkLinux  = createPkg(Distro.ZULU, Architecture.X64, OperatingSystem.LINUX, PackageType.JDK, ArchiveType.TAR_GZ, false, List.of());
+        final Pkg      zuluJreLinux  = createPkg(Distro.ZULU, Architecture.X64, OperatingSystem.LINUX, PackageType.JRE, ArchiveType.TAR_GZ, false, List.of());
+        final Pkg      temurinJdkWin = createPkg(Distro.TEMURIN, Architecture.X64, OperatingSystem.WINDOWS, PackageType.JDK, ArchiveType.MSI, false, List.of());
+        final PkgIndex pkgIndex      = new PkgIndex(List.of(zuluJdkLinux, zuluJreLinux, temurinJdkWin));
+
+        assert pkgIndex.getOrdinal(zuluJreLinux) == 1;
+        assert pkgIndex.sort(List.of(temurinJdkWin, zuluJdkLinux), null).equals(List.of(zuluJdkLinux, temurinJdkWin));
+
+        // Packages that are not part of the index will be sorted by the given comparator
+        final Pkg       unknownPkg = createPkg(Distro.ZULU, Architecture.AARCH64, OperatingSystem.LINUX, PackageType.JDK, ArchiveType.TAR_GZ, false, List.of());
+        final List<Pkg> sorted     = pkgIndex.sort(List.of(unknownPkg, temurinJdkWin), Comparator.comparing(pkg -> Architecture.X64 == pkg.getArchitecture()));
+        assert pkgIndex.getOrdinal(unknownPkg) == -1;
+        assert sorted.equals(List.of(unknownPkg, temurinJdkWin));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import eu.hansolo.jdktools.Architecture;
+import eu.hansolo.jdktools.Bitness;
+import eu.hansolo.jdktools.Latest;
+import eu.hansolo.jdktools.Match;
+import eu.hansolo.jdktools.PackageType;
+import eu.hansolo.jdktools.Verification;
+import eu.hansolo.jdktools.util.Comparison;
+import io.foojay.api.DiscoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+
+public class QueryCacheTest {
+
+    @Test
+    public void lruEviction() {
+        final SimpleMeterRegistry         registry = new SimpleMeterRegistry();
+        final QueryCache<String, Integer> cache    = new QueryCache<>("test", 2, registry);
+        cache.put(1, "a", 1);
+        cache.put(1, "b", 2);
+        assert cache.get(1, "a") == 1;
+        cache.put(1, "c", 3);
+
+        assert cache.size() == 2;
+        assert null == cache.get(1, "b");
+        assert cache.get(1, "a") == 1;
+        assert cache.get(1, "c") == 3;
+
+        assert registry.get("cache.gets").tag("result", "hit").counter().count()  == 3;
+        assert registry.get("cache.gets").tag("result", "miss").counter().count() == 1;
+        assert registry.get("cache.evictions").counter().count()                  == 1;
+    }
+
+    @Test
+    public void generations() {
+        final QueryCache<String, Integer> cache = new QueryCache<>("test", 10, new SimpleMeterRegistry());
+        cache.put(1, "a", 1);
+        assert cache.get(1, "a") == 1;
+
+        // A newer generation drops all entries of the older one
+        assert null == cache.get(2, "a");
+        assert cache.size() == 0;
+
+        // Results of an outdated generation will not be stored
+        cache.put(1, "a", 1);
+        assert cache.size() == 0;
+        assert null == cache.get(1, "a");
+
+        cache.put(2, "a", 2);
+        assert cache.get(2, "a") == 2;
+        cache.invalidate();
+        assert null == cache.get(2, "a");
+    }
+
+    @Test
+    public void canonicalQueries() {
+        final PkgQuery query1 = PkgQuery.of(null, null, Comparison.LESS_THAN, null, List.of(), List.of(Architecture.X64, Architecture.AARCH64), List.of(), List.of(), PackageType.JDK, List.of(), null, null, null,
+                                            Bitness.NONE, null, null, null, Latest.AVAILABLE, List.of(), null, null, Verification.NONE, Verification.NONE, List.of(), Match.ANY, null);
+        final PkgQuery query2 = PkgQuery.of(null, null, Comparison.LESS_THAN, null, List.of(), List.of(Architecture.AARCH64, Architecture.X64, Architecture.X64), List.of(), List.of(), PackageType.JDK, List.of(), null, null, null,
+                                            Bitness.NONE, null, Boolean.FALSE, null, Latest.OVERALL, List.of(), null, null, Verification.NONE, Verification.NONE, List.of(), Match.ANY, List.of());
+        final PkgQuery query3 = PkgQuery.of(null, null, Comparison.LESS_THAN, null, List.of(), List.of(Architecture.X64), List.of(), List.of(), PackageType.JDK, List.of(), null, null, null,
+                                            Bitness.NONE, null, null, null, Latest.AVAILABLE, List.of(), null, null, Verification.NONE, Verification.NONE, List.of(), Match.ANY, null);
+        assert query1.equals(query2);
+        assert query1.hashCode() == query2.hashCode();
+        assert !query1.equals(query3);
+
+        final DiscoService.QuerySpec querySpec = DiscoService.QuerySpec.of(null, null, Comparison.LESS_THAN, null, List.of(), List.of(Architecture.AARCH64, Architecture.X64), List.of(), List.of(), PackageType.JDK, List.of(), null, null, null,
+                                                                           Bitness.NONE, null, null, null, Latest.OVERALL, List.of(), null, null, Verification.NONE, Verification.NONE, List.of(), Match.ANY, null);
+        assert query1.equals(querySpec.toPkgQuery());
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2021.
+ *
+ * This file is part of DiscoAPI.
+ *
+ *     DiscoAPI is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 2 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DiscoAPI is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DiscoAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.foojay.api.util;
+
+import eu.hansolo.jdktools.versioning.VersionNumber;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+
+public class VersionKeyTest {
+
+    @Test
+    public void keysSortLikeVersionNumbers() {
+        final List<VersionNumber> versionNumbers = List.of(VersionNumber.fromText("8.0.282"),
+                                                           VersionNumber.fromText("8.0.282+8"),
+                                                           VersionNumber.fromText("11.0.14"),
+                                                           VersionNumber.fromText("17-ea.28"),
+                                                           VersionNumber.fromText("17-ea.34"),
+                                                           VersionNumber.fromText("17.0.2+8"),
+                                                           VersionNumber.fromText("17.0.2.1"));
+        for (int i = 0 ; i < versionNumbers.size() ; i++) {
+            for (int j = 0 ; j < versionNumbers.size() ; j++) {
+                final long key1 = VersionKey.of(versionNumbers.get(i));
+                final long key2 = VersionKey.of(versionNumbers.get(j));
+                assert VersionKey.NONE != key1;
+                assert Integer.signum(Long.compare(key1, key2)) == Integer.signum(versionNumbers.get(i).compareTo(versionNumbers.get(j)));
+            }
+        }
+        assert VersionKey.NONE == VersionKey.of(null);
+        assert VersionKey.NONE == VersionKey.of(new VersionNumber(17, 0, 2, 0, 0, 0, 100_000, null));
+    }
+
+    @Test
+    public void prefixes() {
+        final long key = VersionKey.of(VersionNumber.fromText("11.0.14.1+1"));
+        assert  VersionKey.hasPrefix(key, VersionKey.of(new VersionNumber(11)), 1);
+        assert  VersionKey.hasPrefix(key, VersionKey.of(new VersionNumber(11, 0, 14)), 3);
+        assert  VersionKey.hasPrefix(key, VersionKey.of(new VersionNumber(11, 0, 14, 1)), 4);
+        assert !VersionKey.hasPrefix(key, VersionKey.of(new VersionNumber(11, 0, 13)), 3);
+        assert !VersionKey.hasPrefix(key, VersionKey.of(new VersionNumber(17)), 1);
+        assert !VersionKey.hasPrefix(VersionKey.NONE, key, 1);
+    }
+}